@@ -0,0 +1,68 @@
+package com.pdfeditor.benchmark;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Multipart file backed by a file on disk, like a part the servlet container has spooled to
+ * its temp directory. {@link #transferTo(File)} moves the file, as Tomcat does when the
+ * target is on the same file system.
+ *
+ * @author PDF Editor Team
+ */
+public class FileBackedMultipartFile implements MultipartFile {
+
+    private final Path file;
+    private final String originalFilename;
+
+    public FileBackedMultipartFile(Path file, String originalFilename) {
+        this.file = file;
+        this.originalFilename = originalFilename;
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/pdf";
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return file.toFile().length();
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(file);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(file);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.move(file, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,196 @@
+package com.pdfeditor.benchmark;
+
+import com.pdfeditor.PdfEditorApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test comparing platform and virtual request threads over HTTP.
+ *
+ * The application runs with the embedded Tomcat at its default pool of 200 threads and the
+ * stub PDF engine. During each iteration {@code clients} background clients keep PDF/A
+ * validation requests in flight; each costs {@code pageCostMicros} per page on the validate
+ * bulkhead, so most of them are queued for the SDK at any time. The measured operation is a
+ * cheap request ({@code GET /api/health}) made while that backlog exists: with platform threads
+ * it waits for a request thread to free up once the backlog exceeds the Tomcat pool, with
+ * virtual threads it does not. The validation throughput and the peak JVM thread count are
+ * printed after each iteration.
+ *
+ * The {@code virtual} variant needs Java 21:
+ *     JAVA_HOME=/path/to/jdk-21 mvn -P benchmarks test-compile exec:exec -Djmh.args="RequestThreading -f 1"
+ *
+ * @author PDF Editor Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RequestThreadingBenchmark {
+
+    private static final int PAGES = 10;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"100", "400"})
+    public int clients;
+
+    @Param({"2000"})
+    public long pageCostMicros;
+
+    private Path workDir;
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI healthUri;
+    private HttpRequest validateRequest;
+
+    private final AtomicBoolean loadRunning = new AtomicBoolean();
+    private final AtomicLong validations = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private final List<Thread> loadThreads = new ArrayList<>();
+    private long iterationStart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual request threads need Java 21, running on " + Runtime.version());
+        }
+
+        workDir = Files.createTempDirectory("threading-bench");
+        Path corpusDir = Files.createDirectories(workDir.resolve("corpus"));
+
+        // Command-line arguments take precedence over application.properties
+        context = new SpringApplicationBuilder(PdfEditorApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .run("--server.port=0",
+                     "--management.server.port=0",
+                     "--spring.threads.virtual.enabled=" + virtual,
+                     "--app.sdk.engine=stub",
+                     "--app.sdk.stub.page-cost-micros=" + pageCostMicros,
+                     // Queue every client so the backlog holds request threads instead of failing fast
+                     "--app.bulkhead.validate.queue-capacity=" + (clients * 2),
+                     "--app.coalescing.enabled=false",
+                     "--app.upload.dir=" + workDir.resolve("uploads"),
+                     "--app.output.dir=" + workDir.resolve("outputs"),
+                     "--app.documents.dir=" + workDir.resolve("documents"),
+                     "--app.merge.sessions.dir=" + workDir.resolve("merge-sessions"),
+                     "--logging.level.root=WARN",
+                     "--logging.level.com.pdfeditor=WARN");
+
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        healthUri = URI.create(baseUrl + "/health");
+
+        String documentId = uploadDocument(baseUrl, SyntheticCorpus.create(corpusDir, PAGES, 1));
+        validateRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/validate-pdfa?documentId=" + documentId))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(workDir);
+    }
+
+    @Setup(Level.Iteration)
+    public void startLoad() {
+        validations.set(0);
+        rejections.set(0);
+        loadRunning.set(true);
+
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(this::validateInLoop, "load-client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            loadThreads.add(thread);
+        }
+        iterationStart = System.nanoTime();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopLoad() throws InterruptedException {
+        double seconds = (System.nanoTime() - iterationStart) / 1_000_000_000.0;
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+        loadRunning.set(false);
+        for (Thread thread : loadThreads) {
+            thread.join();
+        }
+        loadThreads.clear();
+
+        System.out.printf("%n  [%s, %d clients] validations: %.1f/s, rejected: %d, peak JVM threads: %d%n",
+                          threads, clients, validations.get() / seconds, rejections.get(), threadBean.getPeakThreadCount());
+        threadBean.resetPeakThreadCount();
+    }
+
+    @Benchmark
+    public int healthUnderLoad() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(healthUri).GET().build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private void validateInLoop() {
+        while (loadRunning.get()) {
+            try {
+                int status = httpClient.send(validateRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    validations.incrementAndGet();
+                } else {
+                    rejections.incrementAndGet();
+                }
+            } catch (IOException e) {
+                rejections.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private String uploadDocument(String baseUrl, Path pdf) throws Exception {
+        String boundary = "bench-" + UUID.randomUUID();
+        byte[] head = ("--" + boundary + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"corpus.pdf\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/documents"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArrays(List.of(head, Files.readAllBytes(pdf), tail)))
+                .build();
+        String body = httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+
+        // {"success":true,...,"data":{"documentId":"<sha256>",...}}
+        int start = body.indexOf("\"documentId\":\"") + "\"documentId\":\"".length();
+        return body.substring(start, body.indexOf('"', start));
+    }
+}
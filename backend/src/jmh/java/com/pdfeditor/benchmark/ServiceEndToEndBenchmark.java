@@ -0,0 +1,221 @@
+package com.pdfeditor.benchmark;
+
+import com.pdfeditor.PdfEditorApplication;
+import com.pdfeditor.dto.CompressRequest;
+import com.pdfeditor.dto.ConvertRequest;
+import com.pdfeditor.dto.DataExtractionResponse;
+import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.dto.MetadataResponse;
+import com.pdfeditor.dto.PdfAConversionRequest;
+import com.pdfeditor.dto.PdfAValidationResponse;
+import com.pdfeditor.dto.SplitRequest;
+import com.pdfeditor.service.PdfAConversionService;
+import com.pdfeditor.service.PdfAValidationService;
+import com.pdfeditor.service.PdfCompressService;
+import com.pdfeditor.service.PdfConvertService;
+import com.pdfeditor.service.PdfDataExtractionService;
+import com.pdfeditor.service.PdfMergeService;
+import com.pdfeditor.service.PdfMetadataService;
+import com.pdfeditor.service.PdfSplitService;
+import com.pdfeditor.service.ProgressListener;
+import com.pdfeditor.storage.DocumentStoreService;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end service calls (bulkhead, document store, SDK facade, output handling) on the
+ * stub PDF engine and a deterministic synthetic corpus. No native library or license key is
+ * needed; {@code pageCostMicros} adds a simulated native cost per processed page.
+ *
+ * @author PDF Editor Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ServiceEndToEndBenchmark {
+
+    @Param({"10", "100"})
+    public int pages;
+
+    @Param({"0", "200"})
+    public long pageCostMicros;
+
+    private Path workDir;
+    private ConfigurableApplicationContext context;
+    private DocumentStoreService documentStore;
+
+    private PdfMergeService mergeService;
+    private PdfSplitService splitService;
+    private PdfCompressService compressService;
+    private PdfConvertService convertService;
+    private PdfDataExtractionService extractionService;
+    private PdfMetadataService metadataService;
+    private PdfAValidationService validationService;
+    private PdfAConversionService pdfAConversionService;
+
+    private String documentId;
+    private String secondDocumentId;
+    private List<String> splitRanges;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("service-bench");
+
+        // Command-line arguments take precedence over application.properties
+        context = new SpringApplicationBuilder(PdfEditorApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .run("--app.sdk.engine=stub",
+                     "--app.sdk.stub.page-cost-micros=" + pageCostMicros,
+                     "--app.upload.dir=" + workDir.resolve("uploads"),
+                     "--app.output.dir=" + workDir.resolve("outputs"),
+                     "--app.documents.dir=" + workDir.resolve("documents"),
+                     "--app.merge.sessions.dir=" + workDir.resolve("merge-sessions"),
+                     "--app.render-cache.enabled=false",
+                     "--app.result-cache.enabled=false",
+                     "--app.coalescing.enabled=false",
+                     "--logging.level.root=WARN",
+                     "--logging.level.com.pdfeditor=WARN");
+
+        documentStore = context.getBean(DocumentStoreService.class);
+        mergeService = context.getBean(PdfMergeService.class);
+        splitService = context.getBean(PdfSplitService.class);
+        compressService = context.getBean(PdfCompressService.class);
+        convertService = context.getBean(PdfConvertService.class);
+        extractionService = context.getBean(PdfDataExtractionService.class);
+        metadataService = context.getBean(PdfMetadataService.class);
+        validationService = context.getBean(PdfAValidationService.class);
+        pdfAConversionService = context.getBean(PdfAConversionService.class);
+
+        documentId = storeCorpusDocument(1);
+        secondDocumentId = storeCorpusDocument(2);
+
+        // Four equal parts
+        splitRanges = new ArrayList<>();
+        int partSize = Math.max(1, pages / 4);
+        for (int start = 1; start <= pages; start += partSize) {
+            splitRanges.add(start + "-" + Math.min(pages, start + partSize - 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(workDir);
+    }
+
+    @Benchmark
+    public FileResponse merge() {
+        List<PdfInput> inputs = List.of(input(documentId), input(secondDocumentId));
+        try {
+            return mergeService.mergePdfs(inputs, "bench_merged.pdf");
+        } finally {
+            PdfInputResolver.closeAll(inputs);
+        }
+    }
+
+    @Benchmark
+    public List<FileResponse> split() {
+        SplitRequest request = new SplitRequest();
+        request.splitMode = "ranges";
+        request.splitPoints = splitRanges;
+        request.outputFileNameBase = "bench_split";
+
+        try (PdfInput input = input(documentId)) {
+            return splitService.splitPdf(input, request);
+        }
+    }
+
+    @Benchmark
+    public FileResponse compress() {
+        CompressRequest request = new CompressRequest();
+        request.compressionProfile = "web";
+        request.outputFileName = "bench_compressed.pdf";
+
+        try (PdfInput input = input(documentId)) {
+            return compressService.compressPdf(input, request);
+        }
+    }
+
+    @Benchmark
+    public List<FileResponse> convertToImages() {
+        ConvertRequest request = new ConvertRequest();
+        request.imageFormat = "png";
+        request.dpi = 150;
+        request.outputFileNameBase = "bench_page";
+
+        try (PdfInput input = input(documentId)) {
+            return convertService.convertPdfToImage(input, request);
+        }
+    }
+
+    @Benchmark
+    public DataExtractionResponse extractText() {
+        try (PdfInput input = input(documentId)) {
+            return extractionService.extractData(input, false, null);
+        }
+    }
+
+    @Benchmark
+    public int extractPages(Blackhole blackhole) {
+        try (PdfInput input = input(documentId)) {
+            return extractionService.extractPages(input, null, blackhole::consume, ProgressListener.NONE);
+        }
+    }
+
+    @Benchmark
+    public MetadataResponse metadata() {
+        try (PdfInput input = input(documentId)) {
+            return metadataService.extractMetadata(input);
+        }
+    }
+
+    @Benchmark
+    public PdfAValidationResponse validatePdfA() {
+        try (PdfInput input = input(documentId)) {
+            return validationService.validatePdfA(input, null);
+        }
+    }
+
+    @Benchmark
+    public FileResponse convertToPdfA() {
+        PdfAConversionRequest request = new PdfAConversionRequest();
+        request.outputFileName = "bench_pdfa.pdf";
+
+        try (PdfInput input = input(documentId)) {
+            return pdfAConversionService.convertToPdfA(input, request);
+        }
+    }
+
+    private PdfInput input(String id) {
+        return PdfInput.ofStoredDocument(documentStore.acquire(id), documentStore);
+    }
+
+    private String storeCorpusDocument(long seed) throws IOException {
+        Path corpusFile = SyntheticCorpus.create(workDir, pages, seed);
+        return documentStore.store(new FileBackedMultipartFile(corpusFile, corpusFile.getFileName().toString())).getId();
+    }
+}
@@ -0,0 +1,174 @@
+package com.pdfeditor.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching the JVM to the first successful request, for the plain fat jar and
+ * for the fast-startup build (Spring AOT plus a CDS archive).
+ *
+ * Each invocation starts the application in a new process with the stub engine and polls
+ * {@code GET /api/ready} until it answers 200, the request a load balancer waits for before
+ * routing traffic. This includes the startup warm-up. The {@code optimized} variant runs
+ * {@code target/fast-startup} and needs that build for the stub engine first:
+ *     mvn -P fast-startup package -DskipTests -Dfast-startup.sdk.engine=stub
+ *     mvn -P benchmarks test-compile exec:exec -Djmh.args="Startup"
+ *
+ * @author PDF Editor Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+public class StartupBenchmark {
+
+    private static final Path TARGET = Paths.get("target");
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"default", "optimized"})
+    public String image;
+
+    private Path workDir;
+    private HttpClient httpClient;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("startup-bench");
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(workDir);
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopApplication() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws Exception {
+        int port = freePort();
+        process = new ProcessBuilder(command(port))
+                .directory(workingDirectory().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve("application-" + image + ".log").toFile())
+                .start();
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/ready"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue()
+                        + ", see " + workDir.resolve("application-" + image + ".log"));
+            }
+            try {
+                int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    return status;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Application not ready after " + STARTUP_TIMEOUT);
+    }
+
+    private List<String> command(int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+
+        if ("optimized".equals(image)) {
+            Path layout = TARGET.resolve("fast-startup");
+            if (!Files.exists(layout.resolve("application.jsa"))) {
+                throw new IllegalStateException("No CDS archive in " + layout.toAbsolutePath()
+                        + ", build it with: mvn -P fast-startup package -DskipTests -Dfast-startup.sdk.engine=stub");
+            }
+            command.add("-XX:SharedArchiveFile=application.jsa");
+            command.add("-Dspring.aot.enabled=true");
+            command.add("-jar");
+            command.add(findJar(layout, "*-application.jar").getFileName().toString());
+        } else {
+            command.add("-jar");
+            command.add(findJar(TARGET, "pdf-editor-backend-*.jar").toAbsolutePath().toString());
+        }
+
+        command.add("--server.port=" + port);
+        command.add("--management.server.port=" + port);
+        command.add("--app.sdk.engine=stub");
+        command.add("--app.upload.dir=" + workDir.resolve("uploads"));
+        command.add("--app.output.dir=" + workDir.resolve("outputs"));
+        command.add("--app.documents.dir=" + workDir.resolve("documents"));
+        command.add("--app.merge.sessions.dir=" + workDir.resolve("merge-sessions"));
+        return command;
+    }
+
+    /**
+     * The CDS archive records the class path, so the optimized layout runs from its own directory.
+     */
+    private Path workingDirectory() {
+        return "optimized".equals(image) ? TARGET.resolve("fast-startup") : Paths.get(".");
+    }
+
+    private static Path findJar(Path directory, String glob) throws IOException {
+        try (DirectoryStream<Path> jars = Files.newDirectoryStream(directory, glob)) {
+            for (Path jar : jars) {
+                return jar;
+            }
+        }
+        throw new IllegalStateException("No " + glob + " in " + directory.toAbsolutePath()
+                + ", build it with: mvn package -DskipTests");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.pdfeditor.benchmark;
+
+import com.pdfeditor.sdk.SyntheticPdf;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Deterministic corpus of synthetic PDFs for the benchmarks.
+ *
+ * @author PDF Editor Team
+ */
+public final class SyntheticCorpus {
+
+    /** Words per page, roughly a page of dense prose */
+    public static final int WORDS_PER_PAGE = 250;
+
+    private SyntheticCorpus() {
+    }
+
+    /**
+     * Writes a synthetic PDF. The same page count and seed always produce the same file.
+     *
+     * @param dir directory to write to
+     * @param pageCount number of pages
+     * @param seed random seed for the page text
+     * @return path of the written PDF
+     * @throws IOException if the file cannot be written
+     */
+    public static Path create(Path dir, int pageCount, long seed) throws IOException {
+        Path file = dir.resolve("corpus_" + pageCount + "p_" + seed + ".pdf");
+        SyntheticPdf.write(file, SyntheticPdf.generatePages(pageCount, WORDS_PER_PAGE, seed));
+        return file;
+    }
+}
@@ -0,0 +1,95 @@
+package com.pdfeditor.benchmark;
+
+import com.pdfeditor.metrics.PdfPhaseMetrics;
+import com.pdfeditor.storage.UploadStagingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares staging a spooled multipart upload through {@link UploadStagingService} with the
+ * former saveUploadedFile approach ({@code getBytes()} followed by {@code Files.write}).
+ *
+ * @author PDF Editor Team
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UploadStagingBenchmark {
+
+    @Param({"1", "16", "64"})
+    public int sizeMb;
+
+    private Path workDir;
+    private Path uploadDir;
+    private Path source;
+    private Path spooledPart;
+    private File staged;
+    private UploadStagingService stagingService;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws IOException {
+        workDir = Files.createTempDirectory("staging-bench");
+        uploadDir = Files.createDirectories(workDir.resolve("uploads"));
+
+        byte[] content = new byte[sizeMb * 1024 * 1024];
+        new Random(42).nextBytes(content);
+        source = Files.write(workDir.resolve("source.pdf"), content);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        stagingService = new UploadStagingService(meterRegistry, new PdfPhaseMetrics(meterRegistry, true));
+        ReflectionTestUtils.setField(stagingService, "uploadDir", uploadDir.toString());
+    }
+
+    @Setup(Level.Invocation)
+    public void spoolPart() throws IOException {
+        // Stands in for the container's temp file, created before the controller runs
+        spooledPart = Files.copy(source, workDir.resolve("part.tmp"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteStaged() throws IOException {
+        if (staged != null) {
+            Files.deleteIfExists(staged.toPath());
+        }
+        Files.deleteIfExists(spooledPart);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        FileSystemUtils.deleteRecursively(workDir);
+    }
+
+    @Benchmark
+    public File stageZeroCopy() throws IOException {
+        staged = stagingService.stage(new FileBackedMultipartFile(spooledPart, "document.pdf"));
+        return staged;
+    }
+
+    @Benchmark
+    public File stageViaHeapCopy() throws IOException {
+        FileBackedMultipartFile part = new FileBackedMultipartFile(spooledPart, "document.pdf");
+        staged = uploadDir.resolve(UUID.randomUUID() + "_" + part.getOriginalFilename()).toFile();
+        Files.write(staged.toPath(), part.getBytes());
+        return staged;
+    }
+}
@@ -0,0 +1,49 @@
+package com.pdfeditor.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Page specification parsing: {@link PdfConvertService#parsePageNumbers}, the per-page
+ * {@link PdfDataExtractionService#shouldProcessPage} scan used by {@code /extract}, and the
+ * one-pass {@link PdfDataExtractionService#resolvePages} used by {@code /extract/pages}.
+ *
+ * @author PDF Editor Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PageSpecBenchmark {
+
+    @Param({"", "1-50", "1,3,5,7-20,100-150,400,999-1200"})
+    public String spec;
+
+    @Param({"2000"})
+    public int totalPages;
+
+    @Benchmark
+    public List<Integer> parsePageNumbers() {
+        return PdfConvertService.parsePageNumbers(spec, totalPages);
+    }
+
+    @Benchmark
+    public List<Integer> resolvePages() {
+        return PdfDataExtractionService.resolvePages(spec, totalPages);
+    }
+
+    @Benchmark
+    public void shouldProcessPageScan(Blackhole blackhole) {
+        for (int page = 1; page <= totalPages; page++) {
+            blackhole.consume(PdfDataExtractionService.shouldProcessPage(page, spec));
+        }
+    }
+}
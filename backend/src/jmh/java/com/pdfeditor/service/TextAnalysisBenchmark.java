@@ -0,0 +1,40 @@
+package com.pdfeditor.service;
+
+import com.pdfeditor.benchmark.SyntheticCorpus;
+import com.pdfeditor.sdk.SyntheticPdf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Word counting over extracted text with {@link PdfDataExtractionService#countWords}.
+ *
+ * @author PDF Editor Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TextAnalysisBenchmark {
+
+    @Param({"1", "100", "2000"})
+    public int pages;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        text = String.join("\n", SyntheticPdf.generatePages(pages, SyntheticCorpus.WORDS_PER_PAGE, 42));
+    }
+
+    @Benchmark
+    public int countWords() {
+        return PdfDataExtractionService.countWords(text);
+    }
+}
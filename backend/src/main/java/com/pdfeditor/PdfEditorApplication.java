@@ -2,6 +2,7 @@ package com.pdfeditor;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for PDF Editor backend service.
@@ -12,11 +13,13 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * - Split PDF into multiple files
  * - Compress PDF file
  * - Convert PDF to image formats
+ * - Store documents once and reference them by ID across operations
  *
  * @author PDF Editor Team
  * @version 1.0.0
  */
 @SpringBootApplication
+@EnableScheduling
 public class PdfEditorApplication {
 
     public static void main(String[] args) {
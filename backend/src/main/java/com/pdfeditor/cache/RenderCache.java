@@ -0,0 +1,317 @@
+package com.pdfeditor.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Two-tier cache of rendered page images.
+ *
+ * Keys combine the SHA-256 of the source PDF with every render parameter, so a hit is
+ * byte-identical to what the SDK would produce. Small images are kept in an in-memory LRU;
+ * all images are kept in a disk tier under {@code <output dir>/.render-cache} that is
+ * trimmed to its byte budget, least recently used first.
+ *
+ * @author PDF Editor Team
+ */
+@Service
+public class RenderCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderCache.class);
+
+    private static final String CACHE_DIR_NAME = ".render-cache";
+
+    /** Access-ordered memory tier, guarded by itself. */
+    private final LinkedHashMap<String, byte[]> memoryTier = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    /** Disk tier index; eviction is guarded by {@link #diskLock}. */
+    private final Map<String, DiskEntry> diskTier = new ConcurrentHashMap<>();
+    private final Object diskLock = new Object();
+    private long diskBytes;
+
+    private Counter memoryHits;
+    private Counter diskHits;
+    private Counter misses;
+    private Counter bytesSaved;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.output.dir}")
+    private String outputDir;
+
+    @Value("${app.render-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.render-cache.memory.max-bytes:67108864}")
+    private long memoryMaxBytes;
+
+    @Value("${app.render-cache.memory.max-entry-bytes:1048576}")
+    private long memoryMaxEntryBytes;
+
+    @Value("${app.render-cache.disk.max-bytes:1073741824}")
+    private long diskMaxBytes;
+
+    private Path cachePath;
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        memoryHits = Counter.builder("pdf.render.cache.hits").tag("tier", "memory")
+                .description("Page renders served from the render cache").register(meterRegistry);
+        diskHits = Counter.builder("pdf.render.cache.hits").tag("tier", "disk")
+                .description("Page renders served from the render cache").register(meterRegistry);
+        misses = Counter.builder("pdf.render.cache.misses")
+                .description("Page renders that had to go through the SDK").register(meterRegistry);
+        bytesSaved = Counter.builder("pdf.render.cache.bytes.saved").baseUnit("bytes")
+                .description("Image bytes served from the cache instead of being rendered").register(meterRegistry);
+        Gauge.builder("pdf.render.cache.hit.ratio", this, RenderCache::hitRatio)
+                .description("Fraction of page renders served from the cache").register(meterRegistry);
+        Gauge.builder("pdf.render.cache.size", this, cache -> cache.memoryBytesSnapshot())
+                .tag("tier", "memory").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("pdf.render.cache.size", this, cache -> cache.diskBytesSnapshot())
+                .tag("tier", "disk").baseUnit("bytes").register(meterRegistry);
+
+        cachePath = Paths.get(outputDir, CACHE_DIR_NAME).toAbsolutePath().normalize();
+        if (!enabled) {
+            logger.info("Render cache disabled");
+            return;
+        }
+        Files.createDirectories(cachePath);
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cachePath)) {
+            for (Path path : stream) {
+                if (path.getFileName().toString().contains(".tmp-")) {
+                    Files.deleteIfExists(path);
+                } else if (Files.isRegularFile(path)) {
+                    long size = Files.size(path);
+                    long lastModified = Files.getLastModifiedTime(path).toMillis();
+                    diskTier.put(path.getFileName().toString(), new DiskEntry(path, size, lastModified));
+                    diskBytes += size;
+                }
+            }
+        }
+
+        logger.info("Render cache initialized at {} ({} entries, {} bytes on disk)",
+                    cachePath, diskTier.size(), diskBytes);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Builds a cache key from the source content hash and all render parameters.
+     *
+     * @param contentHash SHA-256 of the source PDF
+     * @param pageNumber 1-based page number
+     * @param dpi requested resolution
+     * @param format image format (file extension)
+     * @param profile name of the SDK render profile
+     * @return cache key, also used as the disk file name
+     */
+    public static String key(String contentHash, int pageNumber, Integer dpi, String format, String profile) {
+        return String.format(Locale.ROOT, "%s_p%d_%sdpi_%s.%s", contentHash, pageNumber,
+                             dpi != null ? dpi : "default", profile, format.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Writes a cached image to the target file if the key is cached.
+     *
+     * @param key cache key
+     * @param target file to write the image to
+     * @return true on a cache hit, false if the page has to be rendered
+     */
+    public boolean copyTo(String key, File target) {
+        if (!enabled) {
+            return false;
+        }
+
+        try {
+            byte[] cached;
+            synchronized (memoryTier) {
+                cached = memoryTier.get(key);
+            }
+            if (cached != null) {
+                Files.write(target.toPath(), cached);
+                memoryHits.increment();
+                bytesSaved.increment(cached.length);
+                return true;
+            }
+
+            DiskEntry entry = diskTier.get(key);
+            if (entry != null) {
+                Files.copy(entry.path, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                entry.lastAccess = System.currentTimeMillis();
+                diskHits.increment();
+                bytesSaved.increment(entry.size);
+                promoteToMemory(key, entry);
+                return true;
+            }
+        } catch (IOException e) {
+            // A concurrent eviction may have removed the disk file; fall back to rendering
+            logger.debug("Render cache read failed for {}: {}", key, e.getMessage());
+        }
+
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Adds a freshly rendered image to the cache.
+     *
+     * @param key cache key
+     * @param rendered rendered image file
+     */
+    public void put(String key, File rendered) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            long size = rendered.length();
+            if (size <= memoryMaxEntryBytes) {
+                putInMemory(key, Files.readAllBytes(rendered.toPath()));
+            }
+
+            if (!diskTier.containsKey(key) && size <= diskMaxBytes) {
+                Path target = cachePath.resolve(key);
+                Path temp = cachePath.resolve(key + ".tmp-" + UUID.randomUUID());
+                Files.copy(rendered.toPath(), temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                synchronized (diskLock) {
+                    DiskEntry previous = diskTier.put(key, new DiskEntry(target, size, System.currentTimeMillis()));
+                    diskBytes += size - (previous != null ? previous.size : 0);
+                    evictDisk();
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to cache rendered page {}: {}", key, e.getMessage());
+        } catch (RuntimeException e) {
+            // The page rendered fine; cache maintenance must not fail the request
+            logger.warn("Failed to cache rendered page {}", key, e);
+        }
+    }
+
+    private void promoteToMemory(String key, DiskEntry entry) throws IOException {
+        if (entry.size <= memoryMaxEntryBytes) {
+            putInMemory(key, Files.readAllBytes(entry.path));
+        }
+    }
+
+    private void putInMemory(String key, byte[] data) {
+        synchronized (memoryTier) {
+            byte[] previous = memoryTier.put(key, data);
+            memoryBytes += data.length - (previous != null ? previous.length : 0);
+
+            Iterator<Map.Entry<String, byte[]>> iterator = memoryTier.entrySet().iterator();
+            while (memoryBytes > memoryMaxBytes && iterator.hasNext()) {
+                Map.Entry<String, byte[]> eldest = iterator.next();
+                memoryBytes -= eldest.getValue().length;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Trims the disk tier to its budget. Must be called while holding {@link #diskLock}.
+     */
+    private void evictDisk() {
+        if (diskBytes <= diskMaxBytes) {
+            return;
+        }
+
+        // Disk hits keep updating lastAccess, so sort on a snapshot to keep the order consistent
+        List<Candidate> candidates = new ArrayList<>(diskTier.size());
+        diskTier.forEach((key, entry) -> candidates.add(new Candidate(key, entry)));
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.lastAccess));
+
+        for (Candidate candidate : candidates) {
+            if (diskBytes <= diskMaxBytes) {
+                break;
+            }
+            if (diskTier.remove(candidate.key, candidate.entry)) {
+                diskBytes -= candidate.entry.size;
+                try {
+                    Files.deleteIfExists(candidate.entry.path);
+                } catch (IOException e) {
+                    logger.warn("Failed to delete render cache file: {}", candidate.entry.path, e);
+                }
+            }
+        }
+    }
+
+    private double hitRatio() {
+        double hits = memoryHits.count() + diskHits.count();
+        double total = hits + misses.count();
+        return total > 0 ? hits / total : 0;
+    }
+
+    private long memoryBytesSnapshot() {
+        synchronized (memoryTier) {
+            return memoryBytes;
+        }
+    }
+
+    private long diskBytesSnapshot() {
+        synchronized (diskLock) {
+            return diskBytes;
+        }
+    }
+
+    /**
+     * Index entry of an image in the disk tier.
+     */
+    private static final class DiskEntry {
+
+        private final Path path;
+        private final long size;
+        private volatile long lastAccess;
+
+        DiskEntry(Path path, long size, long lastAccess) {
+            this.path = path;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * Eviction candidate with the access time captured when the candidates were listed.
+     */
+    private static final class Candidate {
+
+        private final String key;
+        private final DiskEntry entry;
+        private final long lastAccess;
+
+        Candidate(String key, DiskEntry entry) {
+            this.key = key;
+            this.entry = entry;
+            this.lastAccess = entry.lastAccess;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.pdfeditor.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdfeditor.concurrency.OperationKey;
+import com.pdfeditor.concurrency.SdkOperation;
+import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.storage.ContentHash;
+import com.pdfeditor.storage.OutputRetentionService;
+import com.pdfeditor.storage.PdfInput;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Durable cache of operation results.
+ *
+ * Deterministic operations (merge, split, compress, PDF/A conversion) are keyed by
+ * {@link OperationKey}: the SHA-256 of every input plus the normalized request parameters.
+ * Each entry is a directory under {@code <output dir>/.result-cache} holding copies of the
+ * output files and a {@code manifest.json} with their {@link FileResponse}s. On a hit the
+ * files are copied back into the output directory under their original names and the SDK
+ * is not called.
+ *
+ * The directory is the index: it is rescanned on startup, and the manifest modification
+ * time records the last hit, so least-recently-used order survives restarts. Entries are
+ * evicted LRU-first once the cache exceeds {@code app.result-cache.max-bytes}.
+ *
+ * Outputs are copied rather than hard-linked in both directions, because the SDK
+ * overwrites output files in place and would otherwise corrupt the cached copy.
+ *
+ * @author PDF Editor Team
+ */
+@Service
+public class ResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResultCache.class);
+
+    private static final String CACHE_DIR_NAME = ".result-cache";
+    private static final String MANIFEST_NAME = "manifest.json";
+    private static final TypeReference<List<FileResponse>> MANIFEST_TYPE = new TypeReference<>() { };
+
+    /** Index of the entries on disk; eviction is guarded by {@link #lock}. */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private long totalBytes;
+
+    private Counter evictions;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OutputRetentionService outputRetention;
+
+    @Value("${app.output.dir}")
+    private String outputDir;
+
+    @Value("${app.result-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.result-cache.max-bytes:2147483648}")
+    private long maxBytes;
+
+    private Path cachePath;
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        evictions = Counter.builder("pdf.result.cache.evictions")
+                .description("Result cache entries evicted to stay within the byte budget").register(meterRegistry);
+        Gauge.builder("pdf.result.cache.size", this, cache -> cache.totalBytesSnapshot())
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("pdf.result.cache.entries", entries, Map::size).register(meterRegistry);
+
+        cachePath = Paths.get(outputDir, CACHE_DIR_NAME).toAbsolutePath().normalize();
+        if (!enabled) {
+            logger.info("Result cache disabled");
+            return;
+        }
+        Files.createDirectories(cachePath);
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cachePath)) {
+            for (Path path : stream) {
+                Path manifest = path.resolve(MANIFEST_NAME);
+                if (path.getFileName().toString().contains(".tmp-") || !Files.isRegularFile(manifest)) {
+                    // Interrupted store
+                    FileSystemUtils.deleteRecursively(path);
+                    continue;
+                }
+                long size = directorySize(path);
+                long lastAccess = Files.getLastModifiedTime(manifest).toMillis();
+                entries.put(path.getFileName().toString(), new Entry(path, size, lastAccess));
+                totalBytes += size;
+            }
+        }
+
+        logger.info("Result cache initialized at {} ({} entries, {} bytes)", cachePath, entries.size(), totalBytes);
+    }
+
+    /**
+     * Returns the cached result of an operation producing one output, or computes and caches it.
+     *
+     * @param operation operation type
+     * @param inputs inputs of the operation, in the order they affect the output
+     * @param parameters normalized parameters that determine the output
+     * @param task computes the result on a miss
+     * @return the cached or computed result
+     */
+    public FileResponse getOrCompute(SdkOperation operation, List<PdfInput> inputs, List<?> parameters,
+                                     Supplier<FileResponse> task) {
+        return getOrComputeAll(operation, inputs, parameters, () -> List.of(task.get())).get(0);
+    }
+
+    /**
+     * Returns the cached result of an operation producing several outputs, or computes and
+     * caches it.
+     *
+     * @param operation operation type
+     * @param inputs inputs of the operation, in the order they affect the output
+     * @param parameters normalized parameters that determine the output
+     * @param task computes the result on a miss
+     * @return the cached or computed result
+     */
+    public List<FileResponse> getOrComputeAll(SdkOperation operation, List<PdfInput> inputs, List<?> parameters,
+                                              Supplier<List<FileResponse>> task) {
+        if (!enabled) {
+            return task.get();
+        }
+
+        String id;
+        try {
+            id = ContentHash.sha256Hex(OperationKey.of(operation, inputs, parameters));
+        } catch (IOException e) {
+            logger.warn("Cannot hash {} input, bypassing the result cache", operation.getKey(), e);
+            return task.get();
+        }
+
+        List<FileResponse> cached = restore(id);
+        if (cached != null) {
+            counter("pdf.result.cache.hits", operation).increment();
+            logger.info("Served {} request from result cache ({} outputs)", operation.getKey(), cached.size());
+            return cached;
+        }
+
+        counter("pdf.result.cache.misses", operation).increment();
+        List<FileResponse> result = task.get();
+        store(id, result);
+        return result;
+    }
+
+    /**
+     * Copies the outputs of a cached entry back into the output directory.
+     *
+     * @param id entry id
+     * @return the cached responses, or null on a miss
+     */
+    private List<FileResponse> restore(String id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return null;
+        }
+
+        try {
+            List<FileResponse> responses = objectMapper.readValue(entry.path.resolve(MANIFEST_NAME).toFile(), MANIFEST_TYPE);
+
+            for (int i = 0; i < responses.size(); i++) {
+                FileResponse response = responses.get(i);
+                File target = new File(outputDir, response.fileName);
+                Path temp = target.toPath().resolveSibling("." + response.fileName + ".tmp-" + UUID.randomUUID());
+
+                Files.copy(entry.path.resolve(String.valueOf(i)), temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+                response.filePath = target.getAbsolutePath();
+                outputRetention.register(target);
+            }
+
+            entry.lastAccess = System.currentTimeMillis();
+            Files.setLastModifiedTime(entry.path.resolve(MANIFEST_NAME), FileTime.fromMillis(entry.lastAccess));
+            return responses;
+        } catch (IOException e) {
+            // A concurrent eviction may have removed the entry; fall back to computing
+            logger.debug("Result cache read failed for {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Adds the outputs of a computed result to the cache.
+     *
+     * @param id entry id
+     * @param responses computed result
+     */
+    private void store(String id, List<FileResponse> responses) {
+        if (entries.containsKey(id)) {
+            return;
+        }
+
+        long size = 0;
+        for (FileResponse response : responses) {
+            size += new File(response.filePath).length();
+        }
+        if (size > maxBytes) {
+            return;
+        }
+
+        Path target = cachePath.resolve(id);
+        Path temp = cachePath.resolve(id + ".tmp-" + UUID.randomUUID());
+        try {
+            Files.createDirectories(temp);
+            for (int i = 0; i < responses.size(); i++) {
+                Files.copy(Paths.get(responses.get(i).filePath), temp.resolve(String.valueOf(i)),
+                           StandardCopyOption.REPLACE_EXISTING);
+            }
+            objectMapper.writeValue(temp.resolve(MANIFEST_NAME).toFile(), responses);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+            // Stored concurrently by an identical request
+            deleteQuietly(temp);
+            return;
+        } catch (IOException e) {
+            logger.warn("Failed to cache result {}: {}", id, e.getMessage());
+            deleteQuietly(temp);
+            return;
+        }
+
+        synchronized (lock) {
+            Entry previous = entries.put(id, new Entry(target, size, System.currentTimeMillis()));
+            totalBytes += size - (previous != null ? previous.size : 0);
+            evict();
+        }
+    }
+
+    /**
+     * Trims the cache to its budget. Must be called while holding {@link #lock}.
+     */
+    private void evict() {
+        if (totalBytes <= maxBytes) {
+            return;
+        }
+
+        // Hits keep updating lastAccess, so sort on a snapshot to keep the order consistent
+        List<Candidate> candidates = new ArrayList<>(entries.size());
+        entries.forEach((id, entry) -> candidates.add(new Candidate(id, entry)));
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.lastAccess));
+
+        for (Candidate candidate : candidates) {
+            if (totalBytes <= maxBytes) {
+                break;
+            }
+            if (entries.remove(candidate.id, candidate.entry)) {
+                totalBytes -= candidate.entry.size;
+                evictions.increment();
+                deleteQuietly(candidate.entry.path);
+            }
+        }
+    }
+
+    private Counter counter(String name, SdkOperation operation) {
+        return Counter.builder(name).tag("operation", operation.getKey()).register(meterRegistry);
+    }
+
+    private static long directorySize(Path directory) throws IOException {
+        long size = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                size += Files.size(path);
+            }
+        }
+        return size;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            FileSystemUtils.deleteRecursively(path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete result cache path: {}", path, e);
+        }
+    }
+
+    private long totalBytesSnapshot() {
+        synchronized (lock) {
+            return totalBytes;
+        }
+    }
+
+    /**
+     * Index entry of a cached result.
+     */
+    private static final class Entry {
+
+        private final Path path;
+        private final long size;
+        private volatile long lastAccess;
+
+        Entry(Path path, long size, long lastAccess) {
+            this.path = path;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * Eviction candidate with the access time captured when the candidates were listed.
+     */
+    private static final class Candidate {
+
+        private final String id;
+        private final Entry entry;
+        private final long lastAccess;
+
+        Candidate(String id, Entry entry) {
+            this.id = id;
+            this.entry = entry;
+            this.lastAccess = entry.lastAccess;
+        }
+    }
+}
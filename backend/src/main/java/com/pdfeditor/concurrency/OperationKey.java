@@ -0,0 +1,45 @@
+package com.pdfeditor.concurrency;
+
+import com.pdfeditor.storage.PdfInput;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Identity of an operation request: the operation, the content of its inputs and the
+ * parameters that determine its output. Two requests with the same key produce the same
+ * output.
+ *
+ * @author PDF Editor Team
+ */
+public final class OperationKey {
+
+    private OperationKey() {
+    }
+
+    /**
+     * Builds the key of a request.
+     *
+     * @param operation operation type
+     * @param inputs inputs of the operation, in the order they affect the output
+     * @param parameters normalized parameters that determine the output; null means "not set"
+     * @return key
+     * @throws IOException if an input cannot be hashed
+     */
+    public static String of(SdkOperation operation, List<PdfInput> inputs, List<?> parameters) throws IOException {
+        StringBuilder key = new StringBuilder(operation.getKey());
+        for (PdfInput input : inputs) {
+            key.append('|').append(input.getContentHash());
+        }
+        key.append('|');
+        for (Object parameter : parameters) {
+            // NUL cannot appear in request parameters, so it keeps adjacent values apart;
+            // '=' marks a present value so that null differs from "" and from "null"
+            key.append('\0');
+            if (parameter != null) {
+                key.append('=').append(parameter);
+            }
+        }
+        return key.toString();
+    }
+}
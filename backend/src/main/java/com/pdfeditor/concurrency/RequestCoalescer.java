@@ -0,0 +1,126 @@
+package com.pdfeditor.concurrency;
+
+import com.pdfeditor.exception.PdfProcessingException;
+import com.pdfeditor.storage.PdfInput;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical operations.
+ *
+ * Requests are keyed by operation, the SHA-256 of every input and the normalized parameters
+ * that determine the output. While an operation with a given key is running, identical
+ * requests do not start their own computation: they wait for the running one and get its
+ * result (or its exception). The key is removed as soon as the computation finishes, so this
+ * only merges requests that overlap in time; it is not a result cache.
+ *
+ * Waiting requests receive no progress updates, only the final result.
+ *
+ * @author PDF Editor Team
+ */
+@Service
+public class RequestCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<SdkOperation, Counter> coalescedCounters = new EnumMap<>(SdkOperation.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.coalescing.enabled:true}")
+    private boolean enabled;
+
+    @PostConstruct
+    public void initialize() {
+        for (SdkOperation operation : SdkOperation.values()) {
+            coalescedCounters.put(operation, Counter.builder("pdf.coalesced")
+                    .description("Requests that attached to an identical in-flight operation")
+                    .tag("operation", operation.getKey())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("pdf.coalescing.in-flight", inFlight, Map::size)
+                .description("Distinct operations currently open for coalescing")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a task, or waits for an identical one that is already running.
+     *
+     * @param operation operation type
+     * @param inputs inputs of the operation, in the order they affect the output
+     * @param parameters normalized parameters that determine the output
+     * @param task the computation
+     * @param <T> result type
+     * @return the result of this or of the identical in-flight computation
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(SdkOperation operation, List<PdfInput> inputs, List<?> parameters, Supplier<T> task) {
+        if (!enabled) {
+            return task.get();
+        }
+
+        String key;
+        try {
+            key = OperationKey.of(operation, inputs, parameters);
+        } catch (IOException e) {
+            logger.warn("Cannot hash {} input, running without coalescing", operation.getKey(), e);
+            return task.get();
+        }
+
+        CompletableFuture<Object> own = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, own);
+
+        if (running != null) {
+            coalescedCounters.get(operation).increment();
+            logger.info("Attached {} request to identical in-flight operation", operation.getKey());
+            return (T) await(operation, running);
+        }
+
+        try {
+            T result = task.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private static Object await(SdkOperation operation, CompletableFuture<Object> running) {
+        try {
+            return running.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PdfProcessingException("PDF " + operation.getKey() + " operation failed", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfProcessingException("PDF " + operation.getKey() + " operation was interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.pdfeditor.concurrency;
+
+import com.pdfeditor.exception.PdfProcessingException;
+import com.pdfeditor.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for native SDK work.
+ *
+ * Every {@link SdkOperation} gets its own fixed-size pool with a bounded queue
+ * ({@code app.bulkhead.<operation>.threads} / {@code .queue-capacity}). This caps the
+ * number of concurrent native calls, and with it native memory. When a queue is full the
+ * request is rejected with a {@link ServiceBusyException} (HTTP 429) instead of waiting.
+ *
+ * Work submitted from a thread that already runs inside a bulkhead executes inline, so
+ * composite operations cannot deadlock on their own pool.
+ *
+ * Bulkhead threads are platform threads. When requests run on virtual threads (Java 21,
+ * {@code spring.threads.virtual.enabled}), the request thread only waits here; native SDK
+ * calls, which would pin a virtual thread to its carrier for their whole duration, never run
+ * on it.
+ *
+ * @author PDF Editor Team
+ */
+@Service
+public class SdkBulkheadScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SdkBulkheadScheduler.class);
+
+    private static final long MIN_RETRY_AFTER_SECONDS = 1;
+    private static final long MAX_RETRY_AFTER_SECONDS = 60;
+
+    private static final ThreadLocal<SdkOperation> CURRENT_OPERATION = new ThreadLocal<>();
+
+    /** {@code Thread.isVirtual()} on Java 21+, null on older runtimes without virtual threads. */
+    private static final MethodHandle IS_VIRTUAL = findIsVirtual();
+
+    private final Map<SdkOperation, Bulkhead> bulkheads = new EnumMap<>(SdkOperation.class);
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void initialize() {
+        int defaultThreads = environment.getProperty("app.bulkhead.default.threads", Integer.class, 2);
+        int defaultQueue = environment.getProperty("app.bulkhead.default.queue-capacity", Integer.class, 16);
+
+        for (SdkOperation operation : SdkOperation.values()) {
+            String prefix = "app.bulkhead." + operation.getKey();
+            int threads = environment.getProperty(prefix + ".threads", Integer.class, defaultThreads);
+            int queueCapacity = environment.getProperty(prefix + ".queue-capacity", Integer.class, defaultQueue);
+
+            bulkheads.put(operation, new Bulkhead(operation, threads, queueCapacity));
+            logger.info("Bulkhead {}: {} threads, queue capacity {}", operation.getKey(), threads, queueCapacity);
+        }
+
+        boolean virtualRequests = IS_VIRTUAL != null
+                && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        logger.info("Requests run on {} threads, native SDK calls on bulkhead platform threads",
+                    virtualRequests ? "virtual" : "platform");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkheads.values().forEach(bulkhead -> bulkhead.executor.shutdownNow());
+    }
+
+    /**
+     * Runs a task in the bulkhead of the given operation and waits for its result.
+     *
+     * @param operation operation type
+     * @param task native SDK work
+     * @param <T> result type
+     * @return the task result
+     * @throws ServiceBusyException if the operation queue is full
+     * @throws PdfProcessingException if the task fails with a checked exception
+     */
+    public <T> T execute(SdkOperation operation, Callable<T> task) {
+        if (CURRENT_OPERATION.get() != null) {
+            return call(task);
+        }
+
+        Bulkhead bulkhead = bulkheads.get(operation);
+        long enqueuedAt = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = bulkhead.executor.submit(() -> {
+                bulkhead.waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                CURRENT_OPERATION.set(operation);
+                long startedAt = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    bulkhead.executionTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    CURRENT_OPERATION.remove();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            bulkhead.rejections.increment();
+            long retryAfter = bulkhead.estimateRetryAfterSeconds();
+            logger.warn("Rejected {} request: queue full ({} queued), retry after {}s",
+                        operation.getKey(), bulkhead.executor.getQueue().size(), retryAfter);
+            throw new ServiceBusyException("Server is busy processing " + operation.getKey()
+                    + " requests, please retry later", retryAfter);
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PdfProcessingException("PDF " + operation.getKey() + " operation failed", cause);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PdfProcessingException("PDF " + operation.getKey() + " operation was interrupted", e);
+        }
+    }
+
+    /**
+     * Returns the operation whose bulkhead the current thread is working for.
+     *
+     * @return current operation, or null outside any bulkhead
+     */
+    public static SdkOperation currentOperation() {
+        return CURRENT_OPERATION.get();
+    }
+
+    /**
+     * Wraps a task so that it runs on behalf of the caller's operation when handed to another
+     * executor, e.g. the render workers of a convert operation. Nested {@link #execute} calls
+     * from the task run inline, and metrics recorded by it carry the caller's operation.
+     *
+     * The executor must run the task on a platform thread; handing native work to a virtual
+     * thread fails with an {@link IllegalStateException}.
+     *
+     * @param task task to wrap
+     * @param <T> result type
+     * @return the wrapped task, or the task itself when called outside any bulkhead
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        SdkOperation operation = CURRENT_OPERATION.get();
+        if (operation == null) {
+            return task;
+        }
+        return () -> {
+            if (isVirtual(Thread.currentThread())) {
+                throw new IllegalStateException("SDK work for " + operation.getKey()
+                        + " must run on a platform thread, not on " + Thread.currentThread());
+            }
+            SdkOperation previous = CURRENT_OPERATION.get();
+            CURRENT_OPERATION.set(operation);
+            try {
+                return task.call();
+            } finally {
+                if (previous != null) {
+                    CURRENT_OPERATION.set(previous);
+                } else {
+                    CURRENT_OPERATION.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * Tells whether a thread is virtual.
+     *
+     * @param thread thread to check
+     * @return true for virtual threads; always false before Java 21
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    private static MethodHandle findIsVirtual() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private static <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new PdfProcessingException("PDF operation failed", e);
+        }
+    }
+
+    /**
+     * Pool, queue and meters of a single operation type.
+     */
+    private final class Bulkhead {
+
+        private final ThreadPoolExecutor executor;
+        private final Timer waitTimer;
+        private final Timer executionTimer;
+        private final Counter rejections;
+
+        Bulkhead(SdkOperation operation, int threads, int queueCapacity) {
+            this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    new CustomizableThreadFactory("sdk-" + operation.getKey() + "-"));
+
+            String tag = operation.getKey();
+            this.waitTimer = Timer.builder("pdf.bulkhead.wait")
+                    .description("Time a request waits in its bulkhead queue")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+            this.executionTimer = Timer.builder("pdf.bulkhead.execution")
+                    .description("Time a request runs inside its bulkhead")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+            this.rejections = Counter.builder("pdf.bulkhead.rejected")
+                    .description("Requests rejected because the bulkhead queue was full")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+            Gauge.builder("pdf.bulkhead.queue.depth", executor, e -> e.getQueue().size())
+                    .description("Requests waiting in the bulkhead queue")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+            Gauge.builder("pdf.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+                    .description("Requests currently running inside the bulkhead")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Estimates when a slot frees up from the mean execution time and the queue ahead.
+         */
+        long estimateRetryAfterSeconds() {
+            double meanSeconds = executionTimer.mean(TimeUnit.SECONDS);
+            int queued = executor.getQueue().size();
+            int threads = Math.max(1, executor.getMaximumPoolSize());
+            long estimate = (long) Math.ceil(meanSeconds * (queued + 1) / threads);
+            return Math.max(MIN_RETRY_AFTER_SECONDS, Math.min(MAX_RETRY_AFTER_SECONDS, estimate));
+        }
+    }
+}
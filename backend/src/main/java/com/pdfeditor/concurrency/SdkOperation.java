@@ -0,0 +1,34 @@
+package com.pdfeditor.concurrency;
+
+/**
+ * Operation types that call into the native PDF Tools SDK. Each type runs in its own
+ * bulkhead so a burst of one operation cannot starve the others.
+ *
+ * @author PDF Editor Team
+ */
+public enum SdkOperation {
+    MERGE("merge"),
+    SPLIT("split"),
+    COMPRESS("compress"),
+    CONVERT("convert"),
+    VALIDATE("validate"),
+    PDFA_CONVERT("pdfa-convert"),
+    EXTRACT("extract"),
+    METADATA("metadata"),
+    PIPELINE("pipeline");
+
+    private final String key;
+
+    SdkOperation(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns the name used in configuration keys and metric tags.
+     *
+     * @return operation key
+     */
+    public String getKey() {
+        return key;
+    }
+}
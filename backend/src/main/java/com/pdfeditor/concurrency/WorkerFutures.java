@@ -0,0 +1,47 @@
+package com.pdfeditor.concurrency;
+
+import java.util.Collection;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Helpers for operations that fan native SDK work out to a worker pool.
+ *
+ * Cancelling a future does not stop native work that is already running: the worker keeps
+ * using its document handle and writing its outputs. An operation that fails part-way must
+ * therefore wait for all of its workers before it returns, and with it releases its bulkhead
+ * slot, closes its input or deletes intermediate files.
+ *
+ * @author PDF Editor Team
+ */
+public final class WorkerFutures {
+
+    private WorkerFutures() {
+    }
+
+    /**
+     * Waits until every future has completed, ignoring results and failures. An interrupt
+     * does not end the wait; it is restored once all futures are done.
+     *
+     * @param futures futures to wait for
+     */
+    public static void awaitAll(Collection<? extends Future<?>> futures) {
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.pdfeditor.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread pools used by PDF operations that fan work out beyond the request thread.
+ *
+ * @author PDF Editor Team
+ */
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Creates the bounded worker pool shared by all page rendering requests.
+     *
+     * @param renderThreads number of render worker threads
+     * @return render executor
+     */
+    @Bean(name = "renderExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService renderExecutor(@Value("${app.convert.render-threads:4}") int renderThreads) {
+        return Executors.newFixedThreadPool(renderThreads, new CustomizableThreadFactory("page-render-"));
+    }
+
+    /**
+     * Creates the bounded worker pool shared by all parallel split requests.
+     *
+     * @param splitThreads number of split worker threads
+     * @return split executor
+     */
+    @Bean(name = "splitExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService splitExecutor(@Value("${app.split.threads:4}") int splitThreads) {
+        return Executors.newFixedThreadPool(splitThreads, new CustomizableThreadFactory("pdf-split-"));
+    }
+
+    /**
+     * Creates the worker pool tree merges validate their inputs and merge their groups on.
+     *
+     * @param mergeThreads number of merge worker threads
+     * @return merge executor
+     */
+    @Bean(name = "mergeExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService mergeExecutor(@Value("${app.merge.threads:4}") int mergeThreads) {
+        return Executors.newFixedThreadPool(mergeThreads, new CustomizableThreadFactory("pdf-merge-"));
+    }
+
+    /**
+     * Creates the executor running asynchronous jobs. Submissions beyond the queue
+     * capacity are rejected rather than piling up.
+     *
+     * @param jobThreads number of concurrently running jobs
+     * @param queueCapacity number of jobs that may wait for a thread
+     * @return job executor
+     */
+    @Bean(name = "jobExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService jobExecutor(@Value("${app.jobs.threads:2}") int jobThreads,
+                                       @Value("${app.jobs.queue-capacity:100}") int queueCapacity) {
+        return new ThreadPoolExecutor(jobThreads, jobThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("pdf-job-"));
+    }
+
+    /**
+     * Creates the worker pool batch requests fan their items out on. Each batch limits its
+     * own items in flight, so the queue only holds work that batches have admitted.
+     *
+     * @param batchThreads number of batch worker threads
+     * @return batch executor
+     */
+    @Bean(name = "batchExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService batchExecutor(@Value("${app.batch.threads:8}") int batchThreads) {
+        return Executors.newFixedThreadPool(batchThreads, new CustomizableThreadFactory("pdf-batch-"));
+    }
+}
@@ -5,6 +5,7 @@ import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 
 import java.io.File;
@@ -12,7 +13,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
+/**
+ * Loads the native PDF Tools library and initializes the SDK.
+ * Skipped when another {@link com.pdfeditor.sdk.PdfSdk} engine is selected.
+ *
+ * @author PDF Editor Team
+ */
 @Configuration
+@ConditionalOnProperty(name = "app.sdk.engine", havingValue = "pdftools", matchIfMissing = true)
 public class PdfToolsConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfToolsConfig.class);
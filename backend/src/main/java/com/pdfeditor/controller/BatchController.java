@@ -0,0 +1,184 @@
+package com.pdfeditor.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdfeditor.dto.CompressRequest;
+import com.pdfeditor.dto.PdfAConversionRequest;
+import com.pdfeditor.exception.PdfProcessingException;
+import com.pdfeditor.service.BatchService;
+import com.pdfeditor.service.PdfAConversionService;
+import com.pdfeditor.service.PdfAValidationService;
+import com.pdfeditor.service.PdfCompressService;
+import com.pdfeditor.service.PdfMetadataService;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * REST controller for batch operations over many PDFs in one request.
+ *
+ * Every endpoint streams newline-delimited JSON, one {@code BatchItemResult} per input in
+ * completion order. A failing item is reported in its own line and does not end the batch.
+ *
+ * @author PDF Editor Team
+ */
+@RestController
+@RequestMapping("/batch")
+public class BatchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchController.class);
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private BatchService batchService;
+
+    @Autowired
+    private PdfCompressService pdfCompressService;
+
+    @Autowired
+    private PdfAValidationService pdfAValidationService;
+
+    @Autowired
+    private PdfAConversionService pdfAConversionService;
+
+    @Autowired
+    private PdfMetadataService pdfMetadataService;
+
+    @Autowired
+    private PdfInputResolver pdfInputResolver;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Compresses many PDFs. Output names are generated per item.
+     *
+     * POST /api/batch/compress
+     *
+     * @param files PDF files to compress
+     * @param documentIds stored document IDs, processed after the uploaded files
+     * @param compressionProfile compression profile ("web", "print", "custom")
+     * @param imageQuality image quality for custom compression (1-100)
+     * @param concurrency items processed at once (optional, capped by the server)
+     * @return NDJSON stream of item results
+     */
+    @PostMapping("/compress")
+    public ResponseEntity<StreamingResponseBody> compressBatch(
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "documentIds", required = false) List<String> documentIds,
+            @RequestParam(value = "compressionProfile", defaultValue = "web") String compressionProfile,
+            @RequestParam(value = "imageQuality", required = false) Integer imageQuality,
+            @RequestParam(value = "concurrency", required = false) Integer concurrency) {
+
+        CompressRequest compressRequest = new CompressRequest();
+        compressRequest.compressionProfile = compressionProfile;
+        compressRequest.imageQuality = imageQuality;
+
+        return stream("compress", files, documentIds, concurrency,
+                      input -> pdfCompressService.compressPdf(input, compressRequest));
+    }
+
+    /**
+     * Validates many PDFs against PDF/A.
+     *
+     * POST /api/batch/validate
+     *
+     * @param files PDF files to validate
+     * @param documentIds stored document IDs, processed after the uploaded files
+     * @param conformanceLevel expected conformance level (optional)
+     * @param concurrency items processed at once (optional, capped by the server)
+     * @return NDJSON stream of item results
+     */
+    @PostMapping("/validate")
+    public ResponseEntity<StreamingResponseBody> validateBatch(
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "documentIds", required = false) List<String> documentIds,
+            @RequestParam(value = "conformanceLevel", required = false) String conformanceLevel,
+            @RequestParam(value = "concurrency", required = false) Integer concurrency) {
+
+        return stream("validate", files, documentIds, concurrency,
+                      input -> pdfAValidationService.validatePdfA(input, conformanceLevel));
+    }
+
+    /**
+     * Converts many PDFs to PDF/A. Output names are generated per item.
+     *
+     * POST /api/batch/pdfa
+     *
+     * @param files PDF files to convert
+     * @param documentIds stored document IDs, processed after the uploaded files
+     * @param conformanceLevel target conformance level
+     * @param copyMetadata whether to copy metadata
+     * @param embedFonts whether to embed fonts
+     * @param concurrency items processed at once (optional, capped by the server)
+     * @return NDJSON stream of item results
+     */
+    @PostMapping("/pdfa")
+    public ResponseEntity<StreamingResponseBody> convertToPdfABatch(
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "documentIds", required = false) List<String> documentIds,
+            @RequestParam(value = "conformanceLevel", defaultValue = "2b") String conformanceLevel,
+            @RequestParam(value = "copyMetadata", defaultValue = "true") boolean copyMetadata,
+            @RequestParam(value = "embedFonts", defaultValue = "true") boolean embedFonts,
+            @RequestParam(value = "concurrency", required = false) Integer concurrency) {
+
+        PdfAConversionRequest request = new PdfAConversionRequest();
+        request.conformanceLevel = conformanceLevel;
+        request.copyMetadata = copyMetadata;
+        request.embedFonts = embedFonts;
+
+        return stream("pdfa-convert", files, documentIds, concurrency,
+                      input -> pdfAConversionService.convertToPdfA(input, request));
+    }
+
+    /**
+     * Extracts metadata from many PDFs.
+     *
+     * POST /api/batch/metadata
+     *
+     * @param files PDF files
+     * @param documentIds stored document IDs, processed after the uploaded files
+     * @param concurrency items processed at once (optional, capped by the server)
+     * @return NDJSON stream of item results
+     */
+    @PostMapping("/metadata")
+    public ResponseEntity<StreamingResponseBody> metadataBatch(
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "documentIds", required = false) List<String> documentIds,
+            @RequestParam(value = "concurrency", required = false) Integer concurrency) {
+
+        return stream("metadata", files, documentIds, concurrency, pdfMetadataService::extractMetadata);
+    }
+
+    /**
+     * Resolves the inputs and streams the batch results, one JSON object per line.
+     */
+    private ResponseEntity<StreamingResponseBody> stream(String operationName, List<MultipartFile> files,
+                                                         List<String> documentIds, Integer concurrency,
+                                                         Function<PdfInput, ?> operation) {
+        List<PdfInput> inputs = pdfInputResolver.resolveAll(files, documentIds);
+        if (inputs.isEmpty()) {
+            throw new PdfProcessingException("No files provided for the batch");
+        }
+        logger.info("Received {} batch request for {} items", operationName, inputs.size());
+
+        // The inputs are released by the batch, which runs after this method has returned
+        StreamingResponseBody body = out -> batchService.runBatch(operationName, inputs, concurrency, operation, result -> {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+            out.flush();
+        });
+
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
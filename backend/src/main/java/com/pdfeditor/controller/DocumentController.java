@@ -0,0 +1,129 @@
+package com.pdfeditor.controller;
+
+import com.pdfeditor.dto.ApiResponse;
+import com.pdfeditor.dto.DocumentResponse;
+import com.pdfeditor.exception.PdfProcessingException;
+import com.pdfeditor.storage.DocumentStoreService;
+import com.pdfeditor.storage.FileDeliveryService;
+import com.pdfeditor.storage.StoredDocument;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+/**
+ * REST controller for the document store.
+ * Lets clients upload a PDF once and run several operations on it by document ID.
+ *
+ * @author PDF Editor Team
+ */
+@RestController
+@RequestMapping("/documents")
+public class DocumentController {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentController.class);
+
+    @Autowired
+    private DocumentStoreService documentStore;
+
+    @Autowired
+    private FileDeliveryService fileDeliveryService;
+
+    /**
+     * Uploads a PDF into the document store.
+     *
+     * POST /api/documents
+     *
+     * @param file PDF file to store
+     * @return ApiResponse containing the document ID
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<DocumentResponse>> uploadDocument(@RequestParam("file") MultipartFile file) {
+        logger.info("Received document upload: {}", file.getOriginalFilename());
+
+        if (file.isEmpty()) {
+            throw new PdfProcessingException("No file provided for upload");
+        }
+
+        try {
+            StoredDocument document = documentStore.store(file);
+            return ResponseEntity.ok(ApiResponse.success("Document stored successfully", toResponse(document)));
+        } catch (IOException e) {
+            throw new PdfProcessingException("Failed to store document", e);
+        }
+    }
+
+    /**
+     * Returns information about a stored document.
+     *
+     * GET /api/documents/{documentId}
+     *
+     * @param documentId document ID
+     * @return ApiResponse containing document information
+     */
+    @GetMapping("/{documentId}")
+    public ResponseEntity<ApiResponse<DocumentResponse>> getDocument(@PathVariable String documentId) {
+        StoredDocument document = documentStore.get(documentId);
+        return ResponseEntity.ok(ApiResponse.success("Document found", toResponse(document)));
+    }
+
+    /**
+     * Returns the content of a stored document.
+     * The document ID is the SHA-256 of the content, so responses are cacheable forever.
+     *
+     * GET /api/documents/{documentId}/content
+     *
+     * @param documentId document ID
+     * @param request current request
+     * @param response current response
+     * @throws IOException if the document cannot be sent
+     */
+    @RequestMapping(value = "/{documentId}/content", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void getDocumentContent(@PathVariable String documentId, HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        StoredDocument document = documentStore.acquire(documentId);
+        try {
+            // No sendfile: Tomcat would open the file after release() may already have deleted it
+            fileDeliveryService.deliver(request, response, document.getPath(), document.getId(),
+                    "application/pdf", "inline; filename=\"" + contentFileName(document) + "\"", true, false);
+        } finally {
+            documentStore.release(document);
+        }
+    }
+
+    /**
+     * Deletes a stored document.
+     *
+     * DELETE /api/documents/{documentId}
+     *
+     * @param documentId document ID
+     * @return ApiResponse confirming the deletion
+     */
+    @DeleteMapping("/{documentId}")
+    public ResponseEntity<ApiResponse<Void>> deleteDocument(@PathVariable String documentId) {
+        logger.info("Received document delete request: {}", documentId);
+
+        documentStore.delete(documentId);
+        return ResponseEntity.ok(ApiResponse.success("Document deleted successfully", null));
+    }
+
+    private String contentFileName(StoredDocument document) {
+        String name = document.getOriginalFilename();
+        return name != null ? name.replace("\"", "") : document.getId() + ".pdf";
+    }
+
+    private DocumentResponse toResponse(StoredDocument document) {
+        DocumentResponse response = new DocumentResponse();
+        response.documentId = document.getId();
+        response.fileName = document.getOriginalFilename();
+        response.fileSize = document.getSize();
+        response.expiresAt = document.getLastAccess() + documentStore.getTtlMillis();
+        return response;
+    }
+}
@@ -1,21 +1,32 @@
 package com.pdfeditor.controller;
 
+import com.pdfeditor.dto.BundleRequest;
+import com.pdfeditor.exception.PdfProcessingException;
+import com.pdfeditor.storage.BundleService;
+import com.pdfeditor.storage.FileDeliveryService;
+import com.pdfeditor.storage.OutputRetentionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * REST controller for downloading processed PDF files.
+ * Supports conditional requests (ETag / Last-Modified) and byte ranges.
  *
  * @author PDF Editor Team
  */
@@ -28,16 +39,30 @@ public class FileDownloadController {
     @Value("${app.output.dir}")
     private String outputDir;
 
+    @Autowired
+    private FileDeliveryService fileDeliveryService;
+
+    @Autowired
+    private BundleService bundleService;
+
+    @Autowired
+    private OutputRetentionService outputRetention;
+
     /**
      * Downloads a processed file by filename.
      *
      * GET /api/download/{filename}
      *
+     * Output names are not content-addressed (a client-chosen base name can be reused), so
+     * responses must be revalidated; revalidation is cheap thanks to the strong ETag.
+     *
      * @param filename name of the file to download
-     * @return file as downloadable resource
+     * @param request current request
+     * @param response current response
      */
-    @GetMapping("/{filename:.+}")
-    public ResponseEntity<Resource> downloadFile(@PathVariable String filename) {
+    @RequestMapping(value = "/{filename:.+}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void downloadFile(@PathVariable String filename, HttpServletRequest request,
+                             HttpServletResponse response) {
         logger.info("Download request for file: {}", filename);
 
         try {
@@ -48,31 +73,97 @@ public class FileDownloadController {
             // Verify the resolved path is within the output directory
             if (!filePath.startsWith(outputPath)) {
                 logger.warn("Path traversal attempt detected: {}", filename);
-                return ResponseEntity.badRequest().build();
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                return;
             }
 
             File file = filePath.toFile();
 
-            if (!file.exists() || !file.isFile()) {
+            // Hidden entries (such as the render cache) are internal and never served
+            if (!file.exists() || !file.isFile() || isHidden(outputPath, filePath)) {
                 logger.warn("File not found: {}", filename);
-                return ResponseEntity.notFound().build();
+                response.setStatus(HttpStatus.NOT_FOUND.value());
+                return;
             }
 
-            Resource resource = new FileSystemResource(file);
+            outputRetention.touch(file.getName());
 
             // Determine content type
             String contentType = determineContentType(filename);
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                           "attachment; filename=\"" + file.getName() + "\"")
-                    .body(resource);
+            fileDeliveryService.deliver(request, response, filePath, null, contentType,
+                    "attachment; filename=\"" + file.getName() + "\"", false);
 
-        } catch (Exception e) {
+        } catch (IOException e) {
             logger.error("Error downloading file: {}", filename, e);
-            return ResponseEntity.internalServerError().build();
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
+        }
+    }
+
+    /**
+     * Downloads several processed files as one ZIP archive, streamed while it is written.
+     *
+     * POST /api/download/bundle
+     *
+     * @param bundleRequest names of the files to include
+     * @return streamed ZIP archive
+     */
+    @PostMapping("/bundle")
+    public ResponseEntity<StreamingResponseBody> downloadBundle(@RequestBody BundleRequest bundleRequest) {
+        if (bundleRequest.files == null || bundleRequest.files.isEmpty()) {
+            throw new PdfProcessingException("No files provided for the bundle");
+        }
+
+        logger.info("Bundle request for {} files", bundleRequest.files.size());
+
+        // Resolve everything up front so a bad name fails before any byte is streamed
+        Path outputPath = Paths.get(outputDir).toAbsolutePath().normalize();
+        List<Path> files = new ArrayList<>(bundleRequest.files.size());
+        for (String filename : bundleRequest.files) {
+            Path filePath = outputPath.resolve(filename).normalize();
+            if (!filePath.startsWith(outputPath) || isHidden(outputPath, filePath)
+                    || !filePath.toFile().isFile()) {
+                throw new PdfProcessingException("File not found: " + filename);
+            }
+            files.add(filePath);
+        }
+
+        String zipName = bundleRequest.fileName != null && !bundleRequest.fileName.isEmpty()
+                ? bundleRequest.fileName.replace("\"", "")
+                : "bundle.zip";
+
+        StreamingResponseBody body = out -> {
+            try (BundleService.Bundle bundle = bundleService.open(out)) {
+                for (Path file : files) {
+                    outputRetention.touch(file.getFileName().toString());
+                    bundle.add(file, file.getFileName().toString());
+                }
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, "application/zip")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + zipName + "\"")
+                .body(body);
+    }
+
+    /**
+     * Checks whether any path element below the output directory is a dot-file or dot-directory.
+     *
+     * @param outputPath output directory
+     * @param filePath resolved file path
+     * @return true if the file is internal to the server
+     */
+    private boolean isHidden(Path outputPath, Path filePath) {
+        for (Path element : outputPath.relativize(filePath)) {
+            if (element.toString().startsWith(".")) {
+                return true;
+            }
         }
+        return false;
     }
 
     /**
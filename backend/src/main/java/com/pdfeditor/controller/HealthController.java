@@ -1,9 +1,15 @@
 package com.pdfeditor.controller;
 
+import com.pdfeditor.service.WarmUpService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -12,8 +18,36 @@ import java.util.Map;
 @RestController
 public class HealthController {
 
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Autowired
+    private WarmUpService warmUpService;
+
+    /**
+     * Liveness: UP as soon as the server accepts connections, including during the warm-up.
+     */
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
         return ResponseEntity.ok(Map.of("status", "UP"));
     }
+
+    /**
+     * Readiness: UP once the startup warm-up has finished and until shutdown begins,
+     * 503 otherwise. Route traffic based on this endpoint. It is not under {@code /health}
+     * because the actuator health endpoint owns {@code /health/**} when the management port
+     * is the server port, as on Railway.
+     */
+    @GetMapping("/ready")
+    public ResponseEntity<Map<String, Object>> ready() {
+        boolean ready = applicationAvailability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC;
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", ready ? "UP" : "DOWN");
+        if (ready) {
+            body.put("warmUpMillis", warmUpService.getTotalMillis());
+            body.put("warmUp", warmUpService.getTimings());
+        }
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(body);
+    }
 }
@@ -0,0 +1,34 @@
+package com.pdfeditor.controller;
+
+import com.pdfeditor.dto.InlinePdf;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Builds responses for outputs returned inline ({@code downloadUrl=false}) rather than as
+ * a download URL.
+ *
+ * @author PDF Editor Team
+ */
+final class InlinePdfResponses {
+
+    private InlinePdfResponses() {
+    }
+
+    /**
+     * Returns the PDF as an attachment.
+     *
+     * @param pdf PDF produced in memory
+     * @return response with the PDF as its body
+     */
+    static ResponseEntity<byte[]> of(InlinePdf pdf) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .contentLength(pdf.content.length)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(pdf.fileName).build().toString())
+                .body(pdf.content);
+    }
+}
@@ -0,0 +1,353 @@
+package com.pdfeditor.controller;
+
+import com.pdfeditor.dto.ApiResponse;
+import com.pdfeditor.dto.CompressRequest;
+import com.pdfeditor.dto.ConvertRequest;
+import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.dto.JobResponse;
+import com.pdfeditor.dto.PdfAConversionRequest;
+import com.pdfeditor.dto.SplitRequest;
+import com.pdfeditor.job.Job;
+import com.pdfeditor.job.JobService;
+import com.pdfeditor.job.JobStatus;
+import com.pdfeditor.service.PdfAConversionService;
+import com.pdfeditor.service.PdfCompressService;
+import com.pdfeditor.service.PdfConvertService;
+import com.pdfeditor.service.PdfDataExtractionService;
+import com.pdfeditor.service.PdfMergeService;
+import com.pdfeditor.service.PdfSplitService;
+import com.pdfeditor.storage.BundleService;
+import com.pdfeditor.storage.OutputRetentionService;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * REST controller for asynchronous jobs.
+ * Accepts the same parameters as the synchronous operation endpoints, returns a job ID
+ * immediately and exposes status polling and Server-Sent Events for progress.
+ *
+ * Inputs are staged before the request returns; the job releases them when it finishes.
+ *
+ * @author PDF Editor Team
+ */
+@RestController
+@RequestMapping("/jobs")
+public class JobController {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobController.class);
+
+    private static final long BUNDLE_POLL_MILLIS = 1000;
+
+    @Autowired
+    private JobService jobService;
+
+    @Autowired
+    private PdfInputResolver pdfInputResolver;
+
+    @Autowired
+    private PdfMergeService pdfMergeService;
+
+    @Autowired
+    private PdfSplitService pdfSplitService;
+
+    @Autowired
+    private PdfCompressService pdfCompressService;
+
+    @Autowired
+    private PdfConvertService pdfConvertService;
+
+    @Autowired
+    private PdfAConversionService pdfAConversionService;
+
+    @Autowired
+    private PdfDataExtractionService pdfDataExtractionService;
+
+    @Autowired
+    private BundleService bundleService;
+
+    @Autowired
+    private OutputRetentionService outputRetention;
+
+    /**
+     * Starts an asynchronous merge.
+     *
+     * POST /api/jobs/merge
+     *
+     * @param files list of PDF files to merge
+     * @param documentIds stored document IDs to merge after the uploaded files
+     * @param outputFileName optional output filename
+     * @return ApiResponse containing the queued job
+     */
+    @PostMapping("/merge")
+    public ResponseEntity<ApiResponse<JobResponse>> submitMerge(
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "documentIds", required = false) List<String> documentIds,
+            @RequestParam(value = "outputFileName", required = false) String outputFileName) {
+
+        List<PdfInput> inputs = pdfInputResolver.resolveAll(files, documentIds);
+        Job job = jobService.submit("merge", inputs,
+                progress -> pdfMergeService.mergePdfs(inputs, outputFileName, progress));
+
+        return accepted(job);
+    }
+
+    /**
+     * Starts an asynchronous split.
+     *
+     * POST /api/jobs/split
+     *
+     * @param file PDF file to split
+     * @param documentId stored document ID, as an alternative to uploading the file
+     * @param splitMode split mode ("pages", "ranges", "every" or "size")
+     * @param splitPoints page numbers, ranges, the page count per part for "every", or the maximum part size for "size"
+     * @param outputFileNameBase base name for output files
+     * @param parallelism optional number of split workers (capped by server configuration)
+     * @return ApiResponse containing the queued job
+     */
+    @PostMapping("/split")
+    public ResponseEntity<ApiResponse<JobResponse>> submitSplit(
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "documentId", required = false) String documentId,
+            @RequestParam("splitMode") String splitMode,
+            @RequestParam("splitPoints") List<String> splitPoints,
+            @RequestParam(value = "outputFileNameBase", required = false) String outputFileNameBase,
+            @RequestParam(value = "parallelism", required = false) Integer parallelism) {
+
+        SplitRequest splitRequest = new SplitRequest();
+        splitRequest.splitMode = splitMode;
+        splitRequest.splitPoints = splitPoints;
+        splitRequest.outputFileNameBase = outputFileNameBase;
+        splitRequest.parallelism = parallelism;
+
+        PdfInput input = pdfInputResolver.resolve(file, documentId);
+        Job job = jobService.submit("split", List.of(input),
+                progress -> pdfSplitService.splitPdf(input, splitRequest, progress));
+
+        return accepted(job);
+    }
+
+    /**
+     * Starts an asynchronous compression.
+     *
+     * POST /api/jobs/compress
+     *
+     * @param file PDF file to compress
+     * @param documentId stored document ID, as an alternative to uploading the file
+     * @param compressionProfile compression profile ("web", "print", "custom")
+     * @param imageQuality image quality for custom compression (1-100)
+     * @param outputFileName optional output filename
+     * @return ApiResponse containing the queued job
+     */
+    @PostMapping("/compress")
+    public ResponseEntity<ApiResponse<JobResponse>> submitCompress(
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "documentId", required = false) String documentId,
+            @RequestParam(value = "compressionProfile", defaultValue = "web") String compressionProfile,
+            @RequestParam(value = "imageQuality", required = false) Integer imageQuality,
+            @RequestParam(value = "outputFileName", required = false) String outputFileName) {
+
+        CompressRequest compressRequest = new CompressRequest();
+        compressRequest.compressionProfile = compressionProfile;
+        compressRequest.imageQuality = imageQuality;
+        compressRequest.outputFileName = outputFileName;
+
+        PdfInput input = pdfInputResolver.resolve(file, documentId);
+        Job job = jobService.submit("compress", List.of(input),
+                progress -> pdfCompressService.compressPdf(input, compressRequest, progress));
+
+        return accepted(job);
+    }
+
+    /**
+     * Starts an asynchronous PDF to image conversion. Progress is reported per page.
+     *
+     * POST /api/jobs/convert
+     *
+     * @param file PDF file to convert
+     * @param documentId stored document ID, as an alternative to uploading the file
+     * @param imageFormat image format ("png", "jpeg", "tiff")
+     * @param dpi resolution in DPI (default 150)
+     * @param pages page numbers to convert (e.g., "1,3,5" or "1-5", null for all)
+     * @param outputFileNameBase base name for output files
+     * @param parallelism optional number of rendering workers (capped by server configuration)
+     * @return ApiResponse containing the queued job
+     */
+    @PostMapping("/convert")
+    public ResponseEntity<ApiResponse<JobResponse>> submitConvert(
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "documentId", required = false) String documentId,
+            @RequestParam(value = "imageFormat", defaultValue = "png") String imageFormat,
+            @RequestParam(value = "dpi", defaultValue = "150") Integer dpi,
+            @RequestParam(value = "pages", required = false) String pages,
+            @RequestParam(value = "outputFileNameBase", required = false) String outputFileNameBase,
+            @RequestParam(value = "parallelism", required = false) Integer parallelism) {
+
+        ConvertRequest convertRequest = new ConvertRequest();
+        convertRequest.imageFormat = imageFormat;
+        convertRequest.dpi = dpi;
+        convertRequest.pages = pages;
+        convertRequest.outputFileNameBase = outputFileNameBase;
+        convertRequest.parallelism = parallelism;
+
+        PdfInput input = pdfInputResolver.resolve(file, documentId);
+        Job job = jobService.submit("convert", List.of(input),
+                progress -> pdfConvertService.convertPdfToImage(input, convertRequest, progress));
+
+        return accepted(job);
+    }
+
+    /**
+     * Starts an asynchronous PDF/A conversion.
+     *
+     * POST /api/jobs/convert-pdfa
+     *
+     * @param file PDF file to convert
+     * @param documentId stored document ID, as an alternative to uploading the file
+     * @param conformanceLevel target PDF/A conformance level (e.g., "1a", "2b", "3u")
+     * @param outputFileName optional output filename
+     * @param copyMetadata whether to copy metadata from source (default: true)
+     * @param embedFonts whether to embed fonts (default: true)
+     * @return ApiResponse containing the queued job
+     */
+    @PostMapping("/convert-pdfa")
+    public ResponseEntity<ApiResponse<JobResponse>> submitPdfAConversion(
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "documentId", required = false) String documentId,
+            @RequestParam(value = "conformanceLevel", defaultValue = "2b") String conformanceLevel,
+            @RequestParam(value = "outputFileName", required = false) String outputFileName,
+            @RequestParam(value = "copyMetadata", defaultValue = "true") boolean copyMetadata,
+            @RequestParam(value = "embedFonts", defaultValue = "true") boolean embedFonts) {
+
+        PdfAConversionRequest request = new PdfAConversionRequest();
+        request.conformanceLevel = conformanceLevel;
+        request.outputFileName = outputFileName;
+        request.copyMetadata = copyMetadata;
+        request.embedFonts = embedFonts;
+
+        PdfInput input = pdfInputResolver.resolve(file, documentId);
+        Job job = jobService.submit("convert-pdfa", List.of(input),
+                progress -> pdfAConversionService.convertToPdfA(input, request, progress));
+
+        return accepted(job);
+    }
+
+    /**
+     * Starts an asynchronous data extraction.
+     *
+     * POST /api/jobs/extract
+     *
+     * @param file PDF file to extract data from
+     * @param documentId stored document ID, as an alternative to uploading the file
+     * @param extractImages whether to extract images (default: false)
+     * @param pages specific pages to extract (e.g., "1-5,8,10-12")
+     * @return ApiResponse containing the queued job
+     */
+    @PostMapping("/extract")
+    public ResponseEntity<ApiResponse<JobResponse>> submitExtraction(
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "documentId", required = false) String documentId,
+            @RequestParam(value = "extractImages", defaultValue = "false") boolean extractImages,
+            @RequestParam(value = "pages", required = false) String pages) {
+
+        PdfInput input = pdfInputResolver.resolve(file, documentId);
+        Job job = jobService.submit("extract", List.of(input),
+                progress -> pdfDataExtractionService.extractData(input, extractImages, pages, progress));
+
+        return accepted(job);
+    }
+
+    /**
+     * Returns the status of a job, including its result once it has succeeded.
+     *
+     * GET /api/jobs/{jobId}
+     *
+     * @param jobId job ID
+     * @return ApiResponse containing the job status
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<JobResponse>> getJob(@PathVariable String jobId) {
+        JobResponse response = jobService.get(jobId).toResponse();
+        return ResponseEntity.ok(ApiResponse.success("Job " + response.status.toLowerCase(), response));
+    }
+
+    /**
+     * Streams job progress as Server-Sent Events. Emits "progress" events while the job
+     * runs and a final "done" event when it has succeeded or failed.
+     *
+     * GET /api/jobs/{jobId}/events
+     *
+     * @param jobId job ID
+     * @return event stream
+     */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamJobEvents(@PathVariable String jobId) {
+        return jobService.subscribe(jobId);
+    }
+
+    /**
+     * Streams the output files of a job as a ZIP archive. Files are added as soon as the job
+     * writes them, so a client can start downloading a long split or conversion right away.
+     * If the job fails, the connection is aborted and the archive is left incomplete.
+     *
+     * GET /api/jobs/{jobId}/bundle
+     *
+     * @param jobId job ID
+     * @return streamed ZIP archive
+     */
+    @GetMapping("/{jobId}/bundle")
+    public ResponseEntity<StreamingResponseBody> streamJobBundle(@PathVariable String jobId) {
+        Job job = jobService.get(jobId);
+
+        StreamingResponseBody body = out -> {
+            try (BundleService.Bundle bundle = bundleService.open(out)) {
+                int seen = 0;
+                while (true) {
+                    // Read the status first: once terminal, the output list is final
+                    JobStatus status = job.getStatus();
+                    if (status == JobStatus.FAILED) {
+                        throw new IOException("Job " + jobId + " failed, aborting bundle");
+                    }
+
+                    List<FileResponse> outputs = job.awaitOutputs(seen, BUNDLE_POLL_MILLIS);
+                    for (FileResponse output : outputs) {
+                        outputRetention.touch(output.fileName);
+                        bundle.add(Paths.get(output.filePath), output.fileName);
+                    }
+                    seen += outputs.size();
+
+                    if (status == JobStatus.SUCCEEDED && outputs.isEmpty()) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while streaming bundle of job " + jobId, e);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, "application/zip")
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + job.getOperation() + "_" + jobId + ".zip\"")
+                .body(body);
+    }
+
+    private ResponseEntity<ApiResponse<JobResponse>> accepted(Job job) {
+        logger.info("Accepted {} job {}", job.getOperation(), job.getId());
+        return ResponseEntity.accepted().body(ApiResponse.success("Job accepted", job.toResponse()));
+    }
+}
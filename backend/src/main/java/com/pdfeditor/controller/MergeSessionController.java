@@ -0,0 +1,120 @@
+package com.pdfeditor.controller;
+
+import com.pdfeditor.dto.ApiResponse;
+import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.dto.MergeSessionResponse;
+import com.pdfeditor.service.MergeSessionService;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * REST controller for merge sessions.
+ * Lets clients build a large merge one document per request and merge on finalize.
+ *
+ * @author PDF Editor Team
+ */
+@RestController
+@RequestMapping("/merge/sessions")
+public class MergeSessionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(MergeSessionController.class);
+
+    @Autowired
+    private MergeSessionService mergeSessionService;
+
+    @Autowired
+    private PdfInputResolver pdfInputResolver;
+
+    /**
+     * Creates an empty merge session.
+     *
+     * POST /api/merge/sessions
+     *
+     * @return ApiResponse containing the session ID
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<MergeSessionResponse>> createSession() {
+        MergeSessionResponse response = mergeSessionService.create();
+        return ResponseEntity.ok(ApiResponse.success("Merge session created successfully", response));
+    }
+
+    /**
+     * Returns the documents appended to a session so far.
+     *
+     * GET /api/merge/sessions/{sessionId}
+     *
+     * @param sessionId session ID
+     * @return ApiResponse containing the session
+     */
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<ApiResponse<MergeSessionResponse>> getSession(@PathVariable String sessionId) {
+        MergeSessionResponse response = mergeSessionService.get(sessionId);
+        return ResponseEntity.ok(ApiResponse.success("Merge session found", response));
+    }
+
+    /**
+     * Appends one document to a session.
+     *
+     * POST /api/merge/sessions/{sessionId}/documents
+     *
+     * @param sessionId session ID
+     * @param file PDF file to append
+     * @param documentId stored document ID, as an alternative to uploading the file
+     * @return ApiResponse containing the session including the new document
+     */
+    @PostMapping("/{sessionId}/documents")
+    public ResponseEntity<ApiResponse<MergeSessionResponse>> appendDocument(
+            @PathVariable String sessionId,
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "documentId", required = false) String documentId) {
+
+        try (PdfInput input = pdfInputResolver.resolve(file, documentId)) {
+            logger.info("Received merge session append: session={}, file={}", sessionId, input.getOriginalFilename());
+
+            MergeSessionResponse response = mergeSessionService.append(sessionId, input);
+            return ResponseEntity.ok(ApiResponse.success("Document appended successfully", response));
+        }
+    }
+
+    /**
+     * Merges the documents of a session in append order and ends the session.
+     *
+     * POST /api/merge/sessions/{sessionId}/finalize
+     *
+     * @param sessionId session ID
+     * @param outputFileName optional output filename
+     * @return ApiResponse containing merged PDF information
+     */
+    @PostMapping("/{sessionId}/finalize")
+    public ResponseEntity<ApiResponse<FileResponse>> finalizeSession(
+            @PathVariable String sessionId,
+            @RequestParam(value = "outputFileName", required = false) String outputFileName) {
+
+        logger.info("Received merge session finalize: {}", sessionId);
+
+        FileResponse response = mergeSessionService.finalizeSession(sessionId, outputFileName);
+        return ResponseEntity.ok(ApiResponse.success("PDF files merged successfully", response));
+    }
+
+    /**
+     * Abandons a session and deletes its documents.
+     *
+     * DELETE /api/merge/sessions/{sessionId}
+     *
+     * @param sessionId session ID
+     * @return ApiResponse confirming the deletion
+     */
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<ApiResponse<Void>> deleteSession(@PathVariable String sessionId) {
+        logger.info("Received merge session delete request: {}", sessionId);
+
+        mergeSessionService.delete(sessionId);
+        return ResponseEntity.ok(ApiResponse.success("Merge session deleted successfully", null));
+    }
+}
@@ -2,8 +2,11 @@ package com.pdfeditor.controller;
 
 import com.pdfeditor.dto.ApiResponse;
 import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.dto.InlinePdf;
 import com.pdfeditor.dto.PdfAConversionRequest;
 import com.pdfeditor.service.PdfAConversionService;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +14,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 /**
  * REST controller for PDF/A conversion operations.
  * Provides endpoint to convert PDF files to PDF/A format.
@@ -26,28 +31,33 @@ public class PdfAConversionController {
     @Autowired
     private PdfAConversionService pdfAConversionService;
 
+    @Autowired
+    private PdfInputResolver pdfInputResolver;
+
     /**
      * Converts a PDF file to PDF/A format.
      *
      * POST /api/convert-pdfa
      *
      * @param file PDF file to convert
+     * @param documentId stored document ID, as an alternative to uploading the file
      * @param conformanceLevel target PDF/A conformance level (e.g., "1a", "2b", "3u")
      * @param outputFileName optional output filename
      * @param copyMetadata whether to copy metadata from source (default: true)
      * @param embedFonts whether to embed fonts (default: true)
-     * @return ApiResponse containing converted PDF/A file information
+     * @param downloadUrl whether to store the output and return a download URL (default: true);
+     *                    when false the PDF/A file is returned in the response body
+     * @return ApiResponse containing converted PDF/A file information, or the PDF/A file itself
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<FileResponse>> convertToPdfA(
-            @RequestParam("file") MultipartFile file,
+    public ResponseEntity<?> convertToPdfA(
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "documentId", required = false) String documentId,
             @RequestParam(value = "conformanceLevel", defaultValue = "2b") String conformanceLevel,
             @RequestParam(value = "outputFileName", required = false) String outputFileName,
             @RequestParam(value = "copyMetadata", defaultValue = "true") boolean copyMetadata,
-            @RequestParam(value = "embedFonts", defaultValue = "true") boolean embedFonts) {
-
-        logger.info("Received PDF/A conversion request for: {}, target level: {}",
-                   file.getOriginalFilename(), conformanceLevel);
+            @RequestParam(value = "embedFonts", defaultValue = "true") boolean embedFonts,
+            @RequestParam(value = "downloadUrl", defaultValue = "true") boolean downloadUrl) {
 
         PdfAConversionRequest request = new PdfAConversionRequest();
         request.conformanceLevel = conformanceLevel;
@@ -55,10 +65,21 @@ public class PdfAConversionController {
         request.copyMetadata = copyMetadata;
         request.embedFonts = embedFonts;
 
-        FileResponse response = pdfAConversionService.convertToPdfA(file, request);
+        try (PdfInput input = pdfInputResolver.resolve(file, documentId)) {
+            logger.info("Received PDF/A conversion request for: {}, target level: {}",
+                       input.getOriginalFilename(), conformanceLevel);
+
+            if (!downloadUrl) {
+                pdfInputResolver.requireInlineSize(List.of(input));
+                InlinePdf converted = pdfAConversionService.convertToPdfAInline(input, request);
+                return InlinePdfResponses.of(converted);
+            }
+
+            FileResponse response = pdfAConversionService.convertToPdfA(input, request);
 
-        String message = String.format("PDF converted to PDF/A-%s successfully", conformanceLevel.toUpperCase());
+            String message = String.format("PDF converted to PDF/A-%s successfully", conformanceLevel.toUpperCase());
 
-        return ResponseEntity.ok(ApiResponse.success(message, response));
+            return ResponseEntity.ok(ApiResponse.success(message, response));
+        }
     }
 }
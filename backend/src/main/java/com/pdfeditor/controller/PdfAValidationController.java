@@ -3,6 +3,8 @@ package com.pdfeditor.controller;
 import com.pdfeditor.dto.ApiResponse;
 import com.pdfeditor.dto.PdfAValidationResponse;
 import com.pdfeditor.service.PdfAValidationService;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,30 +27,37 @@ public class PdfAValidationController {
     @Autowired
     private PdfAValidationService pdfAValidationService;
 
+    @Autowired
+    private PdfInputResolver pdfInputResolver;
+
     /**
      * Validates a PDF file for PDF/A conformance.
      *
      * POST /api/validate-pdfa
      *
      * @param file PDF file to validate
+     * @param documentId stored document ID, as an alternative to uploading the file
      * @param conformanceLevel optional target conformance level to validate against
      * @return ApiResponse containing validation results
      */
     @PostMapping
     public ResponseEntity<ApiResponse<PdfAValidationResponse>> validatePdfA(
-            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "documentId", required = false) String documentId,
             @RequestParam(value = "conformanceLevel", required = false) String conformanceLevel) {
 
-        logger.info("Received PDF/A validation request for: {}, target level: {}",
-                   file.getOriginalFilename(), conformanceLevel);
+        try (PdfInput input = pdfInputResolver.resolve(file, documentId)) {
+            logger.info("Received PDF/A validation request for: {}, target level: {}",
+                       input.getOriginalFilename(), conformanceLevel);
 
-        PdfAValidationResponse response = pdfAValidationService.validatePdfA(file, conformanceLevel);
+            PdfAValidationResponse response = pdfAValidationService.validatePdfA(input, conformanceLevel);
 
-        String message = response.isCompliant
-            ? "Document is PDF/A compliant"
-            : String.format("Document is NOT PDF/A compliant (%d errors, %d warnings)",
-                           response.errorCount, response.warningCount);
+            String message = response.isCompliant
+                ? "Document is PDF/A compliant"
+                : String.format("Document is NOT PDF/A compliant (%d errors, %d warnings)",
+                               response.errorCount, response.warningCount);
 
-        return ResponseEntity.ok(ApiResponse.success(message, response));
+            return ResponseEntity.ok(ApiResponse.success(message, response));
+        }
     }
 }
@@ -3,7 +3,10 @@ package com.pdfeditor.controller;
 import com.pdfeditor.dto.ApiResponse;
 import com.pdfeditor.dto.CompressRequest;
 import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.dto.InlinePdf;
 import com.pdfeditor.service.PdfCompressService;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +14,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 /**
  * REST controller for PDF compression operations.
  * Provides endpoint to compress PDF files to reduce size.
@@ -26,23 +31,31 @@ public class PdfCompressController {
     @Autowired
     private PdfCompressService pdfCompressService;
 
+    @Autowired
+    private PdfInputResolver pdfInputResolver;
+
     /**
      * Compresses a PDF file to reduce its size.
      *
      * POST /api/compress
      *
      * @param file PDF file to compress
+     * @param documentId stored document ID, as an alternative to uploading the file
      * @param compressionProfile compression profile ("web", "print", "custom")
      * @param imageQuality image quality for custom compression (1-100)
      * @param outputFileName optional output filename
-     * @return ApiResponse containing compressed PDF information
+     * @param downloadUrl whether to store the output and return a download URL (default: true);
+     *                    when false the compressed PDF is returned in the response body
+     * @return ApiResponse containing compressed PDF information, or the compressed PDF itself
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<FileResponse>> compressPdf(
-            @RequestParam("file") MultipartFile file,
+    public ResponseEntity<?> compressPdf(
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "documentId", required = false) String documentId,
             @RequestParam(value = "compressionProfile", defaultValue = "web") String compressionProfile,
             @RequestParam(value = "imageQuality", required = false) Integer imageQuality,
-            @RequestParam(value = "outputFileName", required = false) String outputFileName) {
+            @RequestParam(value = "outputFileName", required = false) String outputFileName,
+            @RequestParam(value = "downloadUrl", defaultValue = "true") boolean downloadUrl) {
 
         logger.info("Received compress request: profile={}", compressionProfile);
 
@@ -51,13 +64,21 @@ public class PdfCompressController {
         compressRequest.imageQuality = imageQuality;
         compressRequest.outputFileName = outputFileName;
 
-        FileResponse response = pdfCompressService.compressPdf(file, compressRequest);
+        try (PdfInput input = pdfInputResolver.resolve(file, documentId)) {
+            if (!downloadUrl) {
+                pdfInputResolver.requireInlineSize(List.of(input));
+                InlinePdf compressed = pdfCompressService.compressPdfInline(input, compressRequest);
+                return InlinePdfResponses.of(compressed);
+            }
+
+            FileResponse response = pdfCompressService.compressPdf(input, compressRequest);
 
-        Double ratio = response.compressionRatio;
-        String message = ratio != null
-            ? String.format("PDF compressed successfully (%.2f%% size reduction)", ratio)
-            : "PDF compressed successfully";
+            Double ratio = response.compressionRatio;
+            String message = ratio != null
+                ? String.format("PDF compressed successfully (%.2f%% size reduction)", ratio)
+                : "PDF compressed successfully";
 
-        return ResponseEntity.ok(ApiResponse.success(message, response));
+            return ResponseEntity.ok(ApiResponse.success(message, response));
+        }
     }
 }
@@ -4,6 +4,8 @@ import com.pdfeditor.dto.ApiResponse;
 import com.pdfeditor.dto.ConvertRequest;
 import com.pdfeditor.dto.FileResponse;
 import com.pdfeditor.service.PdfConvertService;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,25 +30,32 @@ public class PdfConvertController {
     @Autowired
     private PdfConvertService pdfConvertService;
 
+    @Autowired
+    private PdfInputResolver pdfInputResolver;
+
     /**
      * Converts PDF pages to image format.
      *
      * POST /api/convert
      *
      * @param file PDF file to convert
+     * @param documentId stored document ID, as an alternative to uploading the file
      * @param imageFormat image format ("png", "jpeg", "tiff")
      * @param dpi resolution in DPI (default 150)
      * @param pages page numbers to convert (e.g., "1,3,5" or "1-5", null for all)
      * @param outputFileNameBase base name for output files
+     * @param parallelism optional number of rendering workers (capped by server configuration)
      * @return ApiResponse containing list of converted image information
      */
     @PostMapping
     public ResponseEntity<ApiResponse<List<FileResponse>>> convertPdfToImage(
-            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "documentId", required = false) String documentId,
             @RequestParam(value = "imageFormat", defaultValue = "png") String imageFormat,
             @RequestParam(value = "dpi", defaultValue = "150") Integer dpi,
             @RequestParam(value = "pages", required = false) String pages,
-            @RequestParam(value = "outputFileNameBase", required = false) String outputFileNameBase) {
+            @RequestParam(value = "outputFileNameBase", required = false) String outputFileNameBase,
+            @RequestParam(value = "parallelism", required = false) Integer parallelism) {
 
         logger.info("Received convert request: format={}, dpi={}, pages={}", imageFormat, dpi, pages);
 
@@ -55,11 +64,15 @@ public class PdfConvertController {
         convertRequest.dpi = dpi;
         convertRequest.pages = pages;
         convertRequest.outputFileNameBase = outputFileNameBase;
-        List<FileResponse> responses = pdfConvertService.convertPdfToImage(file, convertRequest);
+        convertRequest.parallelism = parallelism;
+
+        try (PdfInput input = pdfInputResolver.resolve(file, documentId)) {
+            List<FileResponse> responses = pdfConvertService.convertPdfToImage(input, convertRequest);
 
-        return ResponseEntity.ok(ApiResponse.success(
-            String.format("PDF converted to %d image(s) successfully", responses.size()),
-            responses
-        ));
+            return ResponseEntity.ok(ApiResponse.success(
+                String.format("PDF converted to %d image(s) successfully", responses.size()),
+                responses
+            ));
+        }
     }
 }
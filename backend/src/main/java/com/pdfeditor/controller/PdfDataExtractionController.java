@@ -1,14 +1,24 @@
 package com.pdfeditor.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pdfeditor.dto.ApiResponse;
 import com.pdfeditor.dto.DataExtractionResponse;
+import com.pdfeditor.dto.DataExtractionResponse.PageContent;
 import com.pdfeditor.service.PdfDataExtractionService;
+import com.pdfeditor.service.PdfDataExtractionService.PageExtraction;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * REST controller for PDF data extraction operations.
@@ -22,33 +32,102 @@ public class PdfDataExtractionController {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfDataExtractionController.class);
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @Autowired
     private PdfDataExtractionService pdfDataExtractionService;
 
+    @Autowired
+    private PdfInputResolver pdfInputResolver;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * Extracts text and data from a PDF file.
      *
      * POST /api/extract
      *
      * @param file PDF file to extract data from
+     * @param documentId stored document ID, as an alternative to uploading the file
      * @param extractImages whether to extract images (default: false)
      * @param pages specific pages to extract (e.g., "1-5,8,10-12")
      * @return ApiResponse containing extracted data
      */
     @PostMapping
     public ResponseEntity<ApiResponse<DataExtractionResponse>> extractData(
-            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "documentId", required = false) String documentId,
             @RequestParam(value = "extractImages", defaultValue = "false") boolean extractImages,
             @RequestParam(value = "pages", required = false) String pages) {
 
-        logger.info("Received data extraction request for: {}, extractImages: {}, pages: {}",
-                   file.getOriginalFilename(), extractImages, pages);
+        try (PdfInput input = pdfInputResolver.resolve(file, documentId)) {
+            logger.info("Received data extraction request for: {}, extractImages: {}, pages: {}",
+                       input.getOriginalFilename(), extractImages, pages);
+
+            DataExtractionResponse response = pdfDataExtractionService.extractData(input, extractImages, pages);
+
+            String message = String.format("Data extracted successfully (%d words from %d pages)",
+                                           response.wordCount, response.pages.size());
+
+            return ResponseEntity.ok(ApiResponse.success(message, response));
+        }
+    }
+
+    /**
+     * Extracts text page by page and streams it as newline-delimited JSON, one
+     * {@code {"pageNumber", "text", "wordCount"}} object per line, written as soon as each
+     * page is extracted. Pages outside the page specification are never extracted.
+     *
+     * A malformed page specification is answered with 400 and a full bulkhead with 429 before
+     * the stream starts. A failure after that ends the stream with an {@code {"error"}} line.
+     *
+     * POST /api/extract/pages
+     *
+     * @param file PDF file to extract text from
+     * @param documentId stored document ID, as an alternative to uploading the file
+     * @param pages specific pages to extract (e.g., "1-5,8,10-12")
+     * @return NDJSON stream of page content
+     */
+    @PostMapping("/pages")
+    public ResponseEntity<StreamingResponseBody> extractPages(
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "documentId", required = false) String documentId,
+            @RequestParam(value = "pages", required = false) String pages) {
+
+        PdfInput input = pdfInputResolver.resolve(file, documentId);
+        logger.info("Received per-page extraction request for: {}, pages: {}",
+                   input.getOriginalFilename(), pages);
 
-        DataExtractionResponse response = pdfDataExtractionService.extractData(file, extractImages, pages);
+        // Validation, admission and the first batch happen before the 200 is committed
+        PageExtraction extraction;
+        try {
+            extraction = pdfDataExtractionService.startPageExtraction(input, pages);
+        } catch (RuntimeException e) {
+            input.close();
+            throw e;
+        }
 
-        String message = String.format("Data extracted successfully (%d words from %d pages)",
-                                       response.wordCount, response.pages.size());
+        // The input is released by the stream, which runs after this method has returned
+        StreamingResponseBody body = out -> {
+            try (PdfInput streamedInput = input; PageExtraction pageExtraction = extraction) {
+                for (List<PageContent> batch = pageExtraction.nextBatch(); !batch.isEmpty();
+                     batch = pageExtraction.nextBatch()) {
+                    for (PageContent page : batch) {
+                        out.write(objectMapper.writeValueAsBytes(page));
+                        out.write('\n');
+                    }
+                    out.flush();
+                }
+            } catch (RuntimeException e) {
+                // Headers are already sent, so the failure is reported as the last line
+                logger.warn("Per-page extraction stream failed: {}", e.getMessage());
+                out.write(objectMapper.writeValueAsBytes(Map.of("error", String.valueOf(e.getMessage()))));
+                out.write('\n');
+                out.flush();
+            }
+        };
 
-        return ResponseEntity.ok(ApiResponse.success(message, response));
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 }
@@ -2,7 +2,11 @@ package com.pdfeditor.controller;
 
 import com.pdfeditor.dto.ApiResponse;
 import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.dto.InlinePdf;
+import com.pdfeditor.dto.TreeMergeResponse;
 import com.pdfeditor.service.PdfMergeService;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,24 +31,74 @@ public class PdfMergeController {
     @Autowired
     private PdfMergeService pdfMergeService;
 
+    @Autowired
+    private PdfInputResolver pdfInputResolver;
+
     /**
      * Merges multiple PDF files into a single PDF.
      *
      * POST /api/merge
      *
      * @param files list of PDF files to merge
+     * @param documentIds stored document IDs to merge after the uploaded files
      * @param outputFileName optional output filename
-     * @return ApiResponse containing merged PDF information
+     * @param downloadUrl whether to store the output and return a download URL (default: true);
+     *                    when false the merged PDF is returned in the response body
+     * @return ApiResponse containing merged PDF information, or the merged PDF itself
      */
     @PostMapping
-    public ResponseEntity<ApiResponse<FileResponse>> mergePdfs(
-            @RequestParam("files") List<MultipartFile> files,
+    public ResponseEntity<?> mergePdfs(
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "documentIds", required = false) List<String> documentIds,
+            @RequestParam(value = "outputFileName", required = false) String outputFileName,
+            @RequestParam(value = "downloadUrl", defaultValue = "true") boolean downloadUrl) {
+
+        List<PdfInput> inputs = pdfInputResolver.resolveAll(files, documentIds);
+        try {
+            logger.info("Received merge request for {} files", inputs.size());
+
+            if (!downloadUrl) {
+                pdfInputResolver.requireInlineSize(inputs);
+                InlinePdf merged = pdfMergeService.mergePdfsInline(inputs, outputFileName);
+                return InlinePdfResponses.of(merged);
+            }
+
+            FileResponse response = pdfMergeService.mergePdfs(inputs, outputFileName);
+
+            return ResponseEntity.ok(ApiResponse.success("PDF files merged successfully", response));
+        } finally {
+            PdfInputResolver.closeAll(inputs);
+        }
+    }
+
+    /**
+     * Merges many PDF files as a tree: inputs are validated in parallel, then merged in
+     * concurrent groups whose results are merged again until one document is left.
+     *
+     * POST /api/merge/tree
+     *
+     * @param files list of PDF files to merge
+     * @param documentIds stored document IDs to merge after the uploaded files
+     * @param groupSize optional number of documents merged per group
+     * @param outputFileName optional output filename
+     * @return ApiResponse containing merged PDF information and per-level timings
+     */
+    @PostMapping("/tree")
+    public ResponseEntity<ApiResponse<TreeMergeResponse>> mergePdfsTree(
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "documentIds", required = false) List<String> documentIds,
+            @RequestParam(value = "groupSize", required = false) Integer groupSize,
             @RequestParam(value = "outputFileName", required = false) String outputFileName) {
 
-        logger.info("Received merge request for {} files", files.size());
+        List<PdfInput> inputs = pdfInputResolver.resolveAll(files, documentIds);
+        try {
+            logger.info("Received tree merge request for {} files (group size {})", inputs.size(), groupSize);
 
-        FileResponse response = pdfMergeService.mergePdfs(files, outputFileName);
+            TreeMergeResponse response = pdfMergeService.mergePdfsTree(inputs, outputFileName, groupSize);
 
-        return ResponseEntity.ok(ApiResponse.success("PDF files merged successfully", response));
+            return ResponseEntity.ok(ApiResponse.success("PDF files merged successfully", response));
+        } finally {
+            PdfInputResolver.closeAll(inputs);
+        }
     }
 }
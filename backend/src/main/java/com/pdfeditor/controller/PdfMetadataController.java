@@ -3,6 +3,8 @@ package com.pdfeditor.controller;
 import com.pdfeditor.dto.ApiResponse;
 import com.pdfeditor.dto.MetadataResponse;
 import com.pdfeditor.service.PdfMetadataService;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,24 +27,31 @@ public class PdfMetadataController {
     @Autowired
     private PdfMetadataService pdfMetadataService;
 
+    @Autowired
+    private PdfInputResolver pdfInputResolver;
+
     /**
      * Extracts metadata from a PDF file.
      *
      * POST /api/metadata
      *
      * @param file PDF file to extract metadata from
+     * @param documentId stored document ID, as an alternative to uploading the file
      * @return ApiResponse containing extracted metadata
      */
     @PostMapping
     public ResponseEntity<ApiResponse<MetadataResponse>> extractMetadata(
-            @RequestParam("file") MultipartFile file) {
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "documentId", required = false) String documentId) {
 
-        logger.info("Received metadata extraction request for: {}", file.getOriginalFilename());
+        try (PdfInput input = pdfInputResolver.resolve(file, documentId)) {
+            logger.info("Received metadata extraction request for: {}", input.getOriginalFilename());
 
-        MetadataResponse response = pdfMetadataService.extractMetadata(file);
+            MetadataResponse response = pdfMetadataService.extractMetadata(input);
 
-        String message = String.format("Metadata extracted successfully (%d pages)", response.pageCount);
+            String message = String.format("Metadata extracted successfully (%d pages)", response.pageCount);
 
-        return ResponseEntity.ok(ApiResponse.success(message, response));
+            return ResponseEntity.ok(ApiResponse.success(message, response));
+        }
     }
 }
@@ -0,0 +1,84 @@
+package com.pdfeditor.controller;
+
+import com.pdfeditor.dto.ApiResponse;
+import com.pdfeditor.dto.PipelineResponse;
+import com.pdfeditor.dto.PipelineStep;
+import com.pdfeditor.service.PdfPipelineService;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REST controller for fused operation pipelines.
+ * Runs several operations in one request without intermediate uploads or output files.
+ *
+ * @author PDF Editor Team
+ */
+@RestController
+@RequestMapping("/pipeline")
+public class PdfPipelineController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfPipelineController.class);
+
+    @Autowired
+    private PdfPipelineService pdfPipelineService;
+
+    @Autowired
+    private PdfInputResolver pdfInputResolver;
+
+    /**
+     * Runs a pipeline of steps over the given PDFs.
+     *
+     * POST /api/pipeline
+     *
+     * @param files PDF files; several files require a leading merge step
+     * @param documentIds stored document IDs, processed after the uploaded files
+     * @param steps ordered steps as {@code type[:option]}, e.g. "merge", "compress:print", "pdfa";
+     *              only compress takes an option
+     * @param outputFileName optional output filename
+     * @return ApiResponse containing the final artifact and per-stage timings
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<PipelineResponse>> runPipeline(
+            @RequestParam(value = "files", required = false) List<MultipartFile> files,
+            @RequestParam(value = "documentIds", required = false) List<String> documentIds,
+            @RequestParam(value = "steps") List<String> steps,
+            @RequestParam(value = "outputFileName", required = false) String outputFileName) {
+
+        List<PdfInput> inputs = pdfInputResolver.resolveAll(files, documentIds);
+        try {
+            logger.info("Received pipeline request: steps={}, files={}", steps, inputs.size());
+
+            PipelineResponse response = pdfPipelineService.runPipeline(inputs, parseSteps(steps), outputFileName);
+
+            return ResponseEntity.ok(ApiResponse.success("Pipeline completed successfully", response));
+        } finally {
+            PdfInputResolver.closeAll(inputs);
+        }
+    }
+
+    /**
+     * Parses {@code type[:option]} step specifications.
+     *
+     * @param specs step specifications
+     * @return steps in request order
+     */
+    private List<PipelineStep> parseSteps(List<String> specs) {
+        List<PipelineStep> steps = new ArrayList<>(specs.size());
+        for (String spec : specs) {
+            int separator = spec.indexOf(':');
+            steps.add(separator < 0
+                    ? new PipelineStep(spec.trim(), null)
+                    : new PipelineStep(spec.substring(0, separator).trim(), spec.substring(separator + 1).trim()));
+        }
+        return steps;
+    }
+}
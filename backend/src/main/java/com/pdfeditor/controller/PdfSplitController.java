@@ -4,6 +4,8 @@ import com.pdfeditor.dto.ApiResponse;
 import com.pdfeditor.dto.FileResponse;
 import com.pdfeditor.dto.SplitRequest;
 import com.pdfeditor.service.PdfSplitService;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,23 +30,30 @@ public class PdfSplitController {
     @Autowired
     private PdfSplitService pdfSplitService;
 
+    @Autowired
+    private PdfInputResolver pdfInputResolver;
+
     /**
      * Splits a PDF file based on the provided configuration.
      *
      * POST /api/split
      *
      * @param file PDF file to split
-     * @param splitMode split mode ("pages" or "ranges")
-     * @param splitPoints page numbers or ranges for splitting
+     * @param documentId stored document ID, as an alternative to uploading the file
+     * @param splitMode split mode ("pages", "ranges", "every" or "size")
+     * @param splitPoints page numbers, ranges, the page count per part for "every", or the maximum part size for "size"
      * @param outputFileNameBase base name for output files
+     * @param parallelism optional number of split workers (capped by server configuration)
      * @return ApiResponse containing list of split PDF information
      */
     @PostMapping
     public ResponseEntity<ApiResponse<List<FileResponse>>> splitPdf(
-            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            @RequestParam(value = "documentId", required = false) String documentId,
             @RequestParam("splitMode") String splitMode,
             @RequestParam("splitPoints") List<String> splitPoints,
-            @RequestParam(value = "outputFileNameBase", required = false) String outputFileNameBase) {
+            @RequestParam(value = "outputFileNameBase", required = false) String outputFileNameBase,
+            @RequestParam(value = "parallelism", required = false) Integer parallelism) {
 
         logger.info("Received split request: mode={}, points={}", splitMode, splitPoints.size());
 
@@ -52,11 +61,15 @@ public class PdfSplitController {
         splitRequest.splitMode = splitMode;
         splitRequest.splitPoints = splitPoints;
         splitRequest.outputFileNameBase = outputFileNameBase;
-        List<FileResponse> responses = pdfSplitService.splitPdf(file, splitRequest);
+        splitRequest.parallelism = parallelism;
+
+        try (PdfInput input = pdfInputResolver.resolve(file, documentId)) {
+            List<FileResponse> responses = pdfSplitService.splitPdf(input, splitRequest);
 
-        return ResponseEntity.ok(ApiResponse.success(
-            String.format("PDF split into %d files successfully", responses.size()),
-            responses
-        ));
+            return ResponseEntity.ok(ApiResponse.success(
+                String.format("PDF split into %d files successfully", responses.size()),
+                responses
+            ));
+        }
     }
 }
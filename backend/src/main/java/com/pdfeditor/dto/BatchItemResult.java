@@ -0,0 +1,50 @@
+package com.pdfeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch request, streamed as one NDJSON line.
+ *
+ * @author PDF Editor Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    /**
+     * Position of the item in the request (uploaded files first, then document IDs).
+     */
+    public int index;
+
+    /**
+     * Original filename of the item.
+     */
+    public String fileName;
+
+    /**
+     * Stored document ID, if the item was referenced by ID.
+     */
+    public String documentId;
+
+    /**
+     * Whether the operation succeeded for this item.
+     */
+    public boolean success;
+
+    /**
+     * Operation result (same shape as the single-file endpoint), null on failure.
+     */
+    public Object data;
+
+    /**
+     * Error message, null on success.
+     */
+    public String error;
+
+    /**
+     * Time from the start of the item until its result was available, in milliseconds.
+     */
+    public double durationMillis;
+}
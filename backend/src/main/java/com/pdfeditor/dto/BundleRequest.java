@@ -0,0 +1,28 @@
+package com.pdfeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for downloading several output files as one ZIP archive.
+ *
+ * @author PDF Editor Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BundleRequest {
+
+    /**
+     * Output file names, as returned in {@code FileResponse.fileName}.
+     */
+    public List<String> files;
+
+    /**
+     * Name of the ZIP file offered to the client (optional).
+     */
+    public String fileName;
+}
@@ -34,4 +34,10 @@ public class ConvertRequest {
      * Output filename base (will be suffixed with page number for multi-page).
      */
     public String outputFileNameBase;
+
+    /**
+     * Number of workers rendering pages concurrently (1 renders sequentially).
+     * If null, uses the configured maximum; always capped by {@code app.convert.max-parallelism}.
+     */
+    public Integer parallelism;
 }
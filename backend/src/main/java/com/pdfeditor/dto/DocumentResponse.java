@@ -0,0 +1,28 @@
+package com.pdfeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO describing a document held in the document store.
+ *
+ * @author PDF Editor Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentResponse {
+
+    /** Document ID (SHA-256 of the content), usable as {@code documentId} on every operation */
+    public String documentId;
+
+    /** Original filename of the upload */
+    public String fileName;
+
+    /** File size in bytes */
+    public long fileSize;
+
+    /** Time after which the document expires if it is not used again (epoch milliseconds) */
+    public long expiresAt;
+}
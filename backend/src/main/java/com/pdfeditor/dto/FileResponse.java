@@ -27,4 +27,9 @@ public class FileResponse {
      * Compression ratio percentage (for compression operations).
      */
     public Double compressionRatio;
+
+    /**
+     * Number of times the part was assembled until it fit (for size-based splits).
+     */
+    public Integer assemblyAttempts;
 }
@@ -0,0 +1,26 @@
+package com.pdfeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A PDF produced in memory and returned in the response body instead of being written to
+ * the output store.
+ *
+ * @author PDF Editor Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InlinePdf {
+    /**
+     * Suggested filename, sent in the Content-Disposition header.
+     */
+    public String fileName;
+
+    /**
+     * PDF content.
+     */
+    public byte[] content;
+}
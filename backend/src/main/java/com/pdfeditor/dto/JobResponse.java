@@ -0,0 +1,52 @@
+package com.pdfeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO describing the state of an asynchronous job.
+ *
+ * @author PDF Editor Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobResponse {
+
+    /** Job ID */
+    public String jobId;
+
+    /** Operation run by the job (e.g. "convert", "compress") */
+    public String operation;
+
+    /** Job status: QUEUED, RUNNING, SUCCEEDED or FAILED */
+    public String status;
+
+    /** Completed units of work (pages, parts or input files depending on the operation) */
+    public int completed;
+
+    /** Total units of work, 0 until the job knows it */
+    public int total;
+
+    /** Operation result once the job has succeeded (same payload as the synchronous endpoint) */
+    public Object result;
+
+    /** Error message if the job has failed */
+    public String error;
+
+    /** Creation time (epoch milliseconds) */
+    public long createdAt;
+
+    /** Completion time (epoch milliseconds), null while the job is running */
+    public Long finishedAt;
+
+    /** URL to poll the job status */
+    public String statusUrl;
+
+    /** URL of the Server-Sent Events stream for this job */
+    public String eventsUrl;
+
+    /** URL streaming the job's output files as a ZIP while they are produced */
+    public String bundleUrl;
+}
@@ -0,0 +1,36 @@
+package com.pdfeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Time spent in one level of a tree merge.
+ *
+ * @author PDF Editor Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MergeLevelTiming {
+    /**
+     * Level number: 0 for validating the inputs, then 1 for the first merge level.
+     * The last level writes the output.
+     */
+    public int level;
+
+    /**
+     * Number of documents the level consumed.
+     */
+    public int documents;
+
+    /**
+     * Number of documents the level produced.
+     */
+    public int outputs;
+
+    /**
+     * Wall-clock duration in milliseconds.
+     */
+    public double durationMillis;
+}
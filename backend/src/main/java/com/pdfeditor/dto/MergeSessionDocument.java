@@ -0,0 +1,40 @@
+package com.pdfeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A document appended to a merge session.
+ *
+ * @author PDF Editor Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MergeSessionDocument {
+    /**
+     * Position in the merged output, starting at 1.
+     */
+    public int index;
+
+    /**
+     * Original filename of the upload or stored document.
+     */
+    public String fileName;
+
+    /**
+     * File size in bytes.
+     */
+    public long fileSize;
+
+    /**
+     * Number of pages, read when the document was appended.
+     */
+    public int pages;
+
+    /**
+     * SHA-256 of the content.
+     */
+    public String contentHash;
+}
@@ -0,0 +1,42 @@
+package com.pdfeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO describing a merge session.
+ *
+ * @author PDF Editor Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MergeSessionResponse {
+    /**
+     * Session ID, used to append documents and to finalize the merge.
+     */
+    public String sessionId;
+
+    /**
+     * Documents appended so far, in merge order.
+     */
+    public List<MergeSessionDocument> documents;
+
+    /**
+     * Total pages of all appended documents.
+     */
+    public int totalPages;
+
+    /**
+     * Total bytes of all appended documents.
+     */
+    public long totalBytes;
+
+    /**
+     * Time after which the session expires if it is not used again (epoch milliseconds).
+     */
+    public long expiresAt;
+}
@@ -0,0 +1,32 @@
+package com.pdfeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for a fused operation pipeline.
+ *
+ * @author PDF Editor Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineResponse {
+    /**
+     * The final artifact; the only file the pipeline writes to the output directory.
+     */
+    public FileResponse output;
+
+    /**
+     * Per-stage timings, in execution order. The last step includes writing the artifact.
+     */
+    public List<PipelineStageTiming> stages;
+
+    /**
+     * Total wall-clock duration in milliseconds, excluding time queued for the SDK.
+     */
+    public double totalMillis;
+}
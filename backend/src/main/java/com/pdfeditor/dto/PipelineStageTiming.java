@@ -0,0 +1,30 @@
+package com.pdfeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Time spent in one stage of a pipeline.
+ *
+ * @author PDF Editor Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineStageTiming {
+    /**
+     * Stage name: "open" for opening the inputs, otherwise the step type.
+     */
+    public String stage;
+
+    /**
+     * Number of pages the stage processed.
+     */
+    public int pages;
+
+    /**
+     * Wall-clock duration in milliseconds.
+     */
+    public double durationMillis;
+}
@@ -0,0 +1,26 @@
+package com.pdfeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One step of a fused operation pipeline.
+ *
+ * @author PDF Editor Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineStep {
+    /**
+     * Step type: "merge" (first step only), "compress" or "pdfa".
+     */
+    public String type;
+
+    /**
+     * Step option: the compression profile ("web", the default, or "print") for compress;
+     * must be null for merge and pdfa, which always converts to the SDK's PDF/A conformance.
+     */
+    public String option;
+}
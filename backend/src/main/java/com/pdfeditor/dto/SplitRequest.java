@@ -17,9 +17,11 @@ import java.util.List;
 @AllArgsConstructor
 public class SplitRequest {
     /**
-     * Split mode: "pages" or "ranges"
+     * Split mode: "pages", "ranges", "every" or "size"
      * - pages: split at specific page numbers [1, 5, 10]
      * - ranges: split by page ranges ["1-3", "4-6", "7-10"]
+     * - every: split into parts of N pages [N]
+     * - size: split into parts of at most the given size ["10MB"]
      */
     public String splitMode;
 
@@ -32,4 +34,10 @@ public class SplitRequest {
      * Base name for output files (will be suffixed with page numbers).
      */
     public String outputFileNameBase;
+
+    /**
+     * Number of workers writing parts concurrently (1 writes sequentially).
+     * If null, uses the configured maximum; always capped by {@code app.split.max-parallelism}.
+     */
+    public Integer parallelism;
 }
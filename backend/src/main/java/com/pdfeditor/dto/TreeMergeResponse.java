@@ -0,0 +1,37 @@
+package com.pdfeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for a tree merge.
+ *
+ * @author PDF Editor Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TreeMergeResponse {
+    /**
+     * The merged PDF.
+     */
+    public FileResponse output;
+
+    /**
+     * Number of inputs merged per group.
+     */
+    public int groupSize;
+
+    /**
+     * Per-level timings, starting with input validation.
+     */
+    public List<MergeLevelTiming> levels;
+
+    /**
+     * Total wall-clock duration in milliseconds, excluding time queued for the SDK.
+     */
+    public double totalMillis;
+}
@@ -0,0 +1,35 @@
+package com.pdfeditor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Time one operation took during the startup warm-up.
+ *
+ * @author PDF Editor Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarmUpTiming {
+    /**
+     * Operation key (e.g. "merge", "pdfa-convert").
+     */
+    public String operation;
+
+    /**
+     * Duration of the first run in milliseconds, including class loading and native lazy init.
+     */
+    public double coldMillis;
+
+    /**
+     * Duration of the last run in milliseconds.
+     */
+    public double warmMillis;
+
+    /**
+     * Error message if the operation failed, null otherwise.
+     */
+    public String error;
+}
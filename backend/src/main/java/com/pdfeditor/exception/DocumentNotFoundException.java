@@ -0,0 +1,13 @@
+package com.pdfeditor.exception;
+
+/**
+ * Exception thrown when a referenced document does not exist or has expired.
+ *
+ * @author PDF Editor Team
+ */
+public class DocumentNotFoundException extends RuntimeException {
+
+    public DocumentNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,7 @@ package com.pdfeditor.exception;
 import com.pdfeditor.dto.ApiResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -34,6 +35,77 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("PDF processing failed: " + ex.getMessage()));
     }
 
+    /**
+     * Handles malformed or unsupported request parameters.
+     *
+     * @param ex the exception
+     * @return error response entity
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidRequestException(InvalidRequestException ex) {
+        logger.warn("Invalid request: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    /**
+     * Handles references to documents that are not in the document store.
+     *
+     * @param ex the exception
+     * @return error response entity
+     */
+    @ExceptionHandler(DocumentNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleDocumentNotFoundException(DocumentNotFoundException ex) {
+        logger.warn("Document not found: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    /**
+     * Handles references to unknown or purged jobs.
+     *
+     * @param ex the exception
+     * @return error response entity
+     */
+    @ExceptionHandler(JobNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleJobNotFoundException(JobNotFoundException ex) {
+        logger.warn("Job not found: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    /**
+     * Handles references to unknown, finalized or expired merge sessions.
+     *
+     * @param ex the exception
+     * @return error response entity
+     */
+    @ExceptionHandler(MergeSessionNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleMergeSessionNotFoundException(MergeSessionNotFoundException ex) {
+        logger.warn("Merge session not found: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    /**
+     * Handles requests rejected by admission control.
+     *
+     * @param ex the exception
+     * @return error response entity with a Retry-After header
+     */
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ApiResponse<Void>> handleServiceBusyException(ServiceBusyException ex) {
+        logger.warn("Service busy: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     /**
      * Handles file size exceeded exceptions.
      *
@@ -0,0 +1,14 @@
+package com.pdfeditor.exception;
+
+/**
+ * Exception thrown when request parameters are malformed or unsupported.
+ * Answered with 400 instead of the 500 of other processing errors.
+ *
+ * @author PDF Editor Team
+ */
+public class InvalidRequestException extends PdfProcessingException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.pdfeditor.exception;
+
+/**
+ * Exception thrown when a job ID is unknown or the job has been purged.
+ *
+ * @author PDF Editor Team
+ */
+public class JobNotFoundException extends RuntimeException {
+
+    public JobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.pdfeditor.exception;
+
+/**
+ * Exception thrown when a merge session ID is unknown, finalized or expired.
+ *
+ * @author PDF Editor Team
+ */
+public class MergeSessionNotFoundException extends RuntimeException {
+
+    public MergeSessionNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.pdfeditor.exception;
+
+/**
+ * Exception thrown when an operation is rejected because its queue is full.
+ * Mapped to HTTP 429 with a Retry-After header.
+ *
+ * @author PDF Editor Team
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,201 @@
+package com.pdfeditor.job;
+
+import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.dto.JobResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * State of a single asynchronous job.
+ *
+ * Progress may be reported from several worker threads at once, so all state
+ * transitions are guarded by one lock and completed counts never go backwards. The lock is a
+ * {@link ReentrantLock} rather than a monitor so that virtual threads waiting for outputs
+ * do not pin their carrier thread.
+ *
+ * @author PDF Editor Team
+ */
+public class Job {
+
+    private final String id;
+    private final String operation;
+    private final long createdAt;
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final List<FileResponse> outputs = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private JobStatus status = JobStatus.QUEUED;
+    private int completed;
+    private int total;
+    private Object result;
+    private String error;
+    private Long finishedAt;
+
+    public Job(String id, String operation) {
+        this.id = id;
+        this.operation = operation;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public JobStatus getStatus() {
+        lock.lock();
+        try {
+            return status;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Object getResult() {
+        lock.lock();
+        try {
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Long getFinishedAt() {
+        lock.lock();
+        try {
+            return finishedAt;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<SseEmitter> getEmitters() {
+        return emitters;
+    }
+
+    void start() {
+        lock.lock();
+        try {
+            status = JobStatus.RUNNING;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void progress(int completed, int total) {
+        lock.lock();
+        try {
+            this.total = total;
+            this.completed = Math.max(this.completed, Math.min(completed, total));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void addOutput(FileResponse output) {
+        lock.lock();
+        try {
+            outputs.add(output);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void succeed(Object result) {
+        lock.lock();
+        try {
+            // Operations that produce a single file only report it through their result
+            if (outputs.isEmpty()) {
+                if (result instanceof FileResponse) {
+                    outputs.add((FileResponse) result);
+                } else if (result instanceof Collection) {
+                    for (Object item : (Collection<?>) result) {
+                        if (item instanceof FileResponse) {
+                            outputs.add((FileResponse) item);
+                        }
+                    }
+                }
+            }
+            this.result = result;
+            this.completed = total;
+            this.status = JobStatus.SUCCEEDED;
+            this.finishedAt = System.currentTimeMillis();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void fail(String error) {
+        lock.lock();
+        try {
+            this.error = error;
+            this.status = JobStatus.FAILED;
+            this.finishedAt = System.currentTimeMillis();
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the job has produced more than {@code seen} output files or has finished.
+     *
+     * @param seen number of outputs the caller has already consumed
+     * @param timeoutMillis maximum time to wait
+     * @return outputs produced after the first {@code seen}; empty if the job finished
+     *         without producing more, or if the timeout expired
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public List<FileResponse> awaitOutputs(int seen, long timeoutMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (outputs.size() <= seen && !status.isTerminal() && remaining > 0) {
+                remaining = changed.awaitNanos(remaining);
+            }
+            return new ArrayList<>(outputs.subList(Math.min(seen, outputs.size()), outputs.size()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Creates a consistent snapshot of the job for API responses and events.
+     *
+     * @return job response
+     */
+    public JobResponse toResponse() {
+        lock.lock();
+        try {
+            JobResponse response = new JobResponse();
+            response.jobId = id;
+            response.operation = operation;
+            response.status = status.name();
+            response.completed = completed;
+            response.total = total;
+            response.result = result;
+            response.error = error;
+            response.createdAt = createdAt;
+            response.finishedAt = finishedAt;
+            response.statusUrl = "/jobs/" + id;
+            response.eventsUrl = "/jobs/" + id + "/events";
+            response.bundleUrl = "/jobs/" + id + "/bundle";
+            return response;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.pdfeditor.job;
+
+import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.dto.JobResponse;
+import com.pdfeditor.exception.JobNotFoundException;
+import com.pdfeditor.exception.ServiceBusyException;
+import com.pdfeditor.service.ProgressListener;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs long PDF operations asynchronously on a dedicated executor.
+ *
+ * Submitting a job returns immediately; clients follow its progress by polling
+ * {@code GET /jobs/{id}} or by subscribing to Server-Sent Events. Finished jobs are
+ * kept for {@code app.jobs.retention-minutes} so their results can still be fetched.
+ *
+ * @author PDF Editor Team
+ */
+@Service
+public class JobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobService.class);
+
+    private static final String PROGRESS_EVENT = "progress";
+    private static final String DONE_EVENT = "done";
+    private static final long QUEUE_FULL_RETRY_AFTER_SECONDS = 10;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    @Qualifier("jobExecutor")
+    private ExecutorService jobExecutor;
+
+    @Value("${app.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${app.jobs.sse-timeout-ms:600000}")
+    private long sseTimeoutMs;
+
+    /**
+     * Submits a job. The job takes ownership of the inputs and closes them when it finishes.
+     *
+     * @param operation operation name reported in the job status
+     * @param inputs inputs read by the task
+     * @param task work to run
+     * @return the queued job
+     * @throws ServiceBusyException if the job queue is full
+     */
+    public Job submit(String operation, List<PdfInput> inputs, JobTask<?> task) {
+        Job job = new Job(UUID.randomUUID().toString(), operation);
+        jobs.put(job.getId(), job);
+
+        try {
+            jobExecutor.execute(() -> run(job, inputs, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            PdfInputResolver.closeAll(inputs);
+            throw new ServiceBusyException("Job queue is full, please retry later", QUEUE_FULL_RETRY_AFTER_SECONDS);
+        }
+
+        logger.info("Queued {} job {}", operation, job.getId());
+        return job;
+    }
+
+    /**
+     * Returns a job by ID.
+     *
+     * @param jobId job ID
+     * @return the job
+     * @throws JobNotFoundException if the job is unknown or has been purged
+     */
+    public Job get(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            throw new JobNotFoundException("Job not found: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Subscribes to the Server-Sent Events of a job. The current state is sent right away;
+     * the stream is completed after the final event.
+     *
+     * @param jobId job ID
+     * @return emitter streaming job events
+     */
+    public SseEmitter subscribe(String jobId) {
+        Job job = get(jobId);
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+
+        emitter.onCompletion(() -> job.getEmitters().remove(emitter));
+        emitter.onTimeout(() -> job.getEmitters().remove(emitter));
+        emitter.onError(e -> job.getEmitters().remove(emitter));
+        job.getEmitters().add(emitter);
+
+        // Covers jobs that finished before the subscription was registered
+        JobResponse snapshot = job.toResponse();
+        boolean terminal = job.getStatus().isTerminal();
+        send(job, emitter, terminal ? DONE_EVENT : PROGRESS_EVENT, snapshot);
+        if (terminal) {
+            job.getEmitters().remove(emitter);
+            emitter.complete();
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Removes finished jobs older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${app.jobs.sweep-interval-ms:60000}")
+    public void purgeFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retentionMinutes);
+        jobs.values().removeIf(job -> {
+            Long finishedAt = job.getFinishedAt();
+            return finishedAt != null && finishedAt < cutoff;
+        });
+    }
+
+    private void run(Job job, List<PdfInput> inputs, JobTask<?> task) {
+        job.start();
+        publish(job, PROGRESS_EVENT);
+
+        try {
+            Object result = task.run(new ProgressListener() {
+                @Override
+                public void onProgress(int completed, int total) {
+                    job.progress(completed, total);
+                    publish(job, PROGRESS_EVENT);
+                }
+
+                @Override
+                public void onOutput(FileResponse output) {
+                    job.addOutput(output);
+                }
+            });
+            job.succeed(result);
+            logger.info("{} job {} succeeded", job.getOperation(), job.getId());
+        } catch (Exception e) {
+            logger.error("{} job {} failed", job.getOperation(), job.getId(), e);
+            job.fail(e.getMessage());
+        } finally {
+            PdfInputResolver.closeAll(inputs);
+        }
+
+        publish(job, DONE_EVENT);
+        for (SseEmitter emitter : job.getEmitters()) {
+            emitter.complete();
+        }
+        job.getEmitters().clear();
+    }
+
+    private void publish(Job job, String eventName) {
+        if (job.getEmitters().isEmpty()) {
+            return;
+        }
+        JobResponse snapshot = job.toResponse();
+        for (SseEmitter emitter : job.getEmitters()) {
+            send(job, emitter, eventName, snapshot);
+        }
+    }
+
+    private void send(Job job, SseEmitter emitter, String eventName, JobResponse snapshot) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name(eventName)
+                    .data(snapshot, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping event subscriber of job {}: {}", job.getId(), e.getMessage());
+            job.getEmitters().remove(emitter);
+        }
+    }
+}
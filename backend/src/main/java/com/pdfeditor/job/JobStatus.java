@@ -0,0 +1,22 @@
+package com.pdfeditor.job;
+
+/**
+ * Lifecycle states of an asynchronous job.
+ *
+ * @author PDF Editor Team
+ */
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    /**
+     * Checks whether the job has finished, successfully or not.
+     *
+     * @return true for terminal states
+     */
+    public boolean isTerminal() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
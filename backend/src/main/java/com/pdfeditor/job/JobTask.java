@@ -0,0 +1,22 @@
+package com.pdfeditor.job;
+
+import com.pdfeditor.service.ProgressListener;
+
+/**
+ * Work executed by a job on the job executor.
+ *
+ * @param <T> type of the job result
+ * @author PDF Editor Team
+ */
+@FunctionalInterface
+public interface JobTask<T> {
+
+    /**
+     * Runs the work.
+     *
+     * @param progressListener listener to report progress to
+     * @return the job result, serialized into the job status
+     * @throws Exception if the work fails
+     */
+    T run(ProgressListener progressListener) throws Exception;
+}
@@ -0,0 +1,298 @@
+package com.pdfeditor.metrics;
+
+import com.pdfeditor.sdk.CompressionProfile;
+import com.pdfeditor.sdk.PdfAAnalysis;
+import com.pdfeditor.sdk.PdfSdk;
+import com.pdfeditor.sdk.RenderProfile;
+import com.pdfeditor.sdk.SdkAssembler;
+import com.pdfeditor.sdk.SdkDocument;
+import com.pdfeditor.sdk.SdkMetadata;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@link PdfSdk} decorator that records every SDK call through {@link PdfPhaseMetrics}.
+ *
+ * This is the {@code PdfSdk} bean the services get injected; the engine it wraps is the bean
+ * qualified with {@link PdfSdk#ENGINE}. Engines that write their output while processing
+ * (optimize, render, PDF/A conversion) report that write as part of the process phase; the
+ * write phase covers outputs flushed on close, such as the assembler used by merge and split.
+ *
+ * @author PDF Editor Team
+ */
+@Component
+@Primary
+public class InstrumentedPdfSdk implements PdfSdk {
+
+    private final PdfSdk engine;
+    private final PdfPhaseMetrics metrics;
+
+    public InstrumentedPdfSdk(@Qualifier(PdfSdk.ENGINE) PdfSdk engine, PdfPhaseMetrics metrics) {
+        this.engine = engine;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public SdkDocument open(File file) throws Exception {
+        PdfPhaseMetrics.Sample sample = metrics.start();
+        InstrumentedDocument document = wrap(engine.open(file));
+        metrics.stop(sample, PdfPhase.OPEN, "open", null, document.pageCount);
+        return document;
+    }
+
+    @Override
+    public SdkDocument open(byte[] content) throws Exception {
+        PdfPhaseMetrics.Sample sample = metrics.start();
+        InstrumentedDocument document = wrap(engine.open(content));
+        metrics.stop(sample, PdfPhase.OPEN, "open-memory", null, document.pageCount);
+        return document;
+    }
+
+    @Override
+    public SdkAssembler createAssembler(File output) throws Exception {
+        PdfPhaseMetrics.Sample sample = metrics.start();
+        SdkAssembler assembler = engine.createAssembler(output);
+        metrics.stop(sample, PdfPhase.OPEN, "create-assembler", null, -1);
+        return new InstrumentedAssembler(assembler, output);
+    }
+
+    @Override
+    public void optimize(SdkDocument source, File output, CompressionProfile profile) throws Exception {
+        String profileKey = profile.name().toLowerCase(Locale.ROOT);
+        int pages = source.getPageCount();
+
+        PdfPhaseMetrics.Sample sample = metrics.start();
+        engine.optimize(unwrap(source), output, profile);
+        metrics.stop(sample, PdfPhase.PROCESS, "optimize", profileKey, pages);
+        metrics.recordOutput("optimize", profileKey, pages, output.length());
+    }
+
+    @Override
+    public void renderPage(SdkDocument source, int pageNumber, File output, RenderProfile profile) throws Exception {
+        PdfPhaseMetrics.Sample sample = metrics.start();
+        engine.renderPage(unwrap(source), pageNumber, output, profile);
+        metrics.stop(sample, PdfPhase.PROCESS, "render-page", profile.getKey(), 1);
+        metrics.recordOutput("render-page", profile.getKey(), 1, output.length());
+    }
+
+    @Override
+    public byte[] extractText(SdkDocument source, Integer firstPage, Integer lastPage) throws Exception {
+        int first = firstPage != null ? firstPage : 1;
+        int last = lastPage != null ? lastPage : source.getPageCount();
+
+        PdfPhaseMetrics.Sample sample = metrics.start();
+        byte[] text = engine.extractText(unwrap(source), firstPage, lastPage);
+        metrics.stop(sample, PdfPhase.PROCESS, "extract-text", null, Math.max(0, last - first + 1));
+        return text;
+    }
+
+    @Override
+    public PdfAAnalysis analyzePdfA(SdkDocument source) throws Exception {
+        PdfPhaseMetrics.Sample sample = metrics.start();
+        PdfAAnalysis analysis = engine.analyzePdfA(unwrap(source));
+        metrics.stop(sample, PdfPhase.PROCESS, "analyze", null, source.getPageCount());
+        return analysis;
+    }
+
+    @Override
+    public void convertToPdfA(PdfAAnalysis analysis, SdkDocument source, File output) throws Exception {
+        int pages = source.getPageCount();
+
+        PdfPhaseMetrics.Sample sample = metrics.start();
+        engine.convertToPdfA(analysis, unwrap(source), output);
+        metrics.stop(sample, PdfPhase.PROCESS, "pdfa-convert", null, pages);
+        metrics.recordOutput("pdfa-convert", null, pages, output.length());
+    }
+
+    @Override
+    public byte[] mergeToBytes(List<SdkDocument> sources) throws Exception {
+        List<SdkDocument> engineSources = new ArrayList<>(sources.size());
+        int pages = 0;
+        for (SdkDocument source : sources) {
+            engineSources.add(unwrap(source));
+            pages += source.getPageCount();
+        }
+
+        PdfPhaseMetrics.Sample sample = metrics.start();
+        byte[] merged = engine.mergeToBytes(engineSources);
+        metrics.stop(sample, PdfPhase.PROCESS, "assemble", null, pages);
+        metrics.recordOutput("assemble", null, pages, merged.length);
+        return merged;
+    }
+
+    @Override
+    public byte[] optimizeToBytes(SdkDocument source, CompressionProfile profile) throws Exception {
+        String profileKey = profile.name().toLowerCase(Locale.ROOT);
+        int pages = source.getPageCount();
+
+        PdfPhaseMetrics.Sample sample = metrics.start();
+        byte[] optimized = engine.optimizeToBytes(unwrap(source), profile);
+        metrics.stop(sample, PdfPhase.PROCESS, "optimize", profileKey, pages);
+        metrics.recordOutput("optimize", profileKey, pages, optimized.length);
+        return optimized;
+    }
+
+    @Override
+    public byte[] convertToPdfAToBytes(PdfAAnalysis analysis, SdkDocument source) throws Exception {
+        int pages = source.getPageCount();
+
+        PdfPhaseMetrics.Sample sample = metrics.start();
+        byte[] converted = engine.convertToPdfAToBytes(analysis, unwrap(source));
+        metrics.stop(sample, PdfPhase.PROCESS, "pdfa-convert", null, pages);
+        metrics.recordOutput("pdfa-convert", null, pages, converted.length);
+        return converted;
+    }
+
+    @Override
+    public SdkDocument mergeToDocument(List<SdkDocument> sources, File buffer) throws Exception {
+        List<SdkDocument> engineSources = new ArrayList<>(sources.size());
+        int pages = 0;
+        for (SdkDocument source : sources) {
+            engineSources.add(unwrap(source));
+            pages += source.getPageCount();
+        }
+
+        PdfPhaseMetrics.Sample sample = metrics.start();
+        InstrumentedDocument merged = wrap(engine.mergeToDocument(engineSources, buffer));
+        metrics.stop(sample, PdfPhase.PROCESS, "assemble", null, pages);
+        return merged;
+    }
+
+    @Override
+    public SdkDocument optimizeToDocument(SdkDocument source, CompressionProfile profile, File buffer) throws Exception {
+        String profileKey = profile.name().toLowerCase(Locale.ROOT);
+        int pages = source.getPageCount();
+
+        PdfPhaseMetrics.Sample sample = metrics.start();
+        InstrumentedDocument optimized = wrap(engine.optimizeToDocument(unwrap(source), profile, buffer));
+        metrics.stop(sample, PdfPhase.PROCESS, "optimize", profileKey, pages);
+        return optimized;
+    }
+
+    @Override
+    public SdkDocument convertToPdfADocument(PdfAAnalysis analysis, SdkDocument source, File buffer) throws Exception {
+        int pages = source.getPageCount();
+
+        PdfPhaseMetrics.Sample sample = metrics.start();
+        InstrumentedDocument converted = wrap(engine.convertToPdfADocument(analysis, unwrap(source), buffer));
+        metrics.stop(sample, PdfPhase.PROCESS, "pdfa-convert", null, pages);
+        return converted;
+    }
+
+    /**
+     * Wraps a document the engine has just opened or produced. The wrapper caches the page
+     * count; if reading it fails, the document is closed before the failure is rethrown,
+     * since the caller never gets a handle to close it.
+     */
+    private InstrumentedDocument wrap(SdkDocument document) throws Exception {
+        int pages;
+        try {
+            pages = document.getPageCount();
+        } catch (Exception e) {
+            try {
+                document.close();
+            } catch (Exception closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
+        return new InstrumentedDocument(document, pages);
+    }
+
+    private static SdkDocument unwrap(SdkDocument document) {
+        return document instanceof InstrumentedDocument ? ((InstrumentedDocument) document).delegate : document;
+    }
+
+    /**
+     * Document handle that records its close as cleanup.
+     */
+    private final class InstrumentedDocument implements SdkDocument {
+
+        private final SdkDocument delegate;
+        private final int pageCount;
+
+        InstrumentedDocument(SdkDocument delegate, int pageCount) {
+            this.delegate = delegate;
+            this.pageCount = pageCount;
+        }
+
+        @Override
+        public int getPageCount() {
+            return pageCount;
+        }
+
+        @Override
+        public String getConformance() {
+            return delegate.getConformance();
+        }
+
+        @Override
+        public SdkMetadata getMetadata() throws Exception {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public void close() throws Exception {
+            PdfPhaseMetrics.Sample sample = metrics.start();
+            delegate.close();
+            metrics.stop(sample, PdfPhase.CLEANUP, "close", null, pageCount);
+        }
+    }
+
+    /**
+     * Assembler handle that times appends and assembly, and records its close as the write
+     * of the output.
+     */
+    private final class InstrumentedAssembler implements SdkAssembler {
+
+        private final SdkAssembler delegate;
+        private final File output;
+        private int appendedPages;
+
+        InstrumentedAssembler(SdkAssembler delegate, File output) {
+            this.delegate = delegate;
+            this.output = output;
+        }
+
+        @Override
+        public void append(SdkDocument document) throws Exception {
+            int pages = document.getPageCount();
+
+            PdfPhaseMetrics.Sample sample = metrics.start();
+            delegate.append(unwrap(document));
+            metrics.stop(sample, PdfPhase.PROCESS, "append", null, pages);
+            appendedPages += pages;
+        }
+
+        @Override
+        public void append(SdkDocument document, int firstPage, int lastPage) throws Exception {
+            int pages = lastPage - firstPage + 1;
+
+            PdfPhaseMetrics.Sample sample = metrics.start();
+            delegate.append(unwrap(document), firstPage, lastPage);
+            metrics.stop(sample, PdfPhase.PROCESS, "append", null, pages);
+            appendedPages += pages;
+        }
+
+        @Override
+        public void assemble() throws Exception {
+            PdfPhaseMetrics.Sample sample = metrics.start();
+            delegate.assemble();
+            metrics.stop(sample, PdfPhase.PROCESS, "assemble", null, appendedPages);
+        }
+
+        @Override
+        public void close() throws Exception {
+            PdfPhaseMetrics.Sample sample = metrics.start();
+            delegate.close();
+            metrics.stop(sample, PdfPhase.WRITE, "assembler-close", null, appendedPages);
+            metrics.recordOutput("assemble", null, appendedPages, output.length());
+        }
+    }
+}
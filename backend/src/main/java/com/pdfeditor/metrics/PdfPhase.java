@@ -0,0 +1,37 @@
+package com.pdfeditor.metrics;
+
+/**
+ * Phases of a PDF operation, as recorded by {@link PdfPhaseMetrics}.
+ *
+ * Queueing in front of the SDK is not a phase; it is recorded by the bulkhead
+ * ({@code pdf.bulkhead.wait}).
+ *
+ * @author PDF Editor Team
+ */
+public enum PdfPhase {
+    /** Moving an upload into the upload directory. */
+    STAGING("staging"),
+    /** Opening a source document or creating an output. */
+    OPEN("open"),
+    /** The SDK call itself (assemble, optimize, render, extract, analyze, convert). */
+    PROCESS("process"),
+    /** Flushing and closing an output the SDK writes incrementally. */
+    WRITE("write"),
+    /** Closing source documents and releasing native resources. */
+    CLEANUP("cleanup");
+
+    private final String key;
+
+    PdfPhase(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns the name used in metric tags.
+     *
+     * @return phase key
+     */
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,151 @@
+package com.pdfeditor.metrics;
+
+import com.pdfeditor.concurrency.SdkBulkheadScheduler;
+import com.pdfeditor.concurrency.SdkOperation;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records per-phase timings of PDF operations.
+ *
+ * Meters (all tagged with {@code operation}, {@code phase}, {@code call}, {@code profile} and
+ * {@code pages}):
+ * <ul>
+ *   <li>{@code pdf.phase} - wall-clock time of a phase</li>
+ *   <li>{@code pdf.phase.cpu} - CPU time the calling thread spent in the phase. SDK calls run
+ *       native code on the calling thread, so this includes native CPU time; the gap to
+ *       {@code pdf.phase} is time spent blocked on I/O, locks or memory.</li>
+ *   <li>{@code pdf.phase.output.bytes} - size of the output written by a call</li>
+ * </ul>
+ *
+ * The operation is taken from the SDK bulkhead the current thread works for ("none" outside
+ * any bulkhead, e.g. while staging an upload). Page counts are bucketed to keep the number of
+ * time series bounded.
+ *
+ * @author PDF Editor Team
+ */
+@Component
+public class PdfPhaseMetrics {
+
+    /** Tag value for calls without a profile or outside any operation. */
+    public static final String NONE = "none";
+
+    private static final int[] PAGE_BUCKET_BOUNDS = {1, 10, 50, 200, 1000};
+
+    private final MeterRegistry meterRegistry;
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTimeEnabled;
+
+    public PdfPhaseMetrics(MeterRegistry meterRegistry,
+                           @Value("${app.metrics.cpu-time.enabled:true}") boolean cpuTimeEnabled) {
+        this.meterRegistry = meterRegistry;
+        this.cpuTimeEnabled = cpuTimeEnabled && threadBean.isCurrentThreadCpuTimeSupported();
+    }
+
+    /**
+     * Starts timing a phase on the current thread.
+     *
+     * @return a sample to pass to {@link #stop}
+     */
+    public Sample start() {
+        return new Sample(System.nanoTime(), cpuTimeEnabled ? threadBean.getCurrentThreadCpuTime() : -1);
+    }
+
+    /**
+     * Stops a sample and records it. Must be called on the thread that started it.
+     *
+     * @param sample sample from {@link #start}
+     * @param phase phase
+     * @param call SDK call or step within the phase, e.g. "optimize"
+     * @param profile profile key, or null
+     * @param pages number of pages the call covered, or a negative value if unknown
+     */
+    public void stop(Sample sample, PdfPhase phase, String call, String profile, int pages) {
+        long wallNanos = System.nanoTime() - sample.wallStart;
+        String operation = currentOperation();
+        String profileTag = profile != null ? profile : NONE;
+        String pageBucket = pageBucket(pages);
+
+        Timer.builder("pdf.phase")
+                .description("Wall-clock time of a PDF operation phase")
+                .tags("operation", operation, "phase", phase.getKey(), "call", call,
+                      "profile", profileTag, "pages", pageBucket)
+                .register(meterRegistry)
+                .record(wallNanos, TimeUnit.NANOSECONDS);
+
+        if (sample.cpuStart >= 0) {
+            long cpuNanos = threadBean.getCurrentThreadCpuTime() - sample.cpuStart;
+            Timer.builder("pdf.phase.cpu")
+                    .description("CPU time (including native SDK code) of a PDF operation phase")
+                    .tags("operation", operation, "phase", phase.getKey(), "call", call,
+                          "profile", profileTag, "pages", pageBucket)
+                    .register(meterRegistry)
+                    .record(Math.max(0, cpuNanos), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Records the size of an output written by an SDK call.
+     *
+     * @param call SDK call that wrote the output
+     * @param profile profile key, or null
+     * @param pages number of pages the call covered, or a negative value if unknown
+     * @param bytes output size
+     */
+    public void recordOutput(String call, String profile, int pages, long bytes) {
+        DistributionSummary.builder("pdf.phase.output.bytes")
+                .description("Size of outputs written by SDK calls")
+                .baseUnit("bytes")
+                .tags("operation", currentOperation(), "phase", PdfPhase.WRITE.getKey(), "call", call,
+                      "profile", profile != null ? profile : NONE, "pages", pageBucket(pages))
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /**
+     * Maps a page count to a bounded tag value: "1", "2-10", "11-50", "51-200", "201-1000",
+     * "1000+", or "unknown" for negative counts.
+     *
+     * @param pages page count
+     * @return bucket label
+     */
+    static String pageBucket(int pages) {
+        if (pages < 0) {
+            return "unknown";
+        }
+        int lower = 0;
+        for (int bound : PAGE_BUCKET_BOUNDS) {
+            if (pages <= bound) {
+                return lower + 1 >= bound ? String.valueOf(bound) : (lower + 1) + "-" + bound;
+            }
+            lower = bound;
+        }
+        return lower + "+";
+    }
+
+    private static String currentOperation() {
+        SdkOperation operation = SdkBulkheadScheduler.currentOperation();
+        return operation != null ? operation.getKey() : NONE;
+    }
+
+    /**
+     * Start times of a phase measurement.
+     */
+    public static final class Sample {
+
+        private final long wallStart;
+        private final long cpuStart;
+
+        private Sample(long wallStart, long cpuStart) {
+            this.wallStart = wallStart;
+            this.cpuStart = cpuStart;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.pdfeditor.sdk;
+
+/**
+ * Optimization profiles supported by {@link PdfSdk#optimize}.
+ *
+ * @author PDF Editor Team
+ */
+public enum CompressionProfile {
+
+    /** Optimized for screen viewing */
+    WEB,
+
+    /** Optimized for printing */
+    PRINT
+}
@@ -0,0 +1,9 @@
+package com.pdfeditor.sdk;
+
+/**
+ * Opaque result of a PDF/A analysis, passed back to {@link PdfSdk#convertToPdfA}.
+ *
+ * @author PDF Editor Team
+ */
+public interface PdfAAnalysis {
+}
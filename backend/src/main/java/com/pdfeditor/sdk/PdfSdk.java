@@ -0,0 +1,162 @@
+package com.pdfeditor.sdk;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Facade over the PDF engine used by the services.
+ *
+ * The production implementation ({@link PdfToolsSdk}) delegates to the PDF Tools SDK; a
+ * stub ({@link StubPdfSdk}, selected with {@code app.sdk.engine=stub}) works on synthetic
+ * documents so the services can be exercised and benchmarked without the native library or
+ * a license key.
+ *
+ * Handles returned by the facade are not thread-safe; each thread opens its own.
+ *
+ * @author PDF Editor Team
+ */
+public interface PdfSdk {
+
+    /** Qualifier of the engine implementation, as opposed to decorators wrapping it. */
+    String ENGINE = "pdfEngine";
+
+    /**
+     * Opens a PDF file for reading.
+     *
+     * @param file PDF file
+     * @return open document; the caller must close it
+     * @throws Exception if the file cannot be opened
+     */
+    SdkDocument open(File file) throws Exception;
+
+    /**
+     * Opens a PDF held in memory.
+     *
+     * @param content PDF bytes; must not be modified while the document is open
+     * @return open document; the caller must close it
+     * @throws Exception if the content cannot be opened
+     */
+    SdkDocument open(byte[] content) throws Exception;
+
+    /**
+     * Creates an assembler that writes a new PDF built from pages of open documents.
+     *
+     * @param output file to write
+     * @return assembler; the caller must close it
+     * @throws Exception if the output cannot be created
+     */
+    SdkAssembler createAssembler(File output) throws Exception;
+
+    /**
+     * Writes an optimized copy of a document.
+     *
+     * @param source source document
+     * @param output file to write
+     * @param profile optimization profile
+     * @throws Exception if optimization fails
+     */
+    void optimize(SdkDocument source, File output, CompressionProfile profile) throws Exception;
+
+    /**
+     * Renders one page of a document to an image file.
+     *
+     * @param source source document
+     * @param pageNumber 1-based page number
+     * @param output image file to write
+     * @param profile render profile
+     * @throws Exception if rendering fails
+     */
+    void renderPage(SdkDocument source, int pageNumber, File output, RenderProfile profile) throws Exception;
+
+    /**
+     * Extracts the text of a page range.
+     *
+     * @param source source document
+     * @param firstPage first page (1-based, null for the first page of the document)
+     * @param lastPage last page, inclusive (null for the last page of the document)
+     * @return extracted text, UTF-8 encoded
+     * @throws Exception if extraction fails
+     */
+    byte[] extractText(SdkDocument source, Integer firstPage, Integer lastPage) throws Exception;
+
+    /**
+     * Analyzes a document for PDF/A validation or conversion.
+     *
+     * @param source source document
+     * @return analysis result
+     * @throws Exception if the analysis fails
+     */
+    PdfAAnalysis analyzePdfA(SdkDocument source) throws Exception;
+
+    /**
+     * Converts a document to PDF/A using a previous analysis.
+     *
+     * @param analysis result of {@link #analyzePdfA} for the same document
+     * @param source source document
+     * @param output file to write
+     * @throws Exception if conversion fails
+     */
+    void convertToPdfA(PdfAAnalysis analysis, SdkDocument source, File output) throws Exception;
+
+    /**
+     * Merges documents into a PDF held in memory.
+     *
+     * @param sources documents to merge, in output order
+     * @return merged PDF bytes
+     * @throws Exception if merging fails
+     */
+    byte[] mergeToBytes(List<SdkDocument> sources) throws Exception;
+
+    /**
+     * Writes an optimized copy of a document to memory.
+     *
+     * @param source source document
+     * @param profile optimization profile
+     * @return optimized PDF bytes
+     * @throws Exception if optimization fails
+     */
+    byte[] optimizeToBytes(SdkDocument source, CompressionProfile profile) throws Exception;
+
+    /**
+     * Converts a document to PDF/A in memory using a previous analysis.
+     *
+     * @param analysis result of {@link #analyzePdfA} for the same document
+     * @param source source document
+     * @return converted PDF bytes
+     * @throws Exception if conversion fails
+     */
+    byte[] convertToPdfAToBytes(PdfAAnalysis analysis, SdkDocument source) throws Exception;
+
+    /**
+     * Merges documents into an intermediate document that stays open for further processing.
+     *
+     * @param sources documents to merge, in output order
+     * @param buffer file backing the result, or null to keep it in memory
+     * @return merged document; the caller must close it
+     * @throws Exception if merging fails
+     */
+    SdkDocument mergeToDocument(List<SdkDocument> sources, File buffer) throws Exception;
+
+    /**
+     * Optimizes a document into an intermediate document that stays open for further processing.
+     *
+     * @param source source document
+     * @param profile optimization profile
+     * @param buffer file backing the result, or null to keep it in memory
+     * @return optimized document; the caller must close it
+     * @throws Exception if optimization fails
+     */
+    SdkDocument optimizeToDocument(SdkDocument source, CompressionProfile profile, File buffer) throws Exception;
+
+    /**
+     * Converts a document to PDF/A into an intermediate document that stays open for further
+     * processing.
+     *
+     * @param analysis result of {@link #analyzePdfA} for the same document
+     * @param source source document
+     * @param buffer file backing the result, or null to keep it in memory
+     * @return converted document; the caller must close it
+     * @throws Exception if conversion fails
+     */
+    SdkDocument convertToPdfADocument(PdfAAnalysis analysis, SdkDocument source, File buffer) throws Exception;
+}
@@ -0,0 +1,387 @@
+package com.pdfeditor.sdk;
+
+import com.pdftools.documentassembly.DocumentAssembler;
+import com.pdftools.extraction.Extractor;
+import com.pdftools.extraction.TextOptions;
+import com.pdftools.optimization.Optimizer;
+import com.pdftools.optimization.profiles.Print;
+import com.pdftools.optimization.profiles.Web;
+import com.pdftools.pdf.Conformance;
+import com.pdftools.pdf.Document;
+import com.pdftools.pdf.Metadata;
+import com.pdftools.pdf2image.Converter;
+import com.pdftools.pdf2image.profiles.Archive;
+import com.pdftools.pdf2image.profiles.Profile;
+import com.pdftools.pdf2image.profiles.Viewing;
+import com.pdftools.pdfa.conversion.ConversionOptions;
+import com.pdftools.pdfa.validation.AnalysisOptions;
+import com.pdftools.pdfa.validation.AnalysisResult;
+import com.pdftools.pdfa.validation.Validator;
+import com.pdftools.sys.FileStream;
+import com.pdftools.sys.MemoryStream;
+import com.pdftools.sys.Stream;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link PdfSdk} backed by the PDF Tools SDK. This is the default engine.
+ *
+ * Engines ({@code Optimizer}, {@code Converter}, {@code Extractor}, {@code Validator}) and
+ * their profiles or options are not created per call but borrowed from one
+ * {@link SdkInstancePool} per operation type, sized by {@code app.sdk.pool.<pool>.size}.
+ * The pools are filled at startup, right after the native library has been loaded.
+ *
+ * @author PDF Editor Team
+ */
+@Component
+@Qualifier(PdfSdk.ENGINE)
+@ConditionalOnProperty(name = "app.sdk.engine", havingValue = "pdftools", matchIfMissing = true)
+@DependsOn("pdfToolsConfig")
+public class PdfToolsSdk implements PdfSdk {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfToolsSdk.class);
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private SdkInstancePool<Engine<Optimizer, com.pdftools.optimization.profiles.Profile>> optimizeWebPool;
+    private SdkInstancePool<Engine<Optimizer, com.pdftools.optimization.profiles.Profile>> optimizePrintPool;
+    private SdkInstancePool<Engine<Converter, Profile>> renderViewingPool;
+    private SdkInstancePool<Engine<Converter, Profile>> renderArchivePool;
+    private SdkInstancePool<Engine<Extractor, TextOptions>> extractPool;
+    private SdkInstancePool<Engine<Validator, AnalysisOptions>> validatePool;
+    private SdkInstancePool<Engine<com.pdftools.pdfa.conversion.Converter, ConversionOptions>> pdfaConvertPool;
+
+    /**
+     * Creates the engine pools and, unless {@code app.sdk.pool.warm-up=false}, fills them.
+     */
+    @PostConstruct
+    public void initialize() throws Exception {
+        optimizeWebPool = pool("optimize-web", () -> new Engine<>(new Optimizer(), new Web()));
+        optimizePrintPool = pool("optimize-print", () -> new Engine<>(new Optimizer(), new Print()));
+        renderViewingPool = pool("render-viewing", () -> new Engine<>(new Converter(), new Viewing()));
+        renderArchivePool = pool("render-archive", () -> new Engine<>(new Converter(), new Archive()));
+        extractPool = pool("extract", () -> new Engine<>(new Extractor(), new TextOptions()));
+        validatePool = pool("pdfa-validate", () -> new Engine<>(new Validator(), new AnalysisOptions()));
+        pdfaConvertPool = pool("pdfa-convert",
+                () -> new Engine<>(new com.pdftools.pdfa.conversion.Converter(), new ConversionOptions()));
+
+        if (environment.getProperty("app.sdk.pool.warm-up", Boolean.class, true)) {
+            long start = System.nanoTime();
+            for (SdkInstancePool<?> pool : List.of(optimizeWebPool, optimizePrintPool, renderViewingPool,
+                    renderArchivePool, extractPool, validatePool, pdfaConvertPool)) {
+                pool.warmUp();
+            }
+            logger.info("SDK engine pools warmed up in {} ms", (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private <E, O> SdkInstancePool<Engine<E, O>> pool(String name, Callable<Engine<E, O>> factory) {
+        int defaultSize = environment.getProperty("app.sdk.pool.default.size", Integer.class, 4);
+        int size = environment.getProperty("app.sdk.pool." + name + ".size", Integer.class, defaultSize);
+        int maxUses = environment.getProperty("app.sdk.pool.max-uses", Integer.class, 10000);
+        logger.info("SDK pool {}: {} instances, replaced after {} uses", name, size, maxUses);
+        return new SdkInstancePool<>(name, factory, size, maxUses, meterRegistry);
+    }
+
+    @Override
+    public SdkDocument open(File file) throws Exception {
+        FileStream stream = new FileStream(file.getAbsolutePath(), FileStream.Mode.READ_ONLY);
+        try {
+            return new PdfToolsDocument(stream, Document.open(stream, null));
+        } catch (Exception e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public SdkDocument open(byte[] content) throws Exception {
+        MemoryStream stream = new MemoryStream(content);
+        try {
+            return new PdfToolsDocument(stream, Document.open(stream, null));
+        } catch (Exception e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public SdkAssembler createAssembler(File output) throws Exception {
+        FileStream stream = new FileStream(output.getAbsolutePath(), FileStream.Mode.READ_WRITE_NEW);
+        try {
+            return new PdfToolsAssembler(stream, new DocumentAssembler(stream));
+        } catch (Exception e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void optimize(SdkDocument source, File output, CompressionProfile profile) throws Exception {
+        try (FileStream outputStream = new FileStream(output.getAbsolutePath(), FileStream.Mode.READ_WRITE_NEW);
+             Document optimizedDoc = optimizePool(profile).use(
+                     engine -> engine.engine.optimizeDocument(document(source), outputStream, engine.options))) {
+            // Closing the optimized document flushes it to the output stream
+        }
+    }
+
+    @Override
+    public void renderPage(SdkDocument source, int pageNumber, File output, RenderProfile profile) throws Exception {
+        SdkInstancePool<Engine<Converter, Profile>> pool = profile == RenderProfile.ARCHIVE ? renderArchivePool : renderViewingPool;
+
+        try (FileStream outputStream = new FileStream(output.getAbsolutePath(), FileStream.Mode.READ_WRITE_NEW)) {
+            // convertPage takes: Document, output stream, profile, page number (1-based)
+            pool.use(engine -> engine.engine.convertPage(document(source), outputStream, engine.options, pageNumber));
+        }
+    }
+
+    @Override
+    public byte[] extractText(SdkDocument source, Integer firstPage, Integer lastPage) throws Exception {
+        try (MemoryStream textStream = new MemoryStream()) {
+            extractPool.use(engine -> {
+                engine.engine.extractText(document(source), textStream, engine.options, firstPage, lastPage);
+                return null;
+            });
+            return textStream.toByteArray();
+        }
+    }
+
+    @Override
+    public PdfAAnalysis analyzePdfA(SdkDocument source) throws Exception {
+        AnalysisResult result = validatePool.use(engine -> engine.engine.analyze(document(source), engine.options));
+        return new PdfToolsAnalysis(result);
+    }
+
+    @Override
+    public void convertToPdfA(PdfAAnalysis analysis, SdkDocument source, File output) throws Exception {
+        AnalysisResult result = ((PdfToolsAnalysis) analysis).result;
+
+        try (FileStream outputStream = new FileStream(output.getAbsolutePath(), FileStream.Mode.READ_WRITE_NEW)) {
+            // The convert method takes: AnalysisResult, Document, Stream
+            Document convertedDoc = pdfaConvertPool.use(
+                    engine -> engine.engine.convert(result, document(source), outputStream, engine.options));
+            if (convertedDoc != null) {
+                convertedDoc.close();
+            }
+        }
+    }
+
+    @Override
+    public byte[] mergeToBytes(List<SdkDocument> sources) throws Exception {
+        try (MemoryStream outputStream = new MemoryStream()) {
+            try (DocumentAssembler assembler = new DocumentAssembler(outputStream)) {
+                for (SdkDocument source : sources) {
+                    assembler.append(document(source));
+                }
+                assembler.assemble().close();
+            }
+            return outputStream.toByteArray();
+        }
+    }
+
+    @Override
+    public byte[] optimizeToBytes(SdkDocument source, CompressionProfile profile) throws Exception {
+        try (MemoryStream outputStream = new MemoryStream()) {
+            try (Document optimizedDoc = optimizePool(profile).use(
+                    engine -> engine.engine.optimizeDocument(document(source), outputStream, engine.options))) {
+                // Closing the optimized document flushes it to the output stream
+            }
+            return outputStream.toByteArray();
+        }
+    }
+
+    @Override
+    public byte[] convertToPdfAToBytes(PdfAAnalysis analysis, SdkDocument source) throws Exception {
+        AnalysisResult result = ((PdfToolsAnalysis) analysis).result;
+
+        try (MemoryStream outputStream = new MemoryStream()) {
+            Document convertedDoc = pdfaConvertPool.use(
+                    engine -> engine.engine.convert(result, document(source), outputStream, engine.options));
+            if (convertedDoc != null) {
+                convertedDoc.close();
+            }
+            return outputStream.toByteArray();
+        }
+    }
+
+    @Override
+    public SdkDocument mergeToDocument(List<SdkDocument> sources, File buffer) throws Exception {
+        Stream stream = intermediateStream(buffer);
+        try (DocumentAssembler assembler = new DocumentAssembler(stream)) {
+            for (SdkDocument source : sources) {
+                assembler.append(document(source));
+            }
+            return new PdfToolsDocument(stream, assembler.assemble());
+        } catch (Exception e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public SdkDocument optimizeToDocument(SdkDocument source, CompressionProfile profile, File buffer) throws Exception {
+        Stream stream = intermediateStream(buffer);
+        try {
+            return new PdfToolsDocument(stream, optimizePool(profile).use(
+                    engine -> engine.engine.optimizeDocument(document(source), stream, engine.options)));
+        } catch (Exception e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public SdkDocument convertToPdfADocument(PdfAAnalysis analysis, SdkDocument source, File buffer) throws Exception {
+        AnalysisResult result = ((PdfToolsAnalysis) analysis).result;
+
+        Stream stream = intermediateStream(buffer);
+        try {
+            return new PdfToolsDocument(stream, pdfaConvertPool.use(
+                    engine -> engine.engine.convert(result, document(source), stream, engine.options)));
+        } catch (Exception e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    private SdkInstancePool<Engine<Optimizer, com.pdftools.optimization.profiles.Profile>> optimizePool(
+            CompressionProfile profile) {
+        return profile == CompressionProfile.PRINT ? optimizePrintPool : optimizeWebPool;
+    }
+
+    private static Stream intermediateStream(File buffer) throws Exception {
+        return buffer != null
+                ? new FileStream(buffer.getAbsolutePath(), FileStream.Mode.READ_WRITE_NEW)
+                : new MemoryStream();
+    }
+
+    private static Document document(SdkDocument document) {
+        return ((PdfToolsDocument) document).document;
+    }
+
+    /**
+     * Pooled SDK engine together with the profile or options it is always used with.
+     */
+    private static final class Engine<E, O> {
+
+        private final E engine;
+        private final O options;
+
+        Engine(E engine, O options) {
+            this.engine = engine;
+            this.options = options;
+        }
+    }
+
+    /**
+     * SDK document together with the stream it reads from.
+     */
+    private static final class PdfToolsDocument implements SdkDocument {
+
+        private final Stream stream;
+        private final Document document;
+
+        PdfToolsDocument(Stream stream, Document document) {
+            this.stream = stream;
+            this.document = document;
+        }
+
+        @Override
+        public int getPageCount() {
+            return document.getPageCount();
+        }
+
+        @Override
+        public String getConformance() {
+            Conformance conformance = document.getConformance();
+            return conformance != null ? conformance.toString() : null;
+        }
+
+        @Override
+        public SdkMetadata getMetadata() throws Exception {
+            Metadata metadata = document.getMetadata();
+            if (metadata == null) {
+                return null;
+            }
+            return new SdkMetadata(metadata.getTitle(), metadata.getAuthor(), metadata.getSubject(),
+                                   metadata.getKeywords(), metadata.getCreator(), metadata.getProducer(),
+                                   metadata.getCreationDate(), metadata.getModificationDate());
+        }
+
+        @Override
+        public void close() throws Exception {
+            try {
+                document.close();
+            } finally {
+                stream.close();
+            }
+        }
+    }
+
+    /**
+     * SDK assembler together with the file stream it writes to.
+     */
+    private static final class PdfToolsAssembler implements SdkAssembler {
+
+        private final FileStream stream;
+        private final DocumentAssembler assembler;
+
+        PdfToolsAssembler(FileStream stream, DocumentAssembler assembler) {
+            this.stream = stream;
+            this.assembler = assembler;
+        }
+
+        @Override
+        public void append(SdkDocument document) throws Exception {
+            assembler.append(document(document));
+        }
+
+        @Override
+        public void append(SdkDocument document, int firstPage, int lastPage) throws Exception {
+            // Pages are 1-indexed in the API, both inclusive
+            assembler.append(document(document), firstPage, lastPage);
+        }
+
+        @Override
+        public void assemble() throws Exception {
+            assembler.assemble();
+        }
+
+        @Override
+        public void close() throws Exception {
+            try {
+                assembler.close();
+            } finally {
+                stream.close();
+            }
+        }
+    }
+
+    /**
+     * Wraps an SDK analysis result.
+     */
+    private static final class PdfToolsAnalysis implements PdfAAnalysis {
+
+        private final AnalysisResult result;
+
+        PdfToolsAnalysis(AnalysisResult result) {
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.pdfeditor.sdk;
+
+/**
+ * Render profiles supported by {@link PdfSdk#renderPage}.
+ *
+ * @author PDF Editor Team
+ */
+public enum RenderProfile {
+
+    /** Web-suitable images (PNG, JPEG) */
+    VIEWING("viewing"),
+
+    /** High-quality archival images (TIFF) */
+    ARCHIVE("archive");
+
+    private final String key;
+
+    RenderProfile(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,37 @@
+package com.pdfeditor.sdk;
+
+/**
+ * Builds a new PDF from pages of open documents.
+ *
+ * @author PDF Editor Team
+ */
+public interface SdkAssembler extends AutoCloseable {
+
+    /**
+     * Appends all pages of a document.
+     *
+     * @param document source document
+     * @throws Exception if the pages cannot be copied
+     */
+    void append(SdkDocument document) throws Exception;
+
+    /**
+     * Appends a page range of a document.
+     *
+     * @param document source document
+     * @param firstPage first page (1-based)
+     * @param lastPage last page, inclusive
+     * @throws Exception if the pages cannot be copied
+     */
+    void append(SdkDocument document, int firstPage, int lastPage) throws Exception;
+
+    /**
+     * Writes the final structure of the output document.
+     *
+     * @throws Exception if the output cannot be written
+     */
+    void assemble() throws Exception;
+
+    @Override
+    void close() throws Exception;
+}
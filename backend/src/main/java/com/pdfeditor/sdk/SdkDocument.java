@@ -0,0 +1,28 @@
+package com.pdfeditor.sdk;
+
+/**
+ * An open PDF document.
+ *
+ * @author PDF Editor Team
+ */
+public interface SdkDocument extends AutoCloseable {
+
+    /**
+     * @return number of pages
+     */
+    int getPageCount();
+
+    /**
+     * @return declared conformance (e.g. "PDF/A-2b"), or null if not available
+     */
+    String getConformance();
+
+    /**
+     * @return document information, or null if the document has none
+     * @throws Exception if the metadata cannot be read
+     */
+    SdkMetadata getMetadata() throws Exception;
+
+    @Override
+    void close() throws Exception;
+}
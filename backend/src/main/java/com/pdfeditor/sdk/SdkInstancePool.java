@@ -0,0 +1,178 @@
+package com.pdfeditor.sdk;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of reusable SDK engine instances (engines together with their profile or options).
+ *
+ * Borrowing never blocks: concurrency is already bounded by the SDK bulkheads, so when no idle
+ * instance is left a new one is created, and on return instances beyond the pool size are
+ * dropped. Idle instances are reused most recently returned first, which keeps the warm ones
+ * hot. Health checks happen on return: an instance whose call failed may hold inconsistent
+ * native state and is discarded, as is an instance that has reached {@code maxUses}.
+ *
+ * Meters, tagged with the pool name: {@code pdf.sdk.pool.borrow} and
+ * {@code pdf.sdk.pool.return} (latency), {@code pdf.sdk.pool.created},
+ * {@code pdf.sdk.pool.discarded} (tagged with the reason) and {@code pdf.sdk.pool.idle}.
+ *
+ * @param <T> instance type
+ * @author PDF Editor Team
+ */
+public class SdkInstancePool<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SdkInstancePool.class);
+
+    private final String name;
+    private final Callable<T> factory;
+    private final int size;
+    private final int maxUses;
+    private final LinkedBlockingDeque<Pooled<T>> idle = new LinkedBlockingDeque<>();
+
+    private final Timer borrowTimer;
+    private final Timer returnTimer;
+    private final Counter created;
+    private final Counter discardedFailed;
+    private final Counter discardedWorn;
+    private final Counter discardedSurplus;
+
+    /**
+     * Creates an empty pool.
+     *
+     * @param name pool name, used as the {@code pool} tag
+     * @param factory creates a new instance
+     * @param size number of idle instances kept
+     * @param maxUses borrows after which an instance is replaced (0 for unlimited)
+     * @param meterRegistry registry for the pool meters
+     */
+    public SdkInstancePool(String name, Callable<T> factory, int size, int maxUses, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.factory = factory;
+        this.size = size;
+        this.maxUses = maxUses;
+
+        borrowTimer = Timer.builder("pdf.sdk.pool.borrow").tag("pool", name)
+                .description("Time to borrow an SDK engine instance, including creating one").register(meterRegistry);
+        returnTimer = Timer.builder("pdf.sdk.pool.return").tag("pool", name)
+                .description("Time to return an SDK engine instance").register(meterRegistry);
+        created = Counter.builder("pdf.sdk.pool.created").tag("pool", name)
+                .description("SDK engine instances created").register(meterRegistry);
+        discardedFailed = discardedCounter(meterRegistry, "failed");
+        discardedWorn = discardedCounter(meterRegistry, "max-uses");
+        discardedSurplus = discardedCounter(meterRegistry, "surplus");
+        Gauge.builder("pdf.sdk.pool.idle", idle, LinkedBlockingDeque::size).tag("pool", name)
+                .description("Idle SDK engine instances").register(meterRegistry);
+    }
+
+    /**
+     * Fills the pool up to its size, so that the first requests do not pay for creating
+     * instances (and for loading the native code behind them).
+     *
+     * @throws Exception if an instance cannot be created
+     */
+    public void warmUp() throws Exception {
+        while (idle.size() < size) {
+            idle.offerLast(create());
+        }
+        logger.debug("SDK pool {} warmed up with {} instances", name, size);
+    }
+
+    /**
+     * Runs a call with an instance borrowed from the pool.
+     *
+     * @param call work using the instance; the instance must not escape the call
+     * @param <R> result type
+     * @return the call result
+     * @throws Exception if the call fails; the instance is then discarded
+     */
+    public <R> R use(PooledCall<T, R> call) throws Exception {
+        Pooled<T> pooled = borrow();
+        boolean healthy = false;
+        try {
+            R result = call.call(pooled.instance);
+            healthy = true;
+            return result;
+        } finally {
+            giveBack(pooled, healthy);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    private Pooled<T> borrow() throws Exception {
+        long start = System.nanoTime();
+        try {
+            Pooled<T> pooled = idle.pollFirst();
+            return pooled != null ? pooled : create();
+        } finally {
+            borrowTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void giveBack(Pooled<T> pooled, boolean healthy) {
+        long start = System.nanoTime();
+        pooled.uses++;
+
+        if (!healthy) {
+            discardedFailed.increment();
+        } else if (maxUses > 0 && pooled.uses >= maxUses) {
+            discardedWorn.increment();
+        } else if (idle.size() >= size) {
+            discardedSurplus.increment();
+        } else {
+            idle.offerFirst(pooled);
+        }
+
+        returnTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Pooled<T> create() throws Exception {
+        Pooled<T> pooled = new Pooled<>(factory.call());
+        created.increment();
+        return pooled;
+    }
+
+    private Counter discardedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("pdf.sdk.pool.discarded").tag("pool", name).tag("reason", reason)
+                .description("SDK engine instances dropped instead of being reused").register(meterRegistry);
+    }
+
+    /**
+     * Work done with a pooled instance.
+     *
+     * @param <T> instance type
+     * @param <R> result type
+     */
+    @FunctionalInterface
+    public interface PooledCall<T, R> {
+
+        R call(T instance) throws Exception;
+    }
+
+    /**
+     * An instance and the number of times it has been borrowed.
+     */
+    private static final class Pooled<T> {
+
+        private final T instance;
+        private int uses;
+
+        Pooled(T instance) {
+            this.instance = instance;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.pdfeditor.sdk;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Document information read through the {@link PdfSdk} facade.
+ *
+ * @author PDF Editor Team
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SdkMetadata {
+    public String title;
+    public String author;
+    public String subject;
+    public String keywords;
+    public String creator;
+    public String producer;
+    public OffsetDateTime creationDate;
+    public OffsetDateTime modificationDate;
+}
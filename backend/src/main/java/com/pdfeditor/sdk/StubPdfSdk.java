@@ -0,0 +1,229 @@
+package com.pdfeditor.sdk;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link PdfSdk} that works on {@link SyntheticPdf} documents without the native library.
+ *
+ * Every operation produces deterministic output from the page texts. To model the cost of
+ * native calls, each processed page can block the calling thread for
+ * {@code app.sdk.stub.page-cost-micros}. Selected with {@code app.sdk.engine=stub}; intended
+ * for benchmarks and local development, never for production.
+ *
+ * @author PDF Editor Team
+ */
+@Component
+@Qualifier(PdfSdk.ENGINE)
+@ConditionalOnProperty(name = "app.sdk.engine", havingValue = "stub")
+public class StubPdfSdk implements PdfSdk {
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+
+    @Value("${app.sdk.stub.page-cost-micros:0}")
+    private long pageCostMicros;
+
+    @Value("${app.sdk.stub.image-bytes:32768}")
+    private int imageBytes;
+
+    @Override
+    public SdkDocument open(File file) throws Exception {
+        return new StubDocument(SyntheticPdf.read(file.toPath()));
+    }
+
+    @Override
+    public SdkDocument open(byte[] content) throws Exception {
+        return new StubDocument(SyntheticPdf.parse(content));
+    }
+
+    @Override
+    public SdkAssembler createAssembler(File output) {
+        return new StubAssembler(output);
+    }
+
+    @Override
+    public void optimize(SdkDocument source, File output, CompressionProfile profile) throws Exception {
+        List<String> pages = pages(source);
+        simulateWork(pages.size());
+        SyntheticPdf.write(output.toPath(), pages);
+    }
+
+    @Override
+    public void renderPage(SdkDocument source, int pageNumber, File output, RenderProfile profile) throws Exception {
+        byte[] text = pages(source).get(pageNumber - 1).getBytes(StandardCharsets.UTF_8);
+        simulateWork(1);
+
+        // Deterministic pseudo image: a PNG signature followed by the page text repeated
+        byte[] image = new byte[Math.max(imageBytes, PNG_SIGNATURE.length)];
+        System.arraycopy(PNG_SIGNATURE, 0, image, 0, PNG_SIGNATURE.length);
+        for (int i = PNG_SIGNATURE.length; i < image.length && text.length > 0; i++) {
+            image[i] = text[i % text.length];
+        }
+        Files.write(output.toPath(), image);
+    }
+
+    @Override
+    public byte[] extractText(SdkDocument source, Integer firstPage, Integer lastPage) {
+        List<String> pages = pages(source);
+        int first = firstPage != null ? firstPage : 1;
+        int last = lastPage != null ? lastPage : pages.size();
+        simulateWork(last - first + 1);
+
+        return String.join("\n", pages.subList(first - 1, last)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public PdfAAnalysis analyzePdfA(SdkDocument source) {
+        simulateWork(source.getPageCount());
+        return new PdfAAnalysis() { };
+    }
+
+    @Override
+    public void convertToPdfA(PdfAAnalysis analysis, SdkDocument source, File output) throws Exception {
+        List<String> pages = pages(source);
+        simulateWork(pages.size());
+        SyntheticPdf.write(output.toPath(), pages);
+    }
+
+    @Override
+    public byte[] mergeToBytes(List<SdkDocument> sources) {
+        List<String> pages = new ArrayList<>();
+        for (SdkDocument source : sources) {
+            pages.addAll(pages(source));
+        }
+        simulateWork(pages.size());
+        return SyntheticPdf.toBytes(pages);
+    }
+
+    @Override
+    public byte[] optimizeToBytes(SdkDocument source, CompressionProfile profile) {
+        List<String> pages = pages(source);
+        simulateWork(pages.size());
+        return SyntheticPdf.toBytes(pages);
+    }
+
+    @Override
+    public byte[] convertToPdfAToBytes(PdfAAnalysis analysis, SdkDocument source) {
+        List<String> pages = pages(source);
+        simulateWork(pages.size());
+        return SyntheticPdf.toBytes(pages);
+    }
+
+    @Override
+    public SdkDocument mergeToDocument(List<SdkDocument> sources, File buffer) throws Exception {
+        List<String> pages = new ArrayList<>();
+        for (SdkDocument source : sources) {
+            pages.addAll(pages(source));
+        }
+        simulateWork(pages.size());
+        return intermediate(pages, buffer);
+    }
+
+    @Override
+    public SdkDocument optimizeToDocument(SdkDocument source, CompressionProfile profile, File buffer) throws Exception {
+        List<String> pages = pages(source);
+        simulateWork(pages.size());
+        return intermediate(pages, buffer);
+    }
+
+    @Override
+    public SdkDocument convertToPdfADocument(PdfAAnalysis analysis, SdkDocument source, File buffer) throws Exception {
+        List<String> pages = pages(source);
+        simulateWork(pages.size());
+        return intermediate(pages, buffer);
+    }
+
+    private static SdkDocument intermediate(List<String> pages, File buffer) throws Exception {
+        if (buffer != null) {
+            SyntheticPdf.write(buffer.toPath(), pages);
+        }
+        return new StubDocument(new ArrayList<>(pages));
+    }
+
+    private void simulateWork(int pages) {
+        if (pageCostMicros > 0 && pages > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(pageCostMicros * pages));
+        }
+    }
+
+    private static List<String> pages(SdkDocument document) {
+        return ((StubDocument) document).pages;
+    }
+
+    /**
+     * Synthetic document held in memory.
+     */
+    private static final class StubDocument implements SdkDocument {
+
+        private final List<String> pages;
+
+        StubDocument(List<String> pages) {
+            this.pages = pages;
+        }
+
+        @Override
+        public int getPageCount() {
+            return pages.size();
+        }
+
+        @Override
+        public String getConformance() {
+            return null;
+        }
+
+        @Override
+        public SdkMetadata getMetadata() {
+            SdkMetadata metadata = new SdkMetadata();
+            metadata.title = "Synthetic document";
+            metadata.producer = "PDF Editor synthetic corpus";
+            return metadata;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Collects pages in memory and writes them on {@link #assemble()}.
+     */
+    private final class StubAssembler implements SdkAssembler {
+
+        private final File output;
+        private final List<String> pages = new ArrayList<>();
+
+        StubAssembler(File output) {
+            this.output = output;
+        }
+
+        @Override
+        public void append(SdkDocument document) {
+            append(document, 1, document.getPageCount());
+        }
+
+        @Override
+        public void append(SdkDocument document, int firstPage, int lastPage) {
+            pages.addAll(pages(document).subList(firstPage - 1, lastPage));
+            simulateWork(lastPage - firstPage + 1);
+        }
+
+        @Override
+        public void assemble() throws Exception {
+            SyntheticPdf.write(output.toPath(), pages);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
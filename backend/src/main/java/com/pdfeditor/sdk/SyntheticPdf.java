@@ -0,0 +1,181 @@
+package com.pdfeditor.sdk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads and writes minimal, valid single-font PDFs with one line of text per page.
+ *
+ * Used by {@link StubPdfSdk} as its document format and by the benchmarks to build a
+ * deterministic corpus: the same page count and seed always produce the same bytes.
+ *
+ * @author PDF Editor Team
+ */
+public final class SyntheticPdf {
+
+    private static final Pattern TEXT_PATTERN = Pattern.compile("\\((.*?)(?<!\\\\)\\) Tj");
+    private static final Pattern PAGE_PATTERN = Pattern.compile("/Type\\s*/Page(?!s)");
+
+    private static final String[] WORDS = {
+        "invoice", "contract", "annex", "amount", "total", "delivery", "customer", "supplier",
+        "signature", "date", "section", "clause", "payment", "terms", "order", "reference",
+        "page", "document", "archive", "report", "summary", "balance", "account", "tax"
+    };
+
+    private SyntheticPdf() {
+    }
+
+    /**
+     * Generates deterministic page texts.
+     *
+     * @param pageCount number of pages
+     * @param wordsPerPage words on each page
+     * @param seed random seed
+     * @return one text per page
+     */
+    public static List<String> generatePages(int pageCount, int wordsPerPage, long seed) {
+        Random random = new Random(seed);
+        List<String> pages = new ArrayList<>(pageCount);
+        for (int page = 1; page <= pageCount; page++) {
+            StringBuilder text = new StringBuilder("Page ").append(page);
+            for (int i = 0; i < wordsPerPage; i++) {
+                text.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            pages.add(text.toString());
+        }
+        return pages;
+    }
+
+    /**
+     * Writes a PDF with one page per text.
+     *
+     * @param file file to write
+     * @param pageTexts text of each page
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, List<String> pageTexts) throws IOException {
+        Files.write(file, toBytes(pageTexts));
+    }
+
+    /**
+     * Serializes a PDF with one page per text.
+     *
+     * @param pageTexts text of each page
+     * @return PDF bytes
+     */
+    public static byte[] toBytes(List<String> pageTexts) {
+        int pageCount = pageTexts.size();
+        // Objects: 1 catalog, 2 pages, 3 font, 4 info, then a page and a content stream per page
+        int objectCount = 4 + 2 * pageCount;
+        long[] offsets = new long[objectCount + 1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 + 160 * pageCount);
+
+        append(out, "%PDF-1.4\n%âãÏÓ\n");
+
+        offsets[1] = out.size();
+        append(out, "1 0 obj\n<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+
+        StringBuilder kids = new StringBuilder();
+        for (int i = 0; i < pageCount; i++) {
+            kids.append(5 + 2 * i).append(" 0 R ");
+        }
+        offsets[2] = out.size();
+        append(out, "2 0 obj\n<< /Type /Pages /Kids [" + kids + "] /Count " + pageCount + " >>\nendobj\n");
+
+        offsets[3] = out.size();
+        append(out, "3 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica >>\nendobj\n");
+
+        offsets[4] = out.size();
+        append(out, "4 0 obj\n<< /Title (Synthetic document) /Producer (PDF Editor synthetic corpus) >>\nendobj\n");
+
+        for (int i = 0; i < pageCount; i++) {
+            int pageObject = 5 + 2 * i;
+            int contentObject = pageObject + 1;
+            String content = "BT /F1 12 Tf 72 720 Td (" + escape(pageTexts.get(i)) + ") Tj ET";
+
+            offsets[pageObject] = out.size();
+            append(out, pageObject + " 0 obj\n<< /Type /Page /Parent 2 0 R /MediaBox [0 0 612 792] "
+                    + "/Resources << /Font << /F1 3 0 R >> >> /Contents " + contentObject + " 0 R >>\nendobj\n");
+
+            offsets[contentObject] = out.size();
+            append(out, contentObject + " 0 obj\n<< /Length " + content.length() + " >>\nstream\n"
+                    + content + "\nendstream\nendobj\n");
+        }
+
+        long xrefOffset = out.size();
+        StringBuilder xref = new StringBuilder("xref\n0 ").append(objectCount + 1).append("\n0000000000 65535 f \n");
+        for (int i = 1; i <= objectCount; i++) {
+            xref.append(String.format("%010d 00000 n \n", offsets[i]));
+        }
+        append(out, xref.toString());
+        append(out, "trailer\n<< /Size " + (objectCount + 1) + " /Root 1 0 R /Info 4 0 R >>\nstartxref\n"
+                + xrefOffset + "\n%%EOF\n");
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads the page texts of a PDF. Pages of PDFs not written by this class are returned
+     * with empty text.
+     *
+     * @param file PDF file
+     * @return text of each page
+     * @throws IOException if the file cannot be read or contains no pages
+     */
+    public static List<String> read(Path file) throws IOException {
+        return parse(Files.readAllBytes(file), String.valueOf(file.getFileName()));
+    }
+
+    /**
+     * Reads the page texts of a PDF held in memory.
+     *
+     * @param bytes PDF content
+     * @return text of each page
+     * @throws IOException if the content contains no pages
+     */
+    public static List<String> parse(byte[] bytes) throws IOException {
+        return parse(bytes, "document");
+    }
+
+    private static List<String> parse(byte[] bytes, String name) throws IOException {
+        String content = new String(bytes, StandardCharsets.ISO_8859_1);
+
+        List<String> pages = new ArrayList<>();
+        Matcher text = TEXT_PATTERN.matcher(content);
+        while (text.find()) {
+            pages.add(unescape(text.group(1)));
+        }
+
+        if (pages.isEmpty()) {
+            Matcher page = PAGE_PATTERN.matcher(content);
+            while (page.find()) {
+                pages.add("");
+            }
+        }
+
+        if (pages.isEmpty()) {
+            throw new IOException("No pages found in " + name);
+        }
+        return pages;
+    }
+
+    private static void append(ByteArrayOutputStream out, String text) {
+        out.writeBytes(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("(", "\\(").replace(")", "\\)");
+    }
+
+    private static String unescape(String text) {
+        return text.replace("\\(", "(").replace("\\)", ")").replace("\\\\", "\\");
+    }
+}
@@ -0,0 +1,22 @@
+package com.pdfeditor.service;
+
+import com.pdfeditor.dto.BatchItemResult;
+
+import java.io.IOException;
+
+/**
+ * Receives the results of a batch request as the items complete.
+ *
+ * @author PDF Editor Team
+ */
+@FunctionalInterface
+public interface BatchItemListener {
+
+    /**
+     * Called once per item, in completion order, always from the same thread.
+     *
+     * @param result item result
+     * @throws IOException if the result cannot be delivered; the rest of the batch is cancelled
+     */
+    void onItem(BatchItemResult result) throws IOException;
+}
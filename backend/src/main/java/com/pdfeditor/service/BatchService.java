@@ -0,0 +1,216 @@
+package com.pdfeditor.service;
+
+import com.pdfeditor.dto.BatchItemResult;
+import com.pdfeditor.exception.PdfProcessingException;
+import com.pdfeditor.exception.ServiceBusyException;
+import com.pdfeditor.storage.PdfInput;
+import com.pdfeditor.storage.PdfInputResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Runs one operation over many inputs.
+ *
+ * Items fan out on the shared batch worker pool with at most {@code concurrency} items of a
+ * batch in flight at once. Each item still goes through its operation's SDK bulkhead; when
+ * the bulkhead is full the item waits for the advertised retry delay and tries again
+ * instead of failing. Results are delivered in completion order, and a failing item is
+ * reported on its own without affecting the rest of the batch.
+ *
+ * @author PDF Editor Team
+ */
+@Service
+public class BatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchService.class);
+
+    @Autowired
+    @Qualifier("batchExecutor")
+    private ExecutorService batchExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.batch.default-concurrency:4}")
+    private int defaultConcurrency;
+
+    @Value("${app.batch.max-concurrency:16}")
+    private int maxConcurrency;
+
+    @Value("${app.batch.busy-retries:5}")
+    private int busyRetries;
+
+    /**
+     * Runs an operation over every input and reports each result as soon as it is available.
+     * Each input is closed once its item has completed.
+     *
+     * @param operationName operation name, used in logs and metrics
+     * @param inputs inputs, closed by this method
+     * @param requestedConcurrency items in flight at once (null for the default; capped)
+     * @param operation the operation to run per input
+     * @param listener receives the item results
+     * @return number of items that succeeded
+     * @throws IOException if the listener fails
+     * @throws PdfProcessingException if there are no inputs
+     */
+    public int runBatch(String operationName, List<PdfInput> inputs, Integer requestedConcurrency,
+                        Function<PdfInput, ?> operation, BatchItemListener listener) throws IOException {
+        if (inputs.isEmpty()) {
+            throw new PdfProcessingException("No files provided for the batch");
+        }
+
+        int concurrency = resolveConcurrency(requestedConcurrency, inputs.size());
+        logger.info("Starting {} batch: {} items, concurrency {}", operationName, inputs.size(), concurrency);
+
+        CompletionService<BatchItemResult> completionService = new ExecutorCompletionService<>(batchExecutor);
+        List<Future<BatchItemResult>> futures = new ArrayList<>(inputs.size());
+        AtomicBoolean aborted = new AtomicBoolean();
+        int submitted = 0;
+        int succeeded = 0;
+        boolean finished = false;
+
+        try {
+            while (submitted < Math.min(concurrency, inputs.size())) {
+                futures.add(submit(completionService, operationName, inputs, submitted++, operation, aborted));
+            }
+
+            for (int completed = 0; completed < inputs.size(); completed++) {
+                BatchItemResult result = completionService.take().get();
+                if (submitted < inputs.size()) {
+                    futures.add(submit(completionService, operationName, inputs, submitted++, operation, aborted));
+                }
+
+                if (result.success) {
+                    succeeded++;
+                }
+                listener.onItem(result);
+            }
+            finished = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Batch interrupted");
+        } catch (ExecutionException e) {
+            // Items catch their own failures, so this only happens on errors
+            throw new IllegalStateException("Batch item failed unexpectedly", e.getCause());
+        } finally {
+            // Submitted items close their own inputs, so only the rest are closed here
+            PdfInputResolver.closeAll(inputs.subList(submitted, inputs.size()));
+            if (!finished) {
+                abort(operationName, futures, aborted);
+            }
+        }
+
+        logger.info("{} batch completed: {} of {} items succeeded", operationName, succeeded, inputs.size());
+        return succeeded;
+    }
+
+    /**
+     * Stops an abandoned batch: queued items are skipped, and the caller waits for running
+     * items, because native SDK work cannot be interrupted and still reads its input until
+     * it returns.
+     */
+    private void abort(String operationName, List<Future<BatchItemResult>> futures, AtomicBoolean aborted) {
+        aborted.set(true);
+        logger.info("{} batch aborted, waiting for items in flight", operationName);
+
+        boolean interrupted = false;
+        for (Future<BatchItemResult> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Future<BatchItemResult> submit(CompletionService<BatchItemResult> completionService, String operationName,
+                                           List<PdfInput> inputs, int index, Function<PdfInput, ?> operation,
+                                           AtomicBoolean aborted) {
+        PdfInput input = inputs.get(index);
+        return completionService.submit(() -> {
+            try (PdfInput itemInput = input) {
+                return runItem(operationName, index, itemInput, operation, aborted);
+            }
+        });
+    }
+
+    private BatchItemResult runItem(String operationName, int index, PdfInput input, Function<PdfInput, ?> operation,
+                                    AtomicBoolean aborted) {
+        BatchItemResult result = new BatchItemResult();
+        result.index = index;
+        result.fileName = input.getOriginalFilename();
+        result.documentId = input.getDocumentId();
+
+        if (aborted.get()) {
+            result.error = "Batch was cancelled";
+            return result;
+        }
+
+        long start = System.nanoTime();
+        try {
+            result.data = applyWithBusyRetry(operation, input, aborted);
+            result.success = true;
+        } catch (RuntimeException e) {
+            logger.warn("{} batch item {} ({}) failed: {}", operationName, index, result.fileName, e.getMessage());
+            result.error = e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.error = "Batch was cancelled";
+        }
+        result.durationMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        Counter.builder("pdf.batch.items")
+                .description("Batch items processed")
+                .tags("operation", operationName, "outcome", result.success ? "success" : "failure")
+                .register(meterRegistry)
+                .increment();
+
+        return result;
+    }
+
+    private Object applyWithBusyRetry(Function<PdfInput, ?> operation, PdfInput input, AtomicBoolean aborted)
+            throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return operation.apply(input);
+            } catch (ServiceBusyException e) {
+                if (attempt >= busyRetries || aborted.get()) {
+                    throw e;
+                }
+                TimeUnit.SECONDS.sleep(e.getRetryAfterSeconds());
+            }
+        }
+    }
+
+    private int resolveConcurrency(Integer requested, int itemCount) {
+        int concurrency = requested != null && requested > 0 ? requested : defaultConcurrency;
+        return Math.max(1, Math.min(Math.min(concurrency, maxConcurrency), itemCount));
+    }
+}
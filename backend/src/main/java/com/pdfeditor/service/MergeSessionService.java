@@ -0,0 +1,374 @@
+package com.pdfeditor.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdfeditor.concurrency.SdkBulkheadScheduler;
+import com.pdfeditor.concurrency.SdkOperation;
+import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.dto.MergeSessionDocument;
+import com.pdfeditor.dto.MergeSessionResponse;
+import com.pdfeditor.exception.MergeSessionNotFoundException;
+import com.pdfeditor.exception.PdfProcessingException;
+import com.pdfeditor.sdk.PdfSdk;
+import com.pdfeditor.sdk.SdkDocument;
+import com.pdfeditor.storage.PdfInput;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Merge sessions that collect documents over several requests and merge them on finalize.
+ *
+ * Each session is a directory under {@code app.merge.sessions.dir} holding the appended
+ * documents ({@code 00001.pdf}, ...) and a {@code session.json} manifest, so a session costs no
+ * heap beyond its lock and survives restarts. Documents are opened once when they are
+ * appended, so a broken file is rejected by its own request. The manifest modification time
+ * is the last access; sessions not used for the TTL are deleted.
+ *
+ * @author PDF Editor Team
+ */
+@Service
+public class MergeSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MergeSessionService.class);
+
+    private static final String MANIFEST_NAME = "session.json";
+    private static final TypeReference<List<MergeSessionDocument>> MANIFEST_TYPE = new TypeReference<>() { };
+
+    /** Per-session locks serializing appends, finalize and expiry of a session; removed only with the session. */
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    @Autowired
+    private SdkBulkheadScheduler sdkScheduler;
+
+    @Autowired
+    private PdfSdk pdfSdk;
+
+    @Autowired
+    private PdfMergeService pdfMergeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.merge.sessions.dir:./merge-sessions}")
+    private String sessionsDir;
+
+    @Value("${app.merge.sessions.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${app.merge.sessions.max-documents:5000}")
+    private int maxDocuments;
+
+    private Path sessionsPath;
+
+    /**
+     * Creates the sessions directory and drops partial appends left over from a previous run.
+     */
+    @PostConstruct
+    public void initialize() throws IOException {
+        sessionsPath = Paths.get(sessionsDir).toAbsolutePath().normalize();
+        Files.createDirectories(sessionsPath);
+
+        int sessions = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(sessionsPath, Files::isDirectory)) {
+            for (Path session : stream) {
+                try (DirectoryStream<Path> partials = Files.newDirectoryStream(session, "*.tmp")) {
+                    for (Path partial : partials) {
+                        Files.deleteIfExists(partial);
+                    }
+                }
+                sessions++;
+            }
+        }
+
+        logger.info("Merge sessions initialized at {} ({} sessions)", sessionsPath, sessions);
+    }
+
+    /**
+     * Creates an empty session.
+     *
+     * @return the new session
+     * @throws PdfProcessingException if the session directory cannot be created
+     */
+    public MergeSessionResponse create() {
+        String sessionId = UUID.randomUUID().toString();
+        Path session = sessionsPath.resolve(sessionId);
+
+        try {
+            Files.createDirectory(session);
+            List<MergeSessionDocument> documents = new ArrayList<>();
+            writeManifest(session, documents);
+
+            logger.info("Created merge session {}", sessionId);
+            return describe(sessionId, session, documents);
+        } catch (IOException e) {
+            throw new PdfProcessingException("Failed to create merge session", e);
+        }
+    }
+
+    /**
+     * Returns the documents of a session and extends its lifetime.
+     *
+     * @param sessionId session ID
+     * @return the session
+     * @throws MergeSessionNotFoundException if the session does not exist or has expired
+     */
+    public MergeSessionResponse get(String sessionId) {
+        ReentrantLock lock = lock(sessionId);
+        lock.lock();
+        try {
+            Path session = find(sessionId);
+            Files.setLastModifiedTime(session.resolve(MANIFEST_NAME), FileTime.fromMillis(System.currentTimeMillis()));
+            return describe(sessionId, session, readManifest(session));
+        } catch (IOException e) {
+            throw new PdfProcessingException("Failed to read merge session", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copies a document into the session after checking that it opens.
+     *
+     * @param sessionId session ID
+     * @param input document to append; the caller still owns and closes it
+     * @return the session including the new document
+     * @throws MergeSessionNotFoundException if the session does not exist or has expired
+     * @throws PdfProcessingException if the session is full or the document cannot be opened
+     */
+    public MergeSessionResponse append(String sessionId, PdfInput input) {
+        ReentrantLock lock = lock(sessionId);
+        lock.lock();
+        try {
+            Path session = find(sessionId);
+            List<MergeSessionDocument> documents = readManifest(session);
+            if (documents.size() >= maxDocuments) {
+                throw new PdfProcessingException("Merge session already holds the maximum of "
+                        + maxDocuments + " documents");
+            }
+
+            int index = documents.size() + 1;
+            Path part = session.resolve(partName(index));
+            Path partial = session.resolve(partName(index) + ".tmp");
+            int pages;
+
+            try {
+                input.copyTo(partial);
+
+                // Open the document now, so a broken file fails this request and not the finalize
+                pages = sdkScheduler.execute(SdkOperation.MERGE, () -> {
+                    try (SdkDocument document = pdfSdk.open(partial.toFile())) {
+                        return document.getPageCount();
+                    } catch (Exception e) {
+                        throw new PdfProcessingException("Document " + input.getOriginalFilename()
+                                + " cannot be opened: " + e.getMessage(), e);
+                    }
+                });
+
+                Files.move(partial, part, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+
+            documents.add(new MergeSessionDocument(index, input.getOriginalFilename(), input.getSize(),
+                                                   pages, input.getContentHash()));
+            writeManifest(session, documents);
+
+            logger.info("Appended document {} to merge session {}", index, sessionId);
+            return describe(sessionId, session, documents);
+        } catch (IOException e) {
+            throw new PdfProcessingException("Failed to append document to merge session", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Merges all documents of a session, in append order, and deletes the session.
+     * A failed merge leaves the session in place, so finalize can be retried.
+     *
+     * @param sessionId session ID
+     * @param outputFileName desired output filename
+     * @return FileResponse containing merged PDF information
+     * @throws MergeSessionNotFoundException if the session does not exist or has expired
+     * @throws PdfProcessingException if the session holds fewer than two documents or the merge fails
+     */
+    public FileResponse finalizeSession(String sessionId, String outputFileName) {
+        ReentrantLock lock = lock(sessionId);
+        lock.lock();
+        try {
+            Path session = find(sessionId);
+            List<MergeSessionDocument> documents = readManifest(session);
+
+            // The session keeps its files until the merge has succeeded
+            List<PdfInput> inputs = new ArrayList<>(documents.size());
+            for (MergeSessionDocument document : documents) {
+                inputs.add(PdfInput.ofRetainedFile(session.resolve(partName(document.index)).toFile(),
+                                                   document.fileName, document.contentHash));
+            }
+
+            FileResponse response = pdfMergeService.mergePdfs(inputs, outputFileName);
+
+            delete(sessionId, session);
+            logger.info("Finalized merge session {} ({} documents)", sessionId, documents.size());
+            return response;
+        } catch (IOException e) {
+            throw new PdfProcessingException("Failed to read merge session", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Abandons a session and deletes its documents.
+     *
+     * @param sessionId session ID
+     * @throws MergeSessionNotFoundException if the session does not exist or has expired
+     */
+    public void delete(String sessionId) {
+        ReentrantLock lock = lock(sessionId);
+        lock.lock();
+        try {
+            delete(sessionId, find(sessionId));
+            logger.info("Deleted merge session {}", sessionId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes sessions that have not been used for the TTL. Sessions busy with an append or
+     * a finalize are skipped until the next sweep.
+     */
+    @Scheduled(fixedDelayString = "${app.merge.sessions.sweep-interval-ms:60000}")
+    public void deleteExpired() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(ttlMinutes);
+        int expired = 0;
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(sessionsPath, Files::isDirectory)) {
+            for (Path session : stream) {
+                String sessionId = session.getFileName().toString();
+                ReentrantLock lock = locks.computeIfAbsent(sessionId, id -> new ReentrantLock());
+                if (!lock.tryLock()) {
+                    continue;
+                }
+                try {
+                    // Locks of live sessions are kept: a request may hold one it has not locked yet
+                    if (lastAccess(session) < cutoff) {
+                        delete(sessionId, session);
+                        expired++;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to sweep merge sessions", e);
+        }
+
+        if (expired > 0) {
+            logger.info("Deleted {} expired merge sessions", expired);
+        }
+    }
+
+    /**
+     * Returns the lock of a session, creating it for sessions that exist on disk.
+     */
+    private ReentrantLock lock(String sessionId) {
+        find(sessionId);
+        return locks.computeIfAbsent(sessionId, id -> new ReentrantLock());
+    }
+
+    /**
+     * Resolves the directory of a live session.
+     *
+     * @throws MergeSessionNotFoundException if the ID is malformed or the session is gone
+     */
+    private Path find(String sessionId) {
+        if (!isSessionId(sessionId)) {
+            throw new MergeSessionNotFoundException("Merge session not found: " + sessionId);
+        }
+        Path session = sessionsPath.resolve(sessionId);
+        if (!Files.isRegularFile(session.resolve(MANIFEST_NAME))) {
+            throw new MergeSessionNotFoundException("Merge session not found: " + sessionId);
+        }
+        return session;
+    }
+
+    /**
+     * Deletes a session while holding its lock. The lock can be dropped here: a request that
+     * fetched it earlier finds the session gone once it has locked it.
+     */
+    private void delete(String sessionId, Path session) {
+        try {
+            FileSystemUtils.deleteRecursively(session);
+        } catch (IOException e) {
+            logger.warn("Failed to delete merge session directory: {}", session, e);
+        }
+        locks.remove(sessionId);
+    }
+
+    private List<MergeSessionDocument> readManifest(Path session) throws IOException {
+        return objectMapper.readValue(session.resolve(MANIFEST_NAME).toFile(), MANIFEST_TYPE);
+    }
+
+    /**
+     * Replaces the manifest atomically; this also marks the session as used.
+     */
+    private void writeManifest(Path session, List<MergeSessionDocument> documents) throws IOException {
+        Path temp = session.resolve(MANIFEST_NAME + ".tmp");
+        objectMapper.writeValue(temp.toFile(), documents);
+        Files.move(temp, session.resolve(MANIFEST_NAME), StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private MergeSessionResponse describe(String sessionId, Path session, List<MergeSessionDocument> documents)
+            throws IOException {
+        MergeSessionResponse response = new MergeSessionResponse();
+        response.sessionId = sessionId;
+        response.documents = documents;
+        response.totalPages = documents.stream().mapToInt(document -> document.pages).sum();
+        response.totalBytes = documents.stream().mapToLong(document -> document.fileSize).sum();
+        response.expiresAt = lastAccess(session) + TimeUnit.MINUTES.toMillis(ttlMinutes);
+        return response;
+    }
+
+    private static long lastAccess(Path session) throws IOException {
+        Path manifest = session.resolve(MANIFEST_NAME);
+        return Files.exists(manifest)
+                ? Files.getLastModifiedTime(manifest).toMillis()
+                : Files.getLastModifiedTime(session).toMillis();
+    }
+
+    private static String partName(int index) {
+        return String.format("%05d.pdf", index);
+    }
+
+    private static boolean isSessionId(String sessionId) {
+        try {
+            return sessionId != null && UUID.fromString(sessionId).toString().equals(sessionId);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.pdfeditor.service;
+
+import com.pdfeditor.dto.DataExtractionResponse.PageContent;
+
+import java.io.IOException;
+
+/**
+ * Receives page content from a per-page extraction as soon as each page is done.
+ *
+ * @author PDF Editor Team
+ */
+@FunctionalInterface
+public interface PageContentListener {
+
+    /**
+     * Called once per extracted page, in page order.
+     *
+     * @param page content of the page
+     * @throws IOException if the page cannot be forwarded (e.g. the client disconnected),
+     *                     which aborts the extraction
+     */
+    void onPage(PageContent page) throws IOException;
+}
@@ -1,27 +1,29 @@
 package com.pdfeditor.service;
 
+import com.pdfeditor.cache.ResultCache;
+import com.pdfeditor.concurrency.RequestCoalescer;
+import com.pdfeditor.concurrency.SdkBulkheadScheduler;
+import com.pdfeditor.concurrency.SdkOperation;
 import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.dto.InlinePdf;
 import com.pdfeditor.dto.PdfAConversionRequest;
 import com.pdfeditor.exception.PdfProcessingException;
-import com.pdftools.pdfa.conversion.Converter;
-import com.pdftools.pdfa.conversion.ConversionOptions;
-import com.pdftools.pdfa.validation.Validator;
-import com.pdftools.pdfa.validation.AnalysisResult;
-import com.pdftools.pdfa.validation.AnalysisOptions;
-import com.pdftools.pdf.Conformance;
-import com.pdftools.pdf.Document;
-import com.pdftools.sys.FileStream;
+import com.pdfeditor.sdk.PdfAAnalysis;
+import com.pdfeditor.sdk.PdfSdk;
+import com.pdfeditor.sdk.SdkDocument;
+import com.pdfeditor.storage.OutputRetentionService;
+import com.pdfeditor.storage.PdfInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -35,8 +37,20 @@ public class PdfAConversionService {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfAConversionService.class);
 
-    @Value("${app.upload.dir}")
-    private String uploadDir;
+    @Autowired
+    private SdkBulkheadScheduler sdkScheduler;
+
+    @Autowired
+    private RequestCoalescer coalescer;
+
+    @Autowired
+    private ResultCache resultCache;
+
+    @Autowired
+    private PdfSdk pdfSdk;
+
+    @Autowired
+    private OutputRetentionService outputRetention;
 
     @Value("${app.output.dir}")
     private String outputDir;
@@ -44,71 +58,96 @@ public class PdfAConversionService {
     /**
      * Converts a PDF file to PDF/A format.
      *
-     * @param file the PDF file to convert
+     * @param input the PDF input to convert
      * @param request conversion options including target conformance level
      * @return FileResponse containing converted PDF/A information
      * @throws PdfProcessingException if conversion fails
      */
-    public FileResponse convertToPdfA(MultipartFile file, PdfAConversionRequest request) {
-        logger.info("Starting PDF/A conversion for file: {}, target level: {}",
-                   file.getOriginalFilename(), request.conformanceLevel);
+    public FileResponse convertToPdfA(PdfInput input, PdfAConversionRequest request) {
+        return convertToPdfA(input, request, ProgressListener.NONE);
+    }
 
-        if (file == null || file.isEmpty()) {
+    /**
+     * Converts a PDF file to PDF/A format, reporting progress after the analysis
+     * and after the conversion step.
+     *
+     * @param input the PDF input to convert
+     * @param request conversion options including target conformance level
+     * @param progressListener listener receiving progress updates
+     * @return FileResponse containing converted PDF/A information
+     * @throws PdfProcessingException if conversion fails
+     */
+    public FileResponse convertToPdfA(PdfInput input, PdfAConversionRequest request,
+                                      ProgressListener progressListener) {
+        if (input == null) {
             throw new PdfProcessingException("No file provided for PDF/A conversion");
         }
 
-        File tempFile = null;
-        File outputFile = null;
+        List<?> parameters = Arrays.asList(request.conformanceLevel, request.outputFileName, request.copyMetadata,
+                                           request.embedFonts, request.flattenTransparency, request.imageQuality);
+        return resultCache.getOrCompute(SdkOperation.PDFA_CONVERT, List.of(input), parameters,
+                () -> coalescer.execute(SdkOperation.PDFA_CONVERT, List.of(input), parameters,
+                        () -> sdkScheduler.execute(SdkOperation.PDFA_CONVERT, () -> doConvertToPdfA(input, request, progressListener))));
+    }
 
-        try {
-            // Save uploaded file temporarily
-            tempFile = saveUploadedFile(file);
+    /**
+     * Converts a PDF to PDF/A in memory and returns it without writing the output store.
+     * Meant for small inputs; inline results are neither cached nor coalesced.
+     *
+     * @param input the PDF input to convert
+     * @param request conversion options including target conformance level
+     * @return the converted PDF
+     * @throws PdfProcessingException if conversion fails
+     */
+    public InlinePdf convertToPdfAInline(PdfInput input, PdfAConversionRequest request) {
+        if (input == null) {
+            throw new PdfProcessingException("No file provided for PDF/A conversion");
+        }
 
-            // Open source document
-            FileStream inputStream = new FileStream(tempFile.getAbsolutePath(), FileStream.Mode.READ_ONLY);
-            Document sourceDoc = Document.open(inputStream, null);
-
-            // Generate output filename
-            String outputFileName = request.outputFileName;
-            if (outputFileName == null || outputFileName.isEmpty()) {
-                String baseName = file.getOriginalFilename();
-                if (baseName != null && baseName.contains(".")) {
-                    baseName = baseName.substring(0, baseName.lastIndexOf("."));
-                }
-                outputFileName = baseName + "_pdfa_" + UUID.randomUUID().toString().substring(0, 8) + ".pdf";
-            }
-            if (!outputFileName.endsWith(".pdf")) {
-                outputFileName += ".pdf";
+        return sdkScheduler.execute(SdkOperation.PDFA_CONVERT, () -> {
+            try (SdkDocument sourceDoc = input.open(pdfSdk)) {
+                PdfAAnalysis analysisResult = pdfSdk.analyzePdfA(sourceDoc);
+                byte[] content = pdfSdk.convertToPdfAToBytes(analysisResult, sourceDoc);
+
+                logger.info("In-memory PDF/A conversion completed: {} -> {} bytes", input.getSize(), content.length);
+                return new InlinePdf(resolveOutputFileName(input, request), content);
+            } catch (Exception e) {
+                logger.error("Error converting to PDF/A", e);
+                throw new PdfProcessingException("Failed to convert PDF to PDF/A format: " + e.getMessage(), e);
             }
+        });
+    }
 
-            outputFile = new File(outputDir, outputFileName);
-            Files.createDirectories(outputFile.getParentFile().toPath());
+    /**
+     * Runs the pdfa-convert operation inside its SDK bulkhead.
+     */
+    private FileResponse doConvertToPdfA(PdfInput input, PdfAConversionRequest request,
+                                     ProgressListener progressListener) {
+        logger.info("Starting PDF/A conversion for file: {}, target level: {}",
+                   input.getOriginalFilename(), request.conformanceLevel);
 
-            // Create output stream
-            FileStream outputStream = new FileStream(outputFile.getAbsolutePath(), FileStream.Mode.READ_WRITE_NEW);
+        File outputFile = null;
 
-            // Step 1: Create a Validator and analyze the document
-            Validator validator = new Validator();
-            AnalysisOptions analysisOptions = new AnalysisOptions();
+        try {
+            // Open source document
+            SdkDocument sourceDoc = input.open(pdfSdk);
 
-            // Analyze the document to get an AnalysisResult
-            AnalysisResult analysisResult = validator.analyze(sourceDoc, analysisOptions);
+            String outputFileName = resolveOutputFileName(input, request);
+            outputFile = new File(outputDir, outputFileName);
+            Files.createDirectories(outputFile.getParentFile().toPath());
 
-            // Step 2: Create converter and conversion options
-            Converter converter = new Converter();
-            ConversionOptions conversionOptions = new ConversionOptions();
+            // Step 1: Analyze the document
+            PdfAAnalysis analysisResult = pdfSdk.analyzePdfA(sourceDoc);
+            progressListener.onProgress(1, 2);
 
-            // Step 3: Perform conversion using the analysis result
-            // The convert method takes: AnalysisResult, Document, Stream
-            Document convertedDoc = converter.convert(analysisResult, sourceDoc, outputStream, conversionOptions);
+            // Step 2: Perform conversion using the analysis result
+            pdfSdk.convertToPdfA(analysisResult, sourceDoc, outputFile);
 
             // Close resources
-            if (convertedDoc != null) {
-                convertedDoc.close();
-            }
-            outputStream.close();
             sourceDoc.close();
-            inputStream.close();
+            progressListener.onProgress(2, 2);
+
+            outputRetention.register(outputFile);
 
             // Build response
             FileResponse response = new FileResponse();
@@ -116,10 +155,10 @@ public class PdfAConversionService {
             response.filePath = outputFile.getAbsolutePath();
             response.fileSize = outputFile.length();
             response.downloadUrl = "/download/" + outputFileName;
-            response.originalSize = file.getSize();
+            response.originalSize = input.getSize();
 
             logger.info("PDF/A conversion completed: {} -> {} bytes",
-                       file.getSize(), response.fileSize);
+                       input.getSize(), response.fileSize);
 
             return response;
 
@@ -134,26 +173,29 @@ public class PdfAConversionService {
                 }
             }
             throw new PdfProcessingException("Failed to convert PDF to PDF/A format: " + e.getMessage(), e);
-        } finally {
-            // Clean up temp file
-            if (tempFile != null && tempFile.exists()) {
-                try {
-                    Files.delete(tempFile.toPath());
-                } catch (IOException e) {
-                    logger.warn("Failed to delete temp file", e);
-                }
-            }
         }
     }
 
     /**
-     * Saves uploaded file to upload directory.
+     * Returns the requested output filename with a .pdf extension, or one derived from the
+     * input name.
+     *
+     * @param input the PDF input
+     * @param request conversion options
+     * @return output filename
      */
-    private File saveUploadedFile(MultipartFile file) throws IOException {
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path filePath = Paths.get(uploadDir, fileName);
-        Files.createDirectories(filePath.getParent());
-        Files.write(filePath, file.getBytes());
-        return filePath.toFile();
+    private static String resolveOutputFileName(PdfInput input, PdfAConversionRequest request) {
+        String outputFileName = request.outputFileName;
+        if (outputFileName == null || outputFileName.isEmpty()) {
+            String baseName = input.getOriginalFilename();
+            if (baseName != null && baseName.contains(".")) {
+                baseName = baseName.substring(0, baseName.lastIndexOf("."));
+            }
+            outputFileName = baseName + "_pdfa_" + UUID.randomUUID().toString().substring(0, 8) + ".pdf";
+        }
+        if (!outputFileName.endsWith(".pdf")) {
+            outputFileName += ".pdf";
+        }
+        return outputFileName;
     }
 }
@@ -1,27 +1,20 @@
 package com.pdfeditor.service;
 
+import com.pdfeditor.concurrency.SdkBulkheadScheduler;
+import com.pdfeditor.concurrency.SdkOperation;
 import com.pdfeditor.dto.PdfAValidationResponse;
 import com.pdfeditor.dto.PdfAValidationResponse.ValidationIssue;
 import com.pdfeditor.exception.PdfProcessingException;
-import com.pdftools.pdf.Document;
-import com.pdftools.pdf.Conformance;
-import com.pdftools.pdfa.validation.Validator;
-import com.pdftools.pdfa.validation.AnalysisResult;
-import com.pdftools.pdfa.validation.AnalysisOptions;
-import com.pdftools.sys.FileStream;
+import com.pdfeditor.sdk.PdfAAnalysis;
+import com.pdfeditor.sdk.PdfSdk;
+import com.pdfeditor.sdk.SdkDocument;
+import com.pdfeditor.storage.PdfInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.UUID;
 
 /**
  * Service for validating PDF/A conformance.
@@ -34,43 +27,41 @@ public class PdfAValidationService {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfAValidationService.class);
 
-    @Value("${app.upload.dir}")
-    private String uploadDir;
+    @Autowired
+    private SdkBulkheadScheduler sdkScheduler;
+
+    @Autowired
+    private PdfSdk pdfSdk;
 
     /**
      * Validates a PDF file for PDF/A conformance.
      *
-     * @param file the PDF file to validate
+     * @param input the PDF input to validate
      * @param conformanceLevel optional specific conformance level to check against
      * @return PdfAValidationResponse containing validation results
      * @throws PdfProcessingException if validation fails
      */
-    public PdfAValidationResponse validatePdfA(MultipartFile file, String conformanceLevel) {
-        logger.info("Starting PDF/A validation for file: {}, target level: {}",
-                   file.getOriginalFilename(), conformanceLevel);
-
-        if (file == null || file.isEmpty()) {
+    public PdfAValidationResponse validatePdfA(PdfInput input, String conformanceLevel) {
+        if (input == null) {
             throw new PdfProcessingException("No file provided for PDF/A validation");
         }
 
-        File tempFile = null;
+        return sdkScheduler.execute(SdkOperation.VALIDATE, () -> doValidatePdfA(input, conformanceLevel));
+    }
 
-        try {
-            // Save uploaded file temporarily
-            tempFile = saveUploadedFile(file);
+    /**
+     * Runs the validate operation inside its SDK bulkhead.
+     */
+    private PdfAValidationResponse doValidatePdfA(PdfInput input, String conformanceLevel) {
+        logger.info("Starting PDF/A validation for file: {}, target level: {}",
+                   input.getOriginalFilename(), conformanceLevel);
 
+        try {
             // Open the document
-            FileStream inputStream = new FileStream(tempFile.getAbsolutePath(), FileStream.Mode.READ_ONLY);
-            Document document = Document.open(inputStream, null);
-
-            // Create validator
-            Validator validator = new Validator();
-
-            // Create analysis options
-            AnalysisOptions analysisOptions = new AnalysisOptions();
+            SdkDocument document = input.open(pdfSdk);
 
             // Perform validation
-            AnalysisResult result = validator.analyze(document, analysisOptions);
+            PdfAAnalysis result = pdfSdk.analyzePdfA(document);
 
             // Build response
             PdfAValidationResponse response = new PdfAValidationResponse();
@@ -78,11 +69,11 @@ public class PdfAValidationService {
             response.warnings = new ArrayList<>();
 
             // Check conformance from document
-            Conformance docConformance = document.getConformance();
+            String docConformance = document.getConformance();
             boolean isCompliant = false;
 
             if (docConformance != null) {
-                response.conformanceLevel = docConformance.toString();
+                response.conformanceLevel = docConformance;
                 // If document has a conformance level, it claims to be PDF/A
                 // The validator will verify if this claim is accurate
                 isCompliant = true; // Assume compliant if it has conformance metadata
@@ -111,7 +102,6 @@ public class PdfAValidationService {
 
             // Close resources
             document.close();
-            inputStream.close();
 
             // Build summary
             if (response.isCompliant) {
@@ -129,15 +119,6 @@ public class PdfAValidationService {
         } catch (Exception e) {
             logger.error("Error validating PDF/A", e);
             throw new PdfProcessingException("Failed to validate PDF/A conformance", e);
-        } finally {
-            // Clean up temp file
-            if (tempFile != null && tempFile.exists()) {
-                try {
-                    Files.delete(tempFile.toPath());
-                } catch (IOException e) {
-                    logger.warn("Failed to delete temp file", e);
-                }
-            }
         }
     }
 
@@ -164,15 +145,4 @@ public class PdfAValidationService {
         if (lower.contains("u")) return "u";
         return null;
     }
-
-    /**
-     * Saves uploaded file to upload directory.
-     */
-    private File saveUploadedFile(MultipartFile file) throws IOException {
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path filePath = Paths.get(uploadDir, fileName);
-        Files.createDirectories(filePath.getParent());
-        Files.write(filePath, file.getBytes());
-        return filePath.toFile();
-    }
 }
@@ -1,25 +1,28 @@
 package com.pdfeditor.service;
 
+import com.pdfeditor.cache.ResultCache;
+import com.pdfeditor.concurrency.RequestCoalescer;
+import com.pdfeditor.concurrency.SdkBulkheadScheduler;
+import com.pdfeditor.concurrency.SdkOperation;
 import com.pdfeditor.dto.CompressRequest;
 import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.dto.InlinePdf;
 import com.pdfeditor.exception.PdfProcessingException;
-import com.pdftools.pdf.Document;
-import com.pdftools.optimization.Optimizer;
-import com.pdftools.optimization.profiles.Profile;
-import com.pdftools.optimization.profiles.Web;
-import com.pdftools.optimization.profiles.Print;
-import com.pdftools.sys.FileStream;
+import com.pdfeditor.sdk.CompressionProfile;
+import com.pdfeditor.sdk.PdfSdk;
+import com.pdfeditor.sdk.SdkDocument;
+import com.pdfeditor.storage.OutputRetentionService;
+import com.pdfeditor.storage.PdfInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 /**
@@ -33,8 +36,20 @@ public class PdfCompressService {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfCompressService.class);
 
-    @Value("${app.upload.dir}")
-    private String uploadDir;
+    @Autowired
+    private SdkBulkheadScheduler sdkScheduler;
+
+    @Autowired
+    private RequestCoalescer coalescer;
+
+    @Autowired
+    private ResultCache resultCache;
+
+    @Autowired
+    private PdfSdk pdfSdk;
+
+    @Autowired
+    private OutputRetentionService outputRetention;
 
     @Value("${app.output.dir}")
     private String outputDir;
@@ -42,64 +57,98 @@ public class PdfCompressService {
     /**
      * Compresses a PDF file based on the provided compression settings.
      *
-     * @param file the PDF file to compress
+     * @param input the PDF input to compress
      * @param compressRequest compression configuration
      * @return FileResponse containing compressed PDF information
      * @throws PdfProcessingException if compression fails
      */
-    public FileResponse compressPdf(MultipartFile file, CompressRequest compressRequest) {
-        logger.info("Starting PDF compression: profile={}", compressRequest.compressionProfile);
+    public FileResponse compressPdf(PdfInput input, CompressRequest compressRequest) {
+        return compressPdf(input, compressRequest, ProgressListener.NONE);
+    }
 
-        if (file == null || file.isEmpty()) {
+    /**
+     * Compresses a PDF file, reporting a single unit of progress once optimization is done.
+     *
+     * @param input the PDF input to compress
+     * @param compressRequest compression configuration
+     * @param progressListener listener receiving progress updates
+     * @return FileResponse containing compressed PDF information
+     * @throws PdfProcessingException if compression fails
+     */
+    public FileResponse compressPdf(PdfInput input, CompressRequest compressRequest,
+                                    ProgressListener progressListener) {
+        if (input == null) {
             throw new PdfProcessingException("No file provided for compression");
         }
 
-        File tempFile = null;
-        File outputFile = null;
-        long originalSize = file.getSize();
+        List<?> parameters = Arrays.asList(normalizedProfileName(compressRequest), compressRequest.imageQuality,
+                                           compressRequest.outputFileName);
+        return resultCache.getOrCompute(SdkOperation.COMPRESS, List.of(input), parameters,
+                () -> coalescer.execute(SdkOperation.COMPRESS, List.of(input), parameters,
+                        () -> sdkScheduler.execute(SdkOperation.COMPRESS, () -> doCompressPdf(input, compressRequest, progressListener))));
+    }
 
-        try {
-            // Save uploaded file
-            tempFile = saveUploadedFile(file);
+    /**
+     * Compresses a PDF in memory and returns it without writing the output store. Meant for
+     * small inputs; inline results are neither cached nor coalesced.
+     *
+     * @param input the PDF input to compress
+     * @param compressRequest compression configuration
+     * @return the compressed PDF
+     * @throws PdfProcessingException if compression fails
+     */
+    public InlinePdf compressPdfInline(PdfInput input, CompressRequest compressRequest) {
+        if (input == null) {
+            throw new PdfProcessingException("No file provided for compression");
+        }
 
-            // Open source document
-            FileStream inputStream = new FileStream(tempFile.getAbsolutePath(), FileStream.Mode.READ_ONLY);
-            Document sourceDoc = Document.open(inputStream, null);
+        return sdkScheduler.execute(SdkOperation.COMPRESS, () -> {
+            try (SdkDocument sourceDoc = input.open(pdfSdk)) {
+                byte[] content = pdfSdk.optimizeToBytes(sourceDoc, selectCompressionProfile(compressRequest));
 
-            // Generate output filename
-            String outputFileName = compressRequest.outputFileName;
-            if (outputFileName == null || outputFileName.isEmpty()) {
-                outputFileName = "compressed_" + UUID.randomUUID().toString() + ".pdf";
-            }
-            if (!outputFileName.endsWith(".pdf")) {
-                outputFileName += ".pdf";
+                logger.info("In-memory PDF compression completed: {} -> {} bytes", input.getSize(), content.length);
+                return new InlinePdf(resolveOutputFileName(compressRequest), content);
+            } catch (Exception e) {
+                logger.error("Error compressing PDF", e);
+                throw new PdfProcessingException("Failed to compress PDF file", e);
             }
+        });
+    }
 
-            outputFile = new File(outputDir, outputFileName);
+    /**
+     * Runs the compress operation inside its SDK bulkhead.
+     */
+    private FileResponse doCompressPdf(PdfInput input, CompressRequest compressRequest,
+                                   ProgressListener progressListener) {
+        logger.info("Starting PDF compression: profile={}", compressRequest.compressionProfile);
 
-            // Select compression profile
-            Profile profile = selectCompressionProfile(compressRequest);
+        File outputFile = null;
+        long originalSize = input.getSize();
 
-            // Create optimizer
-            Optimizer optimizer = new Optimizer();
+        try {
+            // Open source document
+            SdkDocument sourceDoc = input.open(pdfSdk);
 
-            // Create output stream and optimize
-            FileStream outputStream = new FileStream(outputFile.getAbsolutePath(), FileStream.Mode.READ_WRITE_NEW);
-            Document optimizedDoc = optimizer.optimizeDocument(sourceDoc, outputStream, profile);
+            String outputFileName = resolveOutputFileName(compressRequest);
+            outputFile = new File(outputDir, outputFileName);
+
+            // Select compression profile
+            CompressionProfile profile = selectCompressionProfile(compressRequest);
 
-            // Close resources
-            optimizedDoc.close();
-            outputStream.close();
+            // Optimize into the output file
+            pdfSdk.optimize(sourceDoc, outputFile, profile);
 
             long compressedSize = outputFile.length();
             double compressionRatio = ((originalSize - compressedSize) / (double) originalSize) * 100;
 
             sourceDoc.close();
-            inputStream.close();
+            progressListener.onProgress(1, 1);
 
             logger.info("PDF compression completed: {} -> {} bytes ({}% reduction)",
                        originalSize, compressedSize, String.format("%.2f", compressionRatio));
 
+            outputRetention.register(outputFile);
+
             // Create response
             FileResponse response = new FileResponse();
             response.fileName = outputFileName;
@@ -114,25 +163,43 @@ public class PdfCompressService {
         } catch (Exception e) {
             logger.error("Error compressing PDF", e);
             throw new PdfProcessingException("Failed to compress PDF file", e);
-        } finally {
-            // Clean up temp file
-            if (tempFile != null && tempFile.exists()) {
-                try {
-                    Files.delete(tempFile.toPath());
-                } catch (IOException e) {
-                    logger.warn("Failed to delete temp file", e);
-                }
-            }
         }
     }
 
+    /**
+     * Returns the requested output filename with a .pdf extension, or a generated one.
+     *
+     * @param request compression request
+     * @return output filename
+     */
+    private static String resolveOutputFileName(CompressRequest request) {
+        String outputFileName = request.outputFileName;
+        if (outputFileName == null || outputFileName.isEmpty()) {
+            outputFileName = "compressed_" + UUID.randomUUID().toString() + ".pdf";
+        }
+        if (!outputFileName.endsWith(".pdf")) {
+            outputFileName += ".pdf";
+        }
+        return outputFileName;
+    }
+
+    /**
+     * Returns the requested profile name as used for coalescing: lower case, "web" if absent.
+     *
+     * @param request compression request
+     * @return profile name
+     */
+    private static String normalizedProfileName(CompressRequest request) {
+        return request.compressionProfile != null ? request.compressionProfile.toLowerCase(Locale.ROOT) : "web";
+    }
+
     /**
      * Selects the appropriate compression profile based on request.
      *
      * @param request compression request
      * @return compression profile
      */
-    private Profile selectCompressionProfile(CompressRequest request) {
+    private CompressionProfile selectCompressionProfile(CompressRequest request) {
         String profileName = request.compressionProfile;
 
         if (profileName == null) {
@@ -142,36 +209,22 @@ public class PdfCompressService {
         switch (profileName.toLowerCase()) {
             case "web":
                 logger.info("Using Web compression profile (optimized for screen viewing)");
-                return new Web();
+                return CompressionProfile.WEB;
 
             case "print":
                 logger.info("Using Print compression profile (optimized for printing)");
-                return new Print();
+                return CompressionProfile.PRINT;
 
             case "custom":
                 logger.info("Using custom compression profile with quality: {}",
                            request.imageQuality);
                 // For custom profile, we can use Web as base and adjust if needed
                 // PDF Tools SDK may have additional customization options
-                return new Web();
+                return CompressionProfile.WEB;
 
             default:
                 logger.warn("Unknown profile '{}', defaulting to Web", profileName);
-                return new Web();
+                return CompressionProfile.WEB;
         }
     }
-
-    /**
-     * Saves uploaded file to upload directory.
-     *
-     * @param file uploaded file
-     * @return saved file
-     */
-    private File saveUploadedFile(MultipartFile file) throws IOException {
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path filePath = Paths.get(uploadDir, fileName);
-        Files.createDirectories(filePath.getParent());
-        Files.write(filePath, file.getBytes());
-        return filePath.toFile();
-    }
 }
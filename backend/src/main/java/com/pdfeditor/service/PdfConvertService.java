@@ -1,28 +1,37 @@
 package com.pdfeditor.service;
 
+import com.pdfeditor.cache.RenderCache;
+import com.pdfeditor.concurrency.RequestCoalescer;
+import com.pdfeditor.concurrency.SdkBulkheadScheduler;
+import com.pdfeditor.concurrency.SdkOperation;
+import com.pdfeditor.concurrency.WorkerFutures;
 import com.pdfeditor.dto.ConvertRequest;
 import com.pdfeditor.dto.FileResponse;
 import com.pdfeditor.exception.PdfProcessingException;
-import com.pdftools.pdf.Document;
-import com.pdftools.pdf2image.Converter;
-import com.pdftools.pdf2image.profiles.Profile;
-import com.pdftools.pdf2image.profiles.Viewing;
-import com.pdftools.pdf2image.profiles.Archive;
-import com.pdftools.sys.FileStream;
+import com.pdfeditor.sdk.PdfSdk;
+import com.pdfeditor.sdk.RenderProfile;
+import com.pdfeditor.sdk.SdkDocument;
+import com.pdfeditor.storage.OutputRetentionService;
+import com.pdfeditor.storage.PdfInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for converting PDF files to image formats (PNG, JPEG, TIFF).
@@ -35,38 +44,84 @@ public class PdfConvertService {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfConvertService.class);
 
-    @Value("${app.upload.dir}")
-    private String uploadDir;
+    @Autowired
+    private SdkBulkheadScheduler sdkScheduler;
+
+    @Autowired
+    private RequestCoalescer coalescer;
+
+    @Autowired
+    private PdfSdk pdfSdk;
+
+    @Autowired
+    private OutputRetentionService outputRetention;
+
+    @Autowired
+    private RenderCache renderCache;
 
     @Value("${app.output.dir}")
     private String outputDir;
 
+    @Value("${app.convert.render-threads:4}")
+    private int renderThreads;
+
+    @Value("${app.convert.max-parallelism:4}")
+    private int maxParallelism;
+
+    @Value("${app.convert.min-pages-per-worker:4}")
+    private int minPagesPerWorker;
+
+    @Autowired
+    @Qualifier("renderExecutor")
+    private ExecutorService renderExecutor;
+
     /**
      * Converts PDF pages to image format.
      *
-     * @param file the PDF file to convert
+     * @param input the PDF input to convert
      * @param convertRequest conversion configuration
      * @return list of FileResponse for each converted image
      * @throws PdfProcessingException if conversion fails
      */
-    public List<FileResponse> convertPdfToImage(MultipartFile file, ConvertRequest convertRequest) {
-        logger.info("Starting PDF to image conversion: format={}, dpi={}",
-                    convertRequest.imageFormat, convertRequest.dpi);
+    public List<FileResponse> convertPdfToImage(PdfInput input, ConvertRequest convertRequest) {
+        return convertPdfToImage(input, convertRequest, ProgressListener.NONE);
+    }
 
-        if (file == null || file.isEmpty()) {
+    /**
+     * Converts PDF pages to image format, reporting one unit of progress per rendered page.
+     *
+     * @param input the PDF input to convert
+     * @param convertRequest conversion configuration
+     * @param progressListener listener receiving progress updates
+     * @return list of FileResponse for each converted image
+     * @throws PdfProcessingException if conversion fails
+     */
+    public List<FileResponse> convertPdfToImage(PdfInput input, ConvertRequest convertRequest,
+                                                ProgressListener progressListener) {
+        if (input == null) {
             throw new PdfProcessingException("No file provided for conversion");
         }
 
-        File tempFile = null;
-        List<FileResponse> responses = new ArrayList<>();
+        // Parallelism does not change the output, so it is not part of the coalescing key
+        List<?> parameters = Arrays.asList(outputFormat(convertRequest), convertRequest.dpi,
+                                           convertRequest.pages, convertRequest.outputFileNameBase);
+        return coalescer.execute(SdkOperation.CONVERT, List.of(input), parameters,
+                () -> sdkScheduler.execute(SdkOperation.CONVERT, () -> doConvertPdfToImage(input, convertRequest, progressListener)));
+    }
 
-        try {
-            // Save uploaded file
-            tempFile = saveUploadedFile(file);
+    /**
+     * Runs the convert operation inside its SDK bulkhead.
+     */
+    private List<FileResponse> doConvertPdfToImage(PdfInput input, ConvertRequest convertRequest,
+                                                   ProgressListener progressListener) {
+        logger.info("Starting PDF to image conversion: format={}, dpi={}",
+                    convertRequest.imageFormat, convertRequest.dpi);
 
+        List<FileResponse> responses;
+
+        try {
             // Open source document
-            FileStream inputStream = new FileStream(tempFile.getAbsolutePath(), FileStream.Mode.READ_ONLY);
-            Document sourceDoc = Document.open(inputStream, null);
+            SdkDocument sourceDoc = input.open(pdfSdk);
             int totalPages = sourceDoc.getPageCount();
 
             logger.info("Converting PDF with {} pages", totalPages);
@@ -74,94 +129,227 @@ public class PdfConvertService {
             // Determine pages to convert
             List<Integer> pagesToConvert = parsePageNumbers(convertRequest.pages, totalPages);
 
-            // Create converter
-            Converter converter = new Converter();
+            // Resolve the base name once so every page of this request shares it
+            String baseFileName = convertRequest.outputFileNameBase;
+            if (baseFileName == null || baseFileName.isEmpty()) {
+                baseFileName = "converted_" + UUID.randomUUID().toString();
+            }
 
-            // Convert each page
-            for (int pageNum : pagesToConvert) {
-                String outputFileName = generateImageFileName(
-                    convertRequest.outputFileNameBase,
-                    pageNum,
-                    totalPages,
-                    convertRequest.imageFormat
-                );
+            // Rendered pages are cached by source content, so identical uploads share renders
+            String contentHash = renderCache.isEnabled() ? input.getContentHash() : null;
 
-                File outputFile = new File(outputDir, outputFileName);
+            int parallelism = resolveParallelism(convertRequest.parallelism, pagesToConvert.size());
+            PageProgress progress = new PageProgress(progressListener, pagesToConvert.size());
 
-                // Render page to image
-                renderPageToImage(converter, sourceDoc, pageNum, outputFile, convertRequest);
+            if (parallelism > 1) {
+                // Workers open their own handles, so release this one first
+                sourceDoc.close();
 
-                responses.add(createFileResponse(outputFile));
-                logger.info("Converted page {} to {}", pageNum, outputFileName);
-            }
+                responses = renderPagesInParallel(input, contentHash, pagesToConvert, totalPages,
+                                                  baseFileName, convertRequest, parallelism, progress);
+            } else {
+                responses = renderPages(sourceDoc, contentHash, pagesToConvert, totalPages,
+                                        baseFileName, convertRequest, progress, new AtomicBoolean());
 
-            sourceDoc.close();
-            inputStream.close();
+                sourceDoc.close();
+            }
 
-            logger.info("PDF to image conversion completed: {} pages converted", responses.size());
+            logger.info("PDF to image conversion completed: {} pages converted (parallelism {})",
+                        responses.size(), parallelism);
 
             return responses;
 
         } catch (Exception e) {
             logger.error("Error converting PDF to image", e);
             throw new PdfProcessingException("Failed to convert PDF to image", e);
-        } finally {
-            // Clean up temp file
-            if (tempFile != null && tempFile.exists()) {
-                try {
-                    Files.delete(tempFile.toPath());
-                } catch (IOException e) {
-                    logger.warn("Failed to delete temp file", e);
+        }
+    }
+
+    /**
+     * Determines how many workers render a request.
+     *
+     * @param requested parallelism requested by the client (null for the configured maximum)
+     * @param pageCount number of pages to render
+     * @return effective parallelism, at least 1
+     */
+    private int resolveParallelism(Integer requested, int pageCount) {
+        int parallelism = requested != null ? requested : maxParallelism;
+        parallelism = Math.min(parallelism, maxParallelism);
+        parallelism = Math.min(parallelism, renderThreads);
+
+        // Avoid paying for extra document handles when each worker would only get a few pages
+        int workersByPages = (pageCount + minPagesPerWorker - 1) / Math.max(1, minPagesPerWorker);
+        parallelism = Math.min(parallelism, workersByPages);
+
+        return Math.max(1, parallelism);
+    }
+
+    /**
+     * Renders pages by spreading contiguous page ranges across the render worker pool.
+     * Each worker opens its own {@link SdkDocument} so no SDK object is shared between threads.
+     *
+     * If a worker fails, the others stop after their current page and are waited for, since
+     * native rendering cannot be cancelled, and the page images of the request are deleted.
+     *
+     * @param source source PDF
+     * @param contentHash SHA-256 of the source, or null to bypass the render cache
+     * @param pages pages to render, in output order
+     * @param totalPages total pages in document
+     * @param baseFileName base name for output files
+     * @param request conversion request
+     * @param parallelism number of workers
+     * @param progress progress shared by all workers
+     * @return list of FileResponse in page order
+     */
+    private List<FileResponse> renderPagesInParallel(PdfInput source, String contentHash,
+                                                     List<Integer> pages, int totalPages,
+                                                     String baseFileName, ConvertRequest request,
+                                                     int parallelism, PageProgress progress) throws Exception {
+        List<Future<List<FileResponse>>> futures = new ArrayList<>(parallelism);
+        AtomicBoolean aborted = new AtomicBoolean();
+        int chunkSize = (pages.size() + parallelism - 1) / parallelism;
+
+        for (int start = 0; start < pages.size(); start += chunkSize) {
+            List<Integer> chunk = pages.subList(start, Math.min(start + chunkSize, pages.size()));
+            futures.add(renderExecutor.submit(SdkBulkheadScheduler.propagate(() -> {
+                if (aborted.get()) {
+                    return List.<FileResponse>of();
+                }
+                try (SdkDocument document = source.open(pdfSdk)) {
+                    return renderPages(document, contentHash, chunk, totalPages, baseFileName, request, progress, aborted);
+                }
+            })));
+        }
+
+        List<FileResponse> responses = new ArrayList<>(pages.size());
+        try {
+            // Futures are collected in submission order, which keeps the results in page order
+            for (Future<List<FileResponse>> future : futures) {
+                responses.addAll(future.get());
+            }
+        } catch (ExecutionException e) {
+            abort(futures, aborted, pages, totalPages, baseFileName, request);
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        } catch (InterruptedException e) {
+            abort(futures, aborted, pages, totalPages, baseFileName, request);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+
+        return responses;
+    }
+
+    /**
+     * Stops the workers of a failed parallel render, waits for them and deletes its page images.
+     */
+    private void abort(List<Future<List<FileResponse>>> futures, AtomicBoolean aborted, List<Integer> pages,
+                       int totalPages, String baseFileName, ConvertRequest request) {
+        aborted.set(true);
+        WorkerFutures.awaitAll(futures);
+
+        for (int pageNum : pages) {
+            File image = new File(outputDir, generateImageFileName(baseFileName, pageNum, totalPages, request.imageFormat));
+            try {
+                Files.deleteIfExists(image.toPath());
+            } catch (IOException e) {
+                logger.warn("Failed to delete page of failed conversion: {}", image.getAbsolutePath(), e);
+            }
+        }
+    }
+
+    /**
+     * Renders a list of pages of an open document one after another.
+     *
+     * Pages found in the render cache are copied from there instead of being rendered.
+     *
+     * @param sourceDoc source PDF document
+     * @param contentHash SHA-256 of the source, or null to bypass the render cache
+     * @param pages pages to render
+     * @param totalPages total pages in document
+     * @param baseFileName base name for output files
+     * @param request conversion request
+     * @param progress progress to advance after each page
+     * @param aborted set when the request has failed; remaining pages are then skipped
+     * @return list of FileResponse in page order
+     */
+    private List<FileResponse> renderPages(SdkDocument sourceDoc, String contentHash,
+                                           List<Integer> pages, int totalPages, String baseFileName,
+                                           ConvertRequest request, PageProgress progress,
+                                           AtomicBoolean aborted) throws Exception {
+        List<FileResponse> responses = new ArrayList<>(pages.size());
+
+        for (int pageNum : pages) {
+            if (aborted.get()) {
+                break;
+            }
+            String outputFileName = generateImageFileName(baseFileName, pageNum, totalPages, request.imageFormat);
+            File outputFile = new File(outputDir, outputFileName);
+
+            String cacheKey = contentHash != null
+                    ? RenderCache.key(contentHash, pageNum, request.dpi,
+                                      outputFormat(request), createConversionProfile(request).getKey())
+                    : null;
+
+            if (cacheKey != null && renderCache.copyTo(cacheKey, outputFile)) {
+                logger.debug("Served page {} from render cache", pageNum);
+            } else {
+                // Render page to image
+                renderPageToImage(sourceDoc, pageNum, outputFile, request);
+
+                if (cacheKey != null) {
+                    renderCache.put(cacheKey, outputFile);
                 }
             }
+
+            FileResponse response = createFileResponse(outputFile);
+            responses.add(response);
+            progress.pageCompleted(response);
+            logger.info("Converted page {} to {}", pageNum, outputFileName);
         }
+
+        return responses;
     }
 
     /**
      * Renders a specific page to an image file.
      *
-     * @param converter PDF converter
      * @param sourceDoc source PDF document
      * @param pageNum page number to render
      * @param outputFile output image file
      * @param request conversion request
      */
-    private void renderPageToImage(Converter converter, Document sourceDoc, int pageNum, File outputFile,
+    private void renderPageToImage(SdkDocument sourceDoc, int pageNum, File outputFile,
                                    ConvertRequest request) throws Exception {
         // Create profile based on format and settings
-        Profile profile = createConversionProfile(request);
-
-        // Create output stream for the image file
-        FileStream outputStream = new FileStream(outputFile.getAbsolutePath(), FileStream.Mode.READ_WRITE_NEW);
+        RenderProfile profile = createConversionProfile(request);
 
-        try {
-            // Convert single page to image using PDF Tools SDK pdf2image Converter
-            // convertPage takes: Document, output stream, profile, page number (1-based)
-            converter.convertPage(sourceDoc, outputStream, profile, pageNum);
+        // Convert single page to image using PDF Tools SDK pdf2image Converter
+        pdfSdk.renderPage(sourceDoc, pageNum, outputFile, profile);
 
-            logger.debug("Successfully converted page {} to {}", pageNum, outputFile.getName());
-        } finally {
-            outputStream.close();
-        }
+        logger.debug("Successfully converted page {} to {}", pageNum, outputFile.getName());
     }
 
     /**
      * Creates conversion profile based on request settings.
      *
      * @param request conversion request
-     * @return Profile instance
+     * @return render profile
      */
-    private Profile createConversionProfile(ConvertRequest request) {
+    private RenderProfile createConversionProfile(ConvertRequest request) {
         // Use Viewing profile for web-suitable images (PNG, JPEG)
         // Archive profile is better for high-quality TIFF
-        if ("tiff".equalsIgnoreCase(request.imageFormat) || "tif".equalsIgnoreCase(request.imageFormat)) {
-            return new Archive();
-        } else {
-            Viewing profile = new Viewing();
-            // DPI setting can be configured if the profile supports it
-            // For now, use default profile settings
-            return profile;
-        }
+        // DPI setting can be configured if the profile supports it
+        // For now, use default profile settings
+        return isTiff(request) ? RenderProfile.ARCHIVE : RenderProfile.VIEWING;
+    }
+
+    private boolean isTiff(ConvertRequest request) {
+        return "tiff".equalsIgnoreCase(request.imageFormat) || "tif".equalsIgnoreCase(request.imageFormat);
+    }
+
+    private String outputFormat(ConvertRequest request) {
+        return request.imageFormat != null ? request.imageFormat : "png";
     }
 
     /**
@@ -172,7 +360,7 @@ public class PdfConvertService {
      * @param totalPages total pages in document
      * @return list of page numbers
      */
-    private List<Integer> parsePageNumbers(String pagesStr, int totalPages) {
+    static List<Integer> parsePageNumbers(String pagesStr, int totalPages) {
         List<Integer> pages = new ArrayList<>();
 
         if (pagesStr == null || pagesStr.trim().isEmpty()) {
@@ -234,12 +422,14 @@ public class PdfConvertService {
     }
 
     /**
-     * Creates FileResponse from output file.
+     * Creates FileResponse from output file and registers it for retention.
      *
      * @param file output file
      * @return FileResponse
      */
     private FileResponse createFileResponse(File file) {
+        outputRetention.register(file);
+
         FileResponse response = new FileResponse();
         response.fileName = file.getName();
         response.filePath = file.getAbsolutePath();
@@ -249,16 +439,22 @@ public class PdfConvertService {
     }
 
     /**
-     * Saves uploaded file to upload directory.
-     *
-     * @param file uploaded file
-     * @return saved file
+     * Counts rendered pages across workers and forwards the count to a progress listener.
      */
-    private File saveUploadedFile(MultipartFile file) throws IOException {
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path filePath = Paths.get(uploadDir, fileName);
-        Files.createDirectories(filePath.getParent());
-        Files.write(filePath, file.getBytes());
-        return filePath.toFile();
+    private static final class PageProgress {
+
+        private final ProgressListener listener;
+        private final int total;
+        private final AtomicInteger completed = new AtomicInteger();
+
+        PageProgress(ProgressListener listener, int total) {
+            this.listener = listener;
+            this.total = total;
+        }
+
+        void pageCompleted(FileResponse output) {
+            listener.onOutput(output);
+            listener.onProgress(completed.incrementAndGet(), total);
+        }
     }
 }
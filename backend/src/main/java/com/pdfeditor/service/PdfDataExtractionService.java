@@ -1,25 +1,28 @@
 package com.pdfeditor.service;
 
+import com.pdfeditor.concurrency.SdkBulkheadScheduler;
+import com.pdfeditor.concurrency.SdkOperation;
 import com.pdfeditor.dto.DataExtractionResponse;
 import com.pdfeditor.dto.DataExtractionResponse.PageContent;
+import com.pdfeditor.exception.InvalidRequestException;
 import com.pdfeditor.exception.PdfProcessingException;
-import com.pdftools.pdf.Document;
-import com.pdftools.extraction.Extractor;
-import com.pdftools.extraction.TextOptions;
-import com.pdftools.sys.FileStream;
+import com.pdfeditor.exception.ServiceBusyException;
+import com.pdfeditor.sdk.PdfSdk;
+import com.pdfeditor.sdk.SdkDocument;
+import com.pdfeditor.storage.PdfInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.UUID;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for extracting data from PDF documents.
@@ -32,39 +35,62 @@ public class PdfDataExtractionService {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfDataExtractionService.class);
 
-    @Value("${app.upload.dir}")
-    private String uploadDir;
+    @Autowired
+    private SdkBulkheadScheduler sdkScheduler;
 
-    @Value("${app.output.dir}")
-    private String outputDir;
+    @Autowired
+    private PdfSdk pdfSdk;
+
+    @Value("${app.extract.page-batch-size:16}")
+    private int pageBatchSize;
+
+    @Value("${app.extract.busy-retries:5}")
+    private int busyRetries;
 
     /**
      * Extracts text and data from a PDF file.
      *
-     * @param file the PDF file to extract from
+     * @param input the PDF input to extract from
      * @param extractImages whether to extract images
      * @param pages specific pages to extract (null for all)
      * @return DataExtractionResponse containing extracted content
      * @throws PdfProcessingException if extraction fails
      */
-    public DataExtractionResponse extractData(MultipartFile file, boolean extractImages, String pages) {
-        logger.info("Starting data extraction for file: {}, extractImages: {}",
-                   file.getOriginalFilename(), extractImages);
+    public DataExtractionResponse extractData(PdfInput input, boolean extractImages, String pages) {
+        return extractData(input, extractImages, pages, ProgressListener.NONE);
+    }
 
-        if (file == null || file.isEmpty()) {
+    /**
+     * Extracts text and data from a PDF file, reporting a single unit of progress
+     * once the text has been extracted.
+     *
+     * @param input the PDF input to extract from
+     * @param extractImages whether to extract images
+     * @param pages specific pages to extract (null for all)
+     * @param progressListener listener receiving progress updates
+     * @return DataExtractionResponse containing extracted content
+     * @throws PdfProcessingException if extraction fails
+     */
+    public DataExtractionResponse extractData(PdfInput input, boolean extractImages, String pages,
+                                              ProgressListener progressListener) {
+        if (input == null) {
             throw new PdfProcessingException("No file provided for data extraction");
         }
 
-        File tempFile = null;
-        File outputTextFile = null;
+        return sdkScheduler.execute(SdkOperation.EXTRACT, () -> doExtractData(input, extractImages, pages, progressListener));
+    }
 
-        try {
-            // Save uploaded file temporarily
-            tempFile = saveUploadedFile(file);
+    /**
+     * Runs the extract operation inside its SDK bulkhead.
+     */
+    private DataExtractionResponse doExtractData(PdfInput input, boolean extractImages, String pages,
+                                                 ProgressListener progressListener) {
+        logger.info("Starting data extraction for file: {}, extractImages: {}",
+                   input.getOriginalFilename(), extractImages);
 
+        try {
             // Open the PDF document
-            FileStream inputStream = new FileStream(tempFile.getAbsolutePath(), FileStream.Mode.READ_ONLY);
-            Document document = Document.open(inputStream, null);
+            SdkDocument document = input.open(pdfSdk);
 
             DataExtractionResponse response = new DataExtractionResponse();
             response.pages = new ArrayList<>();
@@ -72,24 +98,9 @@ public class PdfDataExtractionService {
 
             int pageCount = document.getPageCount();
 
-            // Create text extractor
-            Extractor extractor = new Extractor();
-            TextOptions textOptions = new TextOptions();
-
-            // Create output file for text extraction
-            String outputFileName = UUID.randomUUID().toString() + ".txt";
-            outputTextFile = new File(outputDir, outputFileName);
-            Files.createDirectories(outputTextFile.getParentFile().toPath());
-
-            FileStream outputStream = new FileStream(outputTextFile.getAbsolutePath(), FileStream.Mode.READ_WRITE_NEW);
-
             // Extract text from document
-            extractor.extractText(document, outputStream, textOptions);
-
-            outputStream.close();
-
-            // Read extracted text
-            String fullText = new String(Files.readAllBytes(outputTextFile.toPath()));
+            String fullText = new String(pdfSdk.extractText(document, null, null), StandardCharsets.UTF_8);
+            progressListener.onProgress(1, 1);
 
             // Split by page markers if available, otherwise use full text
             int totalWordCount = countWords(fullText);
@@ -118,7 +129,6 @@ public class PdfDataExtractionService {
 
             // Close resources
             document.close();
-            inputStream.close();
 
             response.textContent = fullText;
             response.wordCount = totalWordCount;
@@ -134,29 +144,143 @@ public class PdfDataExtractionService {
         } catch (Exception e) {
             logger.error("Error extracting data from PDF", e);
             throw new PdfProcessingException("Failed to extract data from PDF file", e);
-        } finally {
-            // Clean up temp files
-            if (tempFile != null && tempFile.exists()) {
-                try {
-                    Files.delete(tempFile.toPath());
-                } catch (IOException e) {
-                    logger.warn("Failed to delete temp file", e);
+        }
+    }
+
+    /**
+     * Extracts text page by page, handing each page to the listener as soon as its batch is done.
+     * Only pages matching the page specification are extracted, and at most one batch of
+     * {@code app.extract.page-batch-size} pages is held in memory at a time.
+     *
+     * @param input the PDF input to extract from
+     * @param pages specific pages to extract (null for all)
+     * @param pageListener listener receiving each page
+     * @param progressListener listener receiving one unit of progress per page
+     * @return number of pages extracted
+     * @throws PdfProcessingException if extraction fails
+     * @see #startPageExtraction(PdfInput, String)
+     */
+    public int extractPages(PdfInput input, String pages, PageContentListener pageListener,
+                            ProgressListener progressListener) {
+        try (PageExtraction extraction = startPageExtraction(input, pages)) {
+            int completed = 0;
+            for (List<PageContent> batch = extraction.nextBatch(); !batch.isEmpty(); batch = extraction.nextBatch()) {
+                for (PageContent pageContent : batch) {
+                    pageListener.onPage(pageContent);
+                    progressListener.onProgress(++completed, extraction.getPageCount());
                 }
             }
-            if (outputTextFile != null && outputTextFile.exists()) {
-                try {
-                    Files.delete(outputTextFile.toPath());
-                } catch (IOException e) {
-                    logger.warn("Failed to delete output text file", e);
+            return completed;
+        } catch (IOException e) {
+            throw new PdfProcessingException("Failed to extract pages from PDF file", e);
+        }
+    }
+
+    /**
+     * Starts a per-page extraction: validates the page specification, opens the document and
+     * extracts the first batch, all before the caller commits to a response. A malformed page
+     * specification or a full bulkhead therefore fails here, with its own status.
+     *
+     * Each batch runs as its own call in the extract bulkhead, and the caller hands pages to
+     * the client between calls, so a slow client never holds a bulkhead thread. The document
+     * stays open between batches and is closed after the last one or by
+     * {@link PageExtraction#close()}. Later batches that find the bulkhead full wait and retry
+     * up to {@code app.extract.busy-retries} times instead of failing a half-sent stream.
+     *
+     * @param input the PDF input to extract from
+     * @param pages specific pages to extract (null for all)
+     * @return the started extraction; the caller must close it
+     * @throws InvalidRequestException if the page specification is malformed
+     * @throws ServiceBusyException if the extract bulkhead is full
+     * @throws PdfProcessingException if the document cannot be opened
+     */
+    public PageExtraction startPageExtraction(PdfInput input, String pages) {
+        if (input == null) {
+            throw new PdfProcessingException("No file provided for data extraction");
+        }
+        validatePageSpec(pages);
+
+        logger.info("Starting per-page text extraction for file: {}, pages: {}",
+                   input.getOriginalFilename(), pages);
+
+        PageExtraction extraction = new PageExtraction(input, pages);
+        sdkScheduler.execute(SdkOperation.EXTRACT, extraction::open);
+        return extraction;
+    }
+
+    /**
+     * Checks that a page specification consists of page numbers and "start-end" ranges.
+     *
+     * @param pagesSpec page specification, null or empty for all pages
+     * @throws InvalidRequestException if the specification is malformed
+     */
+    static void validatePageSpec(String pagesSpec) {
+        if (pagesSpec == null || pagesSpec.trim().isEmpty()) {
+            return;
+        }
+
+        for (String part : pagesSpec.split(",", -1)) {
+            String[] bounds = part.split("-", -1);
+            if (bounds.length > 2 || !isPageNumber(bounds[0]) || (bounds.length == 2 && !isPageNumber(bounds[1]))) {
+                throw new InvalidRequestException("Invalid page specification: " + pagesSpec);
+            }
+        }
+    }
+
+    private static boolean isPageNumber(String value) {
+        String trimmed = value.trim();
+        if (trimmed.isEmpty() || trimmed.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < trimmed.length(); i++) {
+            if (!Character.isDigit(trimmed.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resolves a page specification to the sorted, distinct pages that exist in the document.
+     *
+     * @param pagesSpec page specification (e.g. "1-5,8"), null or empty for all pages
+     * @param pageCount number of pages in the document
+     * @return page numbers to extract
+     */
+    static List<Integer> resolvePages(String pagesSpec, int pageCount) {
+        TreeSet<Integer> pageNumbers = new TreeSet<>();
+
+        if (pagesSpec == null || pagesSpec.trim().isEmpty()) {
+            for (int i = 1; i <= pageCount; i++) {
+                pageNumbers.add(i);
+            }
+            return new ArrayList<>(pageNumbers);
+        }
+
+        for (String part : pagesSpec.split(",")) {
+            part = part.trim();
+            if (part.contains("-")) {
+                String[] range = part.split("-");
+                int start = Math.max(1, Integer.parseInt(range[0].trim()));
+                int end = Math.min(pageCount, Integer.parseInt(range[1].trim()));
+                for (int i = start; i <= end; i++) {
+                    pageNumbers.add(i);
+                }
+            } else {
+                int page = Integer.parseInt(part);
+                if (page >= 1 && page <= pageCount) {
+                    pageNumbers.add(page);
                 }
             }
         }
+
+        return new ArrayList<>(pageNumbers);
     }
 
     /**
      * Counts words in a string.
      */
-    private int countWords(String text) {
+    static int countWords(String text) {
         if (text == null || text.trim().isEmpty()) {
             return 0;
         }
@@ -166,7 +290,7 @@ public class PdfDataExtractionService {
     /**
      * Checks if a page number should be processed based on page specification.
      */
-    private boolean shouldProcessPage(int pageNum, String pagesSpec) {
+    static boolean shouldProcessPage(int pageNum, String pagesSpec) {
         if (pagesSpec == null || pagesSpec.isEmpty()) {
             return true;
         }
@@ -191,13 +315,144 @@ public class PdfDataExtractionService {
     }
 
     /**
-     * Saves uploaded file to upload directory.
+     * A per-page extraction in progress, read batch by batch by a single consumer.
+     *
+     * The document is only used inside extract bulkhead calls, one at a time, so it never
+     * runs native code on the consumer's (possibly virtual) thread.
+     */
+    public final class PageExtraction implements AutoCloseable {
+
+        private final PdfInput input;
+        private final String pagesSpec;
+        private SdkDocument document;
+        private List<Integer> pageNumbers;
+        private List<PageContent> firstBatch;
+        private int next;
+
+        private PageExtraction(PdfInput input, String pagesSpec) {
+            this.input = input;
+            this.pagesSpec = pagesSpec;
+        }
+
+        /**
+         * Returns the number of pages this extraction produces.
+         *
+         * @return number of pages matching the specification
+         */
+        public int getPageCount() {
+            return pageNumbers.size();
+        }
+
+        /**
+         * Returns the next batch of pages, extracting it in the bulkhead.
+         *
+         * @return pages in page order; empty once all pages have been returned
+         * @throws ServiceBusyException if the bulkhead stays full through every retry
+         * @throws PdfProcessingException if extraction fails
+         */
+        public List<PageContent> nextBatch() {
+            if (firstBatch != null) {
+                List<PageContent> batch = firstBatch;
+                firstBatch = null;
+                return batch;
+            }
+            if (next >= pageNumbers.size()) {
+                return List.of();
+            }
+            return executeWithBusyRetry(this::extractBatch);
+        }
+
+        /**
+         * Closes the document if the consumer stopped before the last batch.
+         */
+        @Override
+        public void close() {
+            if (document == null) {
+                return;
+            }
+            try {
+                executeWithBusyRetry(() -> {
+                    closeDocument();
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                logger.warn("Failed to close document of per-page extraction: {}", e.getMessage());
+            }
+        }
+
+        private Void open() {
+            try {
+                document = input.open(pdfSdk);
+                pageNumbers = resolvePages(pagesSpec, document.getPageCount());
+            } catch (Exception e) {
+                closeDocument();
+                logger.error("Error opening PDF for per-page extraction", e);
+                throw new PdfProcessingException("Failed to extract pages from PDF file", e);
+            }
+            firstBatch = extractBatch();
+            return null;
+        }
+
+        private List<PageContent> extractBatch() {
+            int to = Math.min(pageNumbers.size(), next + Math.max(1, pageBatchSize));
+            List<PageContent> contents = new ArrayList<>(to - next);
+
+            try {
+                for (int pageNumber : pageNumbers.subList(next, to)) {
+                    // Limit the extraction to this single page
+                    String text = new String(pdfSdk.extractText(document, pageNumber, pageNumber), StandardCharsets.UTF_8);
+
+                    PageContent pageContent = new PageContent();
+                    pageContent.pageNumber = pageNumber;
+                    pageContent.text = text;
+                    pageContent.wordCount = countWords(text);
+                    contents.add(pageContent);
+                }
+            } catch (Exception e) {
+                closeDocument();
+                logger.error("Error extracting pages from PDF", e);
+                throw new PdfProcessingException("Failed to extract pages from PDF file", e);
+            }
+
+            next = to;
+            if (next >= pageNumbers.size()) {
+                closeDocument();
+                logger.info("Per-page text extraction completed: {} pages", pageNumbers.size());
+            }
+            return contents;
+        }
+
+        private void closeDocument() {
+            if (document == null) {
+                return;
+            }
+            try {
+                document.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close document of per-page extraction", e);
+            }
+            document = null;
+        }
+    }
+
+    /**
+     * Runs a task in the extract bulkhead, waiting and retrying while the bulkhead is full.
      */
-    private File saveUploadedFile(MultipartFile file) throws IOException {
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path filePath = Paths.get(uploadDir, fileName);
-        Files.createDirectories(filePath.getParent());
-        Files.write(filePath, file.getBytes());
-        return filePath.toFile();
+    private <T> T executeWithBusyRetry(Callable<T> task) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return sdkScheduler.execute(SdkOperation.EXTRACT, task);
+            } catch (ServiceBusyException e) {
+                if (attempt >= busyRetries) {
+                    throw e;
+                }
+                try {
+                    TimeUnit.SECONDS.sleep(e.getRetryAfterSeconds());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new PdfProcessingException("Per-page extraction was interrupted", interrupted);
+                }
+            }
+        }
     }
 }
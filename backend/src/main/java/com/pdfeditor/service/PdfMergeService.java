@@ -1,15 +1,26 @@
 package com.pdfeditor.service;
 
+import com.pdfeditor.cache.ResultCache;
+import com.pdfeditor.concurrency.RequestCoalescer;
+import com.pdfeditor.concurrency.SdkBulkheadScheduler;
+import com.pdfeditor.concurrency.SdkOperation;
+import com.pdfeditor.concurrency.WorkerFutures;
 import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.dto.InlinePdf;
+import com.pdfeditor.dto.MergeLevelTiming;
+import com.pdfeditor.dto.TreeMergeResponse;
 import com.pdfeditor.exception.PdfProcessingException;
-import com.pdftools.pdf.Document;
-import com.pdftools.documentassembly.DocumentAssembler;
-import com.pdftools.sys.FileStream;
+import com.pdfeditor.sdk.PdfSdk;
+import com.pdfeditor.sdk.SdkAssembler;
+import com.pdfeditor.sdk.SdkDocument;
+import com.pdfeditor.storage.OutputRetentionService;
+import com.pdfeditor.storage.PdfInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
@@ -17,13 +28,26 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Service for merging multiple PDF files into a single PDF.
  * Uses PDF Tools SDK DocumentAssembler for merge operations.
  *
+ * Besides the sequential merge, a tree merge is offered for large file counts: all inputs are
+ * opened in parallel first so a bad file fails the request before any merging, then groups of
+ * inputs are merged concurrently into intermediate documents, level by level, until one
+ * group is left to be merged into the output.
+ *
  * @author PDF Editor Team
  */
 @Service
@@ -31,118 +55,445 @@ public class PdfMergeService {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfMergeService.class);
 
-    @Value("${app.upload.dir}")
-    private String uploadDir;
+    @Autowired
+    private SdkBulkheadScheduler sdkScheduler;
+
+    @Autowired
+    private RequestCoalescer coalescer;
+
+    @Autowired
+    private ResultCache resultCache;
+
+    @Autowired
+    private PdfSdk pdfSdk;
+
+    @Autowired
+    private OutputRetentionService outputRetention;
 
     @Value("${app.output.dir}")
     private String outputDir;
 
+    @Value("${app.upload.dir}")
+    private String uploadDir;
+
+    @Value("${app.merge.group-size:50}")
+    private int defaultGroupSize;
+
+    @Autowired
+    @Qualifier("mergeExecutor")
+    private ExecutorService mergeExecutor;
+
     /**
      * Merges multiple PDF files into a single PDF document.
      *
-     * @param files list of PDF files to merge
+     * @param inputs list of PDF inputs to merge, in output order
      * @param outputFileName desired output filename
      * @return FileResponse containing merged PDF information
      * @throws PdfProcessingException if merge operation fails
      */
-    public FileResponse mergePdfs(List<MultipartFile> files, String outputFileName) {
-        logger.info("Starting PDF merge operation for {} files", files.size());
+    public FileResponse mergePdfs(List<PdfInput> inputs, String outputFileName) {
+        return mergePdfs(inputs, outputFileName, ProgressListener.NONE);
+    }
 
-        if (files == null || files.isEmpty()) {
+    /**
+     * Merges multiple PDF files into a single PDF document, reporting one unit of progress
+     * per appended input plus one for the final assembly.
+     *
+     * @param inputs list of PDF inputs to merge, in output order
+     * @param outputFileName desired output filename
+     * @param progressListener listener receiving progress updates
+     * @return FileResponse containing merged PDF information
+     * @throws PdfProcessingException if merge operation fails
+     */
+    public FileResponse mergePdfs(List<PdfInput> inputs, String outputFileName, ProgressListener progressListener) {
+        if (inputs == null || inputs.isEmpty()) {
             throw new PdfProcessingException("No files provided for merging");
         }
 
-        if (files.size() < 2) {
+        if (inputs.size() < 2) {
             throw new PdfProcessingException("At least 2 files are required for merging");
         }
 
-        List<File> tempFiles = new ArrayList<>();
-        File outputFile = null;
+        List<?> parameters = Arrays.asList(outputFileName);
+        return resultCache.getOrCompute(SdkOperation.MERGE, inputs, parameters,
+                () -> coalescer.execute(SdkOperation.MERGE, inputs, parameters,
+                        () -> sdkScheduler.execute(SdkOperation.MERGE, () -> doMergePdfs(inputs, outputFileName, progressListener))));
+    }
 
-        try {
-            // Save uploaded files temporarily
-            for (MultipartFile file : files) {
-                File tempFile = saveUploadedFile(file);
-                tempFiles.add(tempFile);
-            }
+    /**
+     * Merges PDF files in memory and returns the result without writing the output store.
+     * Meant for small inputs; inline results are neither cached nor coalesced.
+     *
+     * @param inputs list of PDF inputs to merge, in output order
+     * @param outputFileName desired output filename
+     * @return the merged PDF
+     * @throws PdfProcessingException if merge operation fails
+     */
+    public InlinePdf mergePdfsInline(List<PdfInput> inputs, String outputFileName) {
+        if (inputs == null || inputs.isEmpty()) {
+            throw new PdfProcessingException("No files provided for merging");
+        }
 
-            // Generate output filename
-            if (outputFileName == null || outputFileName.isEmpty()) {
-                outputFileName = "merged_" + UUID.randomUUID().toString() + ".pdf";
-            }
-            if (!outputFileName.endsWith(".pdf")) {
-                outputFileName += ".pdf";
+        if (inputs.size() < 2) {
+            throw new PdfProcessingException("At least 2 files are required for merging");
+        }
+
+        return sdkScheduler.execute(SdkOperation.MERGE, () -> {
+            List<SdkDocument> documents = new ArrayList<>(inputs.size());
+            try {
+                for (PdfInput input : inputs) {
+                    documents.add(input.open(pdfSdk));
+                }
+                byte[] content = pdfSdk.mergeToBytes(documents);
+
+                logger.info("In-memory PDF merge of {} files completed: {} bytes", inputs.size(), content.length);
+                return new InlinePdf(resolveOutputFileName(outputFileName), content);
+            } catch (Exception e) {
+                logger.error("Error merging PDFs", e);
+                throw new PdfProcessingException("Failed to merge PDF files", e);
+            } finally {
+                for (SdkDocument document : documents) {
+                    try {
+                        document.close();
+                    } catch (Exception e) {
+                        logger.warn("Failed to close merge input", e);
+                    }
+                }
             }
+        });
+    }
+
+    /**
+     * Runs the merge operation inside its SDK bulkhead.
+     */
+    private FileResponse doMergePdfs(List<PdfInput> inputs, String outputFileName, ProgressListener progressListener) {
+        logger.info("Starting PDF merge operation for {} files", inputs.size());
+
+        File outputFile = null;
 
+        try {
+            outputFileName = resolveOutputFileName(outputFileName);
             outputFile = new File(outputDir, outputFileName);
 
-            // Create output stream for merged PDF
-            try (FileStream outputStream = new FileStream(outputFile.getAbsolutePath(), FileStream.Mode.READ_WRITE_NEW);
-                 DocumentAssembler docAssembler = new DocumentAssembler(outputStream)) {
+            // Create assembler writing the merged PDF
+            try (SdkAssembler docAssembler = pdfSdk.createAssembler(outputFile)) {
+
+                int totalSteps = inputs.size() + 1;
+                int completedSteps = 0;
 
                 // Append all documents
-                for (File tempFile : tempFiles) {
-                    try (FileStream inputStream = new FileStream(tempFile.getAbsolutePath(), FileStream.Mode.READ_ONLY);
-                         Document inputDocument = Document.open(inputStream, null)) {
+                for (PdfInput input : inputs) {
+                    try (SdkDocument inputDocument = input.open(pdfSdk)) {
 
                         // Append entire document
                         docAssembler.append(inputDocument);
                     }
+                    progressListener.onProgress(++completedSteps, totalSteps);
                 }
 
                 // Create the final structure of the output PDF
                 docAssembler.assemble();
+                progressListener.onProgress(totalSteps, totalSteps);
             }
 
             logger.info("PDF merge completed successfully: {}", outputFileName);
 
-            // Create response
-            FileResponse response = new FileResponse();
-            response.fileName = outputFileName;
-            response.filePath = outputFile.getAbsolutePath();
-            response.fileSize = outputFile.length();
-            response.downloadUrl = "/download/" + outputFileName;
+            return createFileResponse(outputFile);
+
+        } catch (Exception e) {
+            logger.error("Error merging PDFs", e);
+            throw new PdfProcessingException("Failed to merge PDF files", e);
+        }
+    }
+
+    /**
+     * Merges multiple PDF files as a tree of concurrently merged groups.
+     *
+     * Tree merges report their level timings, so like pipelines they are neither coalesced
+     * nor served from the result cache.
+     *
+     * @param inputs list of PDF inputs to merge, in output order
+     * @param outputFileName desired output filename
+     * @param groupSize number of documents merged per group (null for the configured default)
+     * @return merged PDF information with per-level timings
+     * @throws PdfProcessingException if an input cannot be opened or the merge fails
+     */
+    public TreeMergeResponse mergePdfsTree(List<PdfInput> inputs, String outputFileName, Integer groupSize) {
+        if (inputs == null || inputs.isEmpty()) {
+            throw new PdfProcessingException("No files provided for merging");
+        }
+
+        if (inputs.size() < 2) {
+            throw new PdfProcessingException("At least 2 files are required for merging");
+        }
+
+        int effectiveGroupSize = groupSize != null ? groupSize : defaultGroupSize;
+        if (effectiveGroupSize < 2) {
+            throw new PdfProcessingException("Merge group size must be at least 2");
+        }
+
+        return sdkScheduler.execute(SdkOperation.MERGE,
+                () -> doMergePdfsTree(inputs, outputFileName, effectiveGroupSize));
+    }
+
+    /**
+     * Runs the tree merge inside the merge bulkhead; groups are merged on the merge pool.
+     */
+    private TreeMergeResponse doMergePdfsTree(List<PdfInput> inputs, String outputFileName, int groupSize) {
+        logger.info("Starting tree merge of {} files in groups of {}", inputs.size(), groupSize);
 
-            return response;
+        long mergeStart = System.nanoTime();
+        outputFileName = resolveOutputFileName(outputFileName);
+        File outputFile = new File(outputDir, outputFileName);
 
+        List<MergeLevelTiming> levels = new ArrayList<>();
+        List<File> intermediates = new ArrayList<>();
+        boolean completed = false;
+
+        try {
+            long levelStart = System.nanoTime();
+            validateInputs(inputs);
+            levels.add(new MergeLevelTiming(0, inputs.size(), inputs.size(), millisSince(levelStart)));
+
+            List<File> documents = new ArrayList<>(inputs.size());
+            inputs.forEach(input -> documents.add(input.getFile()));
+
+            int level = 1;
+            while (documents.size() > groupSize) {
+                levelStart = System.nanoTime();
+                List<File> merged = mergeLevel(documents, groupSize, level);
+                levels.add(new MergeLevelTiming(level, documents.size(), merged.size(), millisSince(levelStart)));
+
+                // The previous level's intermediates are no longer needed once the next ones exist
+                intermediates.stream().filter(file -> !merged.contains(file)).forEach(PdfMergeService::deleteQuietly);
+                intermediates.retainAll(merged);
+                merged.stream().filter(file -> !documents.contains(file)).forEach(intermediates::add);
+
+                documents.clear();
+                documents.addAll(merged);
+                level++;
+            }
+
+            levelStart = System.nanoTime();
+            mergeGroup(documents, outputFile);
+            levels.add(new MergeLevelTiming(level, documents.size(), 1, millisSince(levelStart)));
+
+            completed = true;
+        } catch (PdfProcessingException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error merging PDFs", e);
             throw new PdfProcessingException("Failed to merge PDF files", e);
         } finally {
-            // Clean up temporary files
-            cleanupTempFiles(tempFiles);
+            intermediates.forEach(PdfMergeService::deleteQuietly);
+            if (!completed) {
+                deleteQuietly(outputFile);
+            }
         }
+
+        TreeMergeResponse response = new TreeMergeResponse();
+        response.output = createFileResponse(outputFile);
+        response.groupSize = groupSize;
+        response.levels = levels;
+        response.totalMillis = millisSince(mergeStart);
+
+        logger.info("Tree merge completed in {} ms over {} levels: {}",
+                    String.format("%.1f", response.totalMillis), levels.size() - 1, outputFileName);
+
+        return response;
     }
 
     /**
-     * Saves an uploaded file to the upload directory.
+     * Opens every input on the merge pool and fails on the first one that cannot be opened.
+     * Validations that have not started yet are skipped, and those already running are
+     * waited for, since native work cannot be cancelled.
      *
-     * @param file the uploaded file
-     * @return the saved file
-     * @throws IOException if file save fails
+     * @param inputs inputs to check
+     * @throws PdfProcessingException naming the first input found to be invalid
      */
-    private File saveUploadedFile(MultipartFile file) throws IOException {
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path filePath = Paths.get(uploadDir, fileName);
-        Files.createDirectories(filePath.getParent());
-        Files.write(filePath, file.getBytes());
-        return filePath.toFile();
+    private void validateInputs(List<PdfInput> inputs) throws InterruptedException {
+        CompletionService<Integer> completionService = new ExecutorCompletionService<>(mergeExecutor);
+        List<Future<Integer>> futures = new ArrayList<>(inputs.size());
+        AtomicBoolean aborted = new AtomicBoolean();
+
+        for (int i = 0; i < inputs.size(); i++) {
+            int index = i;
+            PdfInput input = inputs.get(i);
+            futures.add(completionService.submit(SdkBulkheadScheduler.propagate(() -> {
+                if (aborted.get()) {
+                    return index;
+                }
+                try (SdkDocument document = input.open(pdfSdk)) {
+                    document.getPageCount();
+                    return index;
+                } catch (Exception e) {
+                    throw new InvalidInputException(index, e);
+                }
+            })));
+        }
+
+        try {
+            for (int i = 0; i < inputs.size(); i++) {
+                completionService.take().get();
+            }
+        } catch (ExecutionException e) {
+            aborted.set(true);
+            WorkerFutures.awaitAll(futures);
+            if (e.getCause() instanceof InvalidInputException invalid) {
+                PdfInput input = inputs.get(invalid.index);
+                String name = input.getOriginalFilename() != null ? input.getOriginalFilename() : "unnamed";
+                throw new PdfProcessingException("Input " + (invalid.index + 1) + " (" + name
+                        + ") cannot be opened: " + invalid.getCause().getMessage(), invalid.getCause());
+            }
+            throw new PdfProcessingException("Failed to validate merge inputs", e.getCause());
+        } catch (InterruptedException e) {
+            aborted.set(true);
+            WorkerFutures.awaitAll(futures);
+            throw e;
+        }
     }
 
     /**
-     * Cleans up temporary files after processing.
+     * Merges one level of the tree: every group of documents is merged concurrently into an
+     * intermediate document. A trailing group of a single document is carried over as is.
      *
-     * @param tempFiles list of temporary files to delete
+     * @param documents documents of this level, in output order
+     * @param groupSize number of documents per group
+     * @param level level number, used in intermediate file names
+     * @return documents of the next level, in output order
      */
-    private void cleanupTempFiles(List<File> tempFiles) {
-        for (File file : tempFiles) {
-            try {
-                if (file != null && file.exists()) {
-                    Files.delete(file.toPath());
+    private List<File> mergeLevel(List<File> documents, int groupSize, int level) throws Exception {
+        Path directory = Paths.get(uploadDir).toAbsolutePath();
+        Files.createDirectories(directory);
+        String prefix = "merge_" + UUID.randomUUID() + "_l" + level + "_g";
+
+        List<Future<File>> futures = new ArrayList<>();
+        AtomicBoolean aborted = new AtomicBoolean();
+        for (int start = 0; start < documents.size(); start += groupSize) {
+            List<File> group = documents.subList(start, Math.min(start + groupSize, documents.size()));
+            if (group.size() == 1) {
+                futures.add(CompletableFuture.completedFuture(group.get(0)));
+                continue;
+            }
+
+            File intermediate = directory.resolve(prefix + (start / groupSize) + ".tmp.pdf").toFile();
+            futures.add(mergeExecutor.submit(SdkBulkheadScheduler.propagate(() -> {
+                if (aborted.get()) {
+                    return intermediate;
+                }
+                try {
+                    mergeGroup(group, intermediate);
+                } catch (Exception e) {
+                    deleteQuietly(intermediate);
+                    throw e;
+                }
+                return intermediate;
+            })));
+        }
+
+        List<File> merged = new ArrayList<>(futures.size());
+        try {
+            // Futures are collected in submission order, which keeps the documents in output order
+            for (Future<File> future : futures) {
+                merged.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            abortLevel(futures, aborted, directory, prefix);
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        } catch (InterruptedException e) {
+            abortLevel(futures, aborted, directory, prefix);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+
+        return merged;
+    }
+
+    /**
+     * Stops the groups of a failed level, waits for the running ones and only then deletes the
+     * intermediates, so that no group writes its output after the cleanup.
+     */
+    private void abortLevel(List<Future<File>> futures, AtomicBoolean aborted, Path directory, String prefix) {
+        aborted.set(true);
+        WorkerFutures.awaitAll(futures);
+        for (int i = 0; i < futures.size(); i++) {
+            deleteQuietly(directory.resolve(prefix + i + ".tmp.pdf").toFile());
+        }
+    }
+
+    /**
+     * Appends documents to one assembler, in order.
+     *
+     * @param documents documents to merge
+     * @param outputFile file to write the merged document to
+     */
+    private void mergeGroup(List<File> documents, File outputFile) throws Exception {
+        try (SdkAssembler assembler = pdfSdk.createAssembler(outputFile)) {
+            for (File file : documents) {
+                try (SdkDocument document = pdfSdk.open(file)) {
+                    assembler.append(document);
                 }
-            } catch (IOException e) {
-                logger.warn("Failed to delete temp file: {}", file.getAbsolutePath(), e);
             }
+            assembler.assemble();
+        }
+    }
+
+    /**
+     * Generates an output filename if none was given and ensures the .pdf extension.
+     *
+     * @param outputFileName requested output filename, may be null
+     * @return output filename
+     */
+    private String resolveOutputFileName(String outputFileName) {
+        if (outputFileName == null || outputFileName.isEmpty()) {
+            outputFileName = "merged_" + UUID.randomUUID().toString() + ".pdf";
+        }
+        if (!outputFileName.endsWith(".pdf")) {
+            outputFileName += ".pdf";
+        }
+        return outputFileName;
+    }
+
+    /**
+     * Creates FileResponse from the merged file and registers it for retention.
+     *
+     * @param file the merged file
+     * @return FileResponse
+     */
+    private FileResponse createFileResponse(File file) {
+        outputRetention.register(file);
+
+        FileResponse response = new FileResponse();
+        response.fileName = file.getName();
+        response.filePath = file.getAbsolutePath();
+        response.fileSize = file.length();
+        response.downloadUrl = "/download/" + file.getName();
+        return response;
+    }
+
+    private static double millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000.0;
+    }
+
+    private static void deleteQuietly(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            logger.warn("Failed to delete merge file: {}", file.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Marks which input failed to open during validation.
+     */
+    private static final class InvalidInputException extends Exception {
+
+        private final int index;
+
+        InvalidInputException(int index, Throwable cause) {
+            super(cause);
+            this.index = index;
         }
     }
 }
@@ -0,0 +1,306 @@
+package com.pdfeditor.service;
+
+import com.pdfeditor.concurrency.SdkBulkheadScheduler;
+import com.pdfeditor.concurrency.SdkOperation;
+import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.dto.PipelineResponse;
+import com.pdfeditor.dto.PipelineStageTiming;
+import com.pdfeditor.dto.PipelineStep;
+import com.pdfeditor.exception.InvalidRequestException;
+import com.pdfeditor.exception.PdfProcessingException;
+import com.pdfeditor.sdk.CompressionProfile;
+import com.pdfeditor.sdk.PdfAAnalysis;
+import com.pdfeditor.sdk.PdfSdk;
+import com.pdfeditor.sdk.SdkAssembler;
+import com.pdfeditor.sdk.SdkDocument;
+import com.pdfeditor.storage.OutputRetentionService;
+import com.pdfeditor.storage.PdfInput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Service for fused operation pipelines, e.g. merge, then compress, then convert to PDF/A.
+ *
+ * The inputs are opened once and each step hands its result to the next one as an open
+ * document, without writing it to the output directory or uploading it again. Intermediate
+ * documents are kept in memory while the inputs total at most
+ * {@code app.pipeline.memory-buffer-max-bytes}, and in temporary files in the upload
+ * directory otherwise. Only the last step writes to the output directory.
+ *
+ * @author PDF Editor Team
+ */
+@Service
+public class PdfPipelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfPipelineService.class);
+
+    private static final String MERGE = "merge";
+    private static final String COMPRESS = "compress";
+    private static final String PDFA = "pdfa";
+
+    private static final String WEB = "web";
+    private static final String PRINT = "print";
+
+    @Autowired
+    private SdkBulkheadScheduler sdkScheduler;
+
+    @Autowired
+    private PdfSdk pdfSdk;
+
+    @Autowired
+    private OutputRetentionService outputRetention;
+
+    @Value("${app.output.dir}")
+    private String outputDir;
+
+    @Value("${app.upload.dir}")
+    private String uploadDir;
+
+    @Value("${app.pipeline.memory-buffer-max-bytes:67108864}")
+    private long memoryBufferMaxBytes;
+
+    /**
+     * Runs a pipeline of steps over the inputs.
+     *
+     * @param inputs PDF inputs; more than one requires a leading merge step
+     * @param steps steps in execution order
+     * @param outputFileName desired output filename (optional)
+     * @return the final artifact and per-stage timings
+     * @throws InvalidRequestException if the steps do not form a valid pipeline for the inputs
+     * @throws PdfProcessingException if a step fails
+     */
+    public PipelineResponse runPipeline(List<PdfInput> inputs, List<PipelineStep> steps, String outputFileName) {
+        validate(inputs, steps);
+
+        return sdkScheduler.execute(SdkOperation.PIPELINE, () -> doRunPipeline(inputs, steps, outputFileName));
+    }
+
+    /**
+     * Checks the step sequence and step options against the inputs before any SDK work is queued.
+     */
+    private static void validate(List<PdfInput> inputs, List<PipelineStep> steps) {
+        if (inputs == null || inputs.isEmpty()) {
+            throw new InvalidRequestException("No files provided for the pipeline");
+        }
+        if (steps == null || steps.isEmpty()) {
+            throw new InvalidRequestException("At least one pipeline step is required");
+        }
+
+        for (int i = 0; i < steps.size(); i++) {
+            PipelineStep step = steps.get(i);
+            String type = stepType(step);
+            String option = stepOption(step);
+            if (!MERGE.equals(type) && !COMPRESS.equals(type) && !PDFA.equals(type)) {
+                throw new InvalidRequestException("Invalid pipeline step: " + step.type);
+            }
+            if (MERGE.equals(type) && i > 0) {
+                throw new InvalidRequestException("Merge can only be the first pipeline step");
+            }
+            if (COMPRESS.equals(type)) {
+                if (option != null && !WEB.equals(option) && !PRINT.equals(option)) {
+                    throw new InvalidRequestException("Invalid compression profile for pipeline step: "
+                            + step.option + " (supported: web, print)");
+                }
+            } else if (option != null) {
+                throw new InvalidRequestException("Pipeline step " + type + " takes no option: " + step.option);
+            }
+        }
+
+        boolean startsWithMerge = MERGE.equals(stepType(steps.get(0)));
+        if (startsWithMerge && inputs.size() < 2) {
+            throw new InvalidRequestException("At least 2 files are required for merging");
+        }
+        if (!startsWithMerge && inputs.size() > 1) {
+            throw new InvalidRequestException("Pipelines over several files must start with a merge step");
+        }
+    }
+
+    /**
+     * Runs the pipeline inside its SDK bulkhead.
+     */
+    private PipelineResponse doRunPipeline(List<PdfInput> inputs, List<PipelineStep> steps, String outputFileName) {
+        logger.info("Starting pipeline {} over {} files", describe(steps), inputs.size());
+
+        long pipelineStart = System.nanoTime();
+        long inputBytes = inputs.stream().mapToLong(PdfInput::getSize).sum();
+        boolean inMemory = inputBytes <= memoryBufferMaxBytes;
+
+        if (outputFileName == null || outputFileName.isEmpty()) {
+            outputFileName = "pipeline_" + UUID.randomUUID().toString() + ".pdf";
+        }
+        if (!outputFileName.endsWith(".pdf")) {
+            outputFileName += ".pdf";
+        }
+        File outputFile = new File(outputDir, outputFileName);
+
+        List<PipelineStageTiming> timings = new ArrayList<>();
+        List<SdkDocument> sources = new ArrayList<>(inputs.size());
+        List<File> buffers = new ArrayList<>();
+        SdkDocument intermediate = null;
+        boolean completed = false;
+
+        try {
+            long stageStart = System.nanoTime();
+            int inputPages = 0;
+            for (PdfInput input : inputs) {
+                SdkDocument source = input.open(pdfSdk);
+                sources.add(source);
+                inputPages += source.getPageCount();
+            }
+            timings.add(timing("open", inputPages, stageStart));
+
+            for (int i = 0; i < steps.size(); i++) {
+                PipelineStep step = steps.get(i);
+                String type = stepType(step);
+                boolean last = i == steps.size() - 1;
+                SdkDocument current = intermediate != null ? intermediate : sources.get(0);
+                File buffer = last || inMemory ? null : newBuffer(buffers);
+
+                stageStart = System.nanoTime();
+                int stagePages = MERGE.equals(type) ? inputPages : current.getPageCount();
+                SdkDocument result = null;
+
+                switch (type) {
+                    case MERGE:
+                        if (last) {
+                            try (SdkAssembler assembler = pdfSdk.createAssembler(outputFile)) {
+                                for (SdkDocument source : sources) {
+                                    assembler.append(source);
+                                }
+                                assembler.assemble();
+                            }
+                        } else {
+                            result = pdfSdk.mergeToDocument(sources, buffer);
+                        }
+                        break;
+
+                    case COMPRESS:
+                        CompressionProfile profile = PRINT.equals(stepOption(step))
+                                ? CompressionProfile.PRINT : CompressionProfile.WEB;
+                        if (last) {
+                            pdfSdk.optimize(current, outputFile, profile);
+                        } else {
+                            result = pdfSdk.optimizeToDocument(current, profile, buffer);
+                        }
+                        break;
+
+                    default:
+                        PdfAAnalysis analysis = pdfSdk.analyzePdfA(current);
+                        if (last) {
+                            pdfSdk.convertToPdfA(analysis, current, outputFile);
+                        } else {
+                            result = pdfSdk.convertToPdfADocument(analysis, current, buffer);
+                        }
+                        break;
+                }
+
+                // The previous intermediate is no longer needed once the next one exists
+                if (intermediate != null) {
+                    intermediate.close();
+                }
+                intermediate = result;
+
+                timings.add(timing(type, stagePages, stageStart));
+            }
+
+            completed = true;
+        } catch (Exception e) {
+            logger.error("Error running pipeline", e);
+            throw new PdfProcessingException("Failed to run pipeline: " + e.getMessage(), e);
+        } finally {
+            closeQuietly(intermediate);
+            sources.forEach(PdfPipelineService::closeQuietly);
+            buffers.forEach(PdfPipelineService::deleteQuietly);
+            if (!completed) {
+                deleteQuietly(outputFile);
+            }
+        }
+
+        outputRetention.register(outputFile);
+
+        FileResponse output = new FileResponse();
+        output.fileName = outputFileName;
+        output.filePath = outputFile.getAbsolutePath();
+        output.fileSize = outputFile.length();
+        output.downloadUrl = "/download/" + outputFileName;
+        output.originalSize = inputBytes;
+
+        PipelineResponse response = new PipelineResponse();
+        response.output = output;
+        response.stages = timings;
+        response.totalMillis = millisSince(pipelineStart);
+
+        logger.info("Pipeline completed in {} ms: {} -> {} bytes",
+                    String.format("%.1f", response.totalMillis), inputBytes, output.fileSize);
+
+        return response;
+    }
+
+    private File newBuffer(List<File> buffers) throws IOException {
+        Path directory = Paths.get(uploadDir).toAbsolutePath();
+        Files.createDirectories(directory);
+        File buffer = directory.resolve("pipeline_" + UUID.randomUUID() + ".tmp.pdf").toFile();
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private static String stepType(PipelineStep step) {
+        return step != null && step.type != null ? step.type.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Returns the normalized step option, or null when none was given.
+     */
+    private static String stepOption(PipelineStep step) {
+        if (step == null || step.option == null || step.option.isBlank()) {
+            return null;
+        }
+        return step.option.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String describe(List<PipelineStep> steps) {
+        List<String> types = new ArrayList<>(steps.size());
+        steps.forEach(step -> types.add(stepType(step)));
+        return String.join(" -> ", types);
+    }
+
+    private static PipelineStageTiming timing(String stage, int pages, long startNanos) {
+        return new PipelineStageTiming(stage, pages, millisSince(startNanos));
+    }
+
+    private static double millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000.0;
+    }
+
+    private static void closeQuietly(SdkDocument document) {
+        if (document == null) {
+            return;
+        }
+        try {
+            document.close();
+        } catch (Exception e) {
+            logger.warn("Failed to close pipeline document", e);
+        }
+    }
+
+    private static void deleteQuietly(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            logger.warn("Failed to delete pipeline file: {}", file.getAbsolutePath(), e);
+        }
+    }
+}
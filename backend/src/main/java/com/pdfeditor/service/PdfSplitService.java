@@ -1,31 +1,52 @@
 package com.pdfeditor.service;
 
+import com.pdfeditor.cache.ResultCache;
+import com.pdfeditor.concurrency.RequestCoalescer;
+import com.pdfeditor.concurrency.SdkBulkheadScheduler;
+import com.pdfeditor.concurrency.SdkOperation;
+import com.pdfeditor.concurrency.WorkerFutures;
 import com.pdfeditor.dto.FileResponse;
 import com.pdfeditor.dto.SplitRequest;
 import com.pdfeditor.exception.PdfProcessingException;
-import com.pdftools.pdf.Document;
-import com.pdftools.documentassembly.DocumentAssembler;
-import com.pdftools.documentassembly.PageCopyOptions;
-import com.pdftools.sys.FileStream;
+import com.pdfeditor.sdk.PdfSdk;
+import com.pdfeditor.sdk.SdkAssembler;
+import com.pdfeditor.sdk.SdkDocument;
+import com.pdfeditor.storage.OutputRetentionService;
+import com.pdfeditor.storage.PdfInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.util.unit.DataSize;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service for splitting a PDF file into multiple PDFs.
  * Uses PDF Tools SDK DocumentAssembler for split operations.
  *
+ * All parts are planned up front. Large splits are spread across the split worker pool,
+ * each worker writing a contiguous slice of the parts from its own source handle; output
+ * names and the order of the result do not depend on the parallelism.
+ *
+ * The "size" mode cannot be planned up front: parts are grown from a running estimate of the
+ * assembled bytes per page and written one after another.
+ *
  * @author PDF Editor Team
  */
 @Service
@@ -33,174 +54,442 @@ public class PdfSplitService {
 
     private static final Logger logger = LoggerFactory.getLogger(PdfSplitService.class);
 
-    @Value("${app.upload.dir}")
-    private String uploadDir;
+    /** Fraction of the size limit aimed for when a candidate part came out too large. */
+    private static final double SIZE_SHRINK_TARGET = 0.95;
+
+    @Autowired
+    private SdkBulkheadScheduler sdkScheduler;
+
+    @Autowired
+    private RequestCoalescer coalescer;
+
+    @Autowired
+    private ResultCache resultCache;
+
+    @Autowired
+    private PdfSdk pdfSdk;
+
+    @Autowired
+    private OutputRetentionService outputRetention;
 
     @Value("${app.output.dir}")
     private String outputDir;
 
+    @Value("${app.split.threads:4}")
+    private int splitThreads;
+
+    @Value("${app.split.max-parallelism:4}")
+    private int maxParallelism;
+
+    @Value("${app.split.min-parts-per-worker:8}")
+    private int minPartsPerWorker;
+
+    @Autowired
+    @Qualifier("splitExecutor")
+    private ExecutorService splitExecutor;
+
     /**
      * Splits a PDF file based on the provided split request.
      *
-     * @param file the PDF file to split
+     * @param input the PDF input to split
      * @param splitRequest split configuration
      * @return list of FileResponse for each split PDF
      * @throws PdfProcessingException if split operation fails
      */
-    public List<FileResponse> splitPdf(MultipartFile file, SplitRequest splitRequest) {
-        logger.info("Starting PDF split operation: mode={}, points={}",
-                    splitRequest.splitMode, splitRequest.splitPoints.size());
+    public List<FileResponse> splitPdf(PdfInput input, SplitRequest splitRequest) {
+        return splitPdf(input, splitRequest, ProgressListener.NONE);
+    }
 
-        if (file == null || file.isEmpty()) {
+    /**
+     * Splits a PDF file, reporting one unit of progress per written part.
+     *
+     * @param input the PDF input to split
+     * @param splitRequest split configuration
+     * @param progressListener listener receiving progress updates
+     * @return list of FileResponse for each split PDF
+     * @throws PdfProcessingException if split operation fails
+     */
+    public List<FileResponse> splitPdf(PdfInput input, SplitRequest splitRequest, ProgressListener progressListener) {
+        if (input == null) {
             throw new PdfProcessingException("No file provided for splitting");
         }
 
-        File tempFile = null;
-        List<FileResponse> responses = new ArrayList<>();
+        // Parallelism does not change the output, so it is not part of the coalescing key
+        String splitMode = splitRequest.splitMode != null ? splitRequest.splitMode.toLowerCase(Locale.ROOT) : null;
+        List<?> parameters = Arrays.asList(splitMode, splitRequest.splitPoints, splitRequest.outputFileNameBase);
+        return resultCache.getOrComputeAll(SdkOperation.SPLIT, List.of(input), parameters,
+                () -> coalescer.execute(SdkOperation.SPLIT, List.of(input), parameters,
+                        () -> sdkScheduler.execute(SdkOperation.SPLIT, () -> doSplitPdf(input, splitRequest, progressListener))));
+    }
 
-        try {
-            // Save uploaded file
-            tempFile = saveUploadedFile(file);
+    /**
+     * Runs the split operation inside its SDK bulkhead.
+     */
+    private List<FileResponse> doSplitPdf(PdfInput input, SplitRequest splitRequest, ProgressListener progressListener) {
+        logger.info("Starting PDF split operation: mode={}, points={}",
+                    splitRequest.splitMode, splitRequest.splitPoints.size());
+
+        List<FileResponse> responses;
 
+        try {
             // Open source document
-            FileStream sourceStream = new FileStream(tempFile.getAbsolutePath(), FileStream.Mode.READ_ONLY);
-            Document sourceDoc = Document.open(sourceStream, null);
+            SdkDocument sourceDoc = input.open(pdfSdk);
             int totalPages = sourceDoc.getPageCount();
 
             logger.info("Source PDF has {} pages", totalPages);
 
-            // Split based on mode
-            if ("ranges".equalsIgnoreCase(splitRequest.splitMode)) {
-                responses = splitByRanges(sourceDoc, splitRequest.splitPoints,
-                                         splitRequest.outputFileNameBase);
-            } else if ("pages".equalsIgnoreCase(splitRequest.splitMode)) {
-                responses = splitByPages(sourceDoc, splitRequest.splitPoints,
-                                        splitRequest.outputFileNameBase);
-            } else {
-                throw new PdfProcessingException("Invalid split mode: " + splitRequest.splitMode);
+            // Resolve the base name once so every part of this request shares it
+            String baseFileName = splitRequest.outputFileNameBase;
+            if (baseFileName == null || baseFileName.isEmpty()) {
+                baseFileName = "split_" + UUID.randomUUID().toString();
+            }
+
+            if ("size".equalsIgnoreCase(splitRequest.splitMode)) {
+                long maxPartBytes = parseMaxPartBytes(splitRequest.splitPoints);
+                try {
+                    responses = writePartsBySize(sourceDoc, input.getSize(), maxPartBytes, baseFileName,
+                                                 progressListener);
+                } finally {
+                    sourceDoc.close();
+                }
+
+                logger.info("PDF split completed successfully: {} files created (max {} bytes per part)",
+                            responses.size(), maxPartBytes);
+                return responses;
             }
 
-            sourceDoc.close();
-            sourceStream.close();
+            // All parts are known before any is written, so they can be spread across workers
+            List<SplitPart> parts = planParts(splitRequest.splitMode, splitRequest.splitPoints, totalPages);
+
+            int parallelism = resolveParallelism(splitRequest.parallelism, parts.size());
+            PartProgress progress = new PartProgress(progressListener, parts.size());
+
+            if (parallelism > 1) {
+                // Workers open their own handles, so release this one first
+                sourceDoc.close();
+
+                responses = writePartsInParallel(input, parts, baseFileName, parallelism, progress);
+            } else {
+                responses = writeParts(sourceDoc, parts, baseFileName, progress, new AtomicBoolean());
+
+                sourceDoc.close();
+            }
 
-            logger.info("PDF split completed successfully: {} files created", responses.size());
+            logger.info("PDF split completed successfully: {} files created (parallelism {})",
+                        responses.size(), parallelism);
 
             return responses;
 
+        } catch (PdfProcessingException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error splitting PDF", e);
             throw new PdfProcessingException("Failed to split PDF file", e);
-        } finally {
-            // Clean up temp file
-            if (tempFile != null && tempFile.exists()) {
-                try {
-                    Files.delete(tempFile.toPath());
-                } catch (IOException e) {
-                    logger.warn("Failed to delete temp file", e);
+        }
+    }
+
+    /**
+     * Computes the parts of a split.
+     *
+     * @param splitMode "ranges", "pages" or "every"
+     * @param splitPoints ranges (e.g. "1-3"), split page numbers, or a single page count per part
+     * @param totalPages total pages in the source document
+     * @return parts in output order
+     * @throws PdfProcessingException if the mode is unknown or a range is out of bounds
+     */
+    static List<SplitPart> planParts(String splitMode, List<String> splitPoints, int totalPages) {
+        List<SplitPart> parts = new ArrayList<>();
+
+        if ("ranges".equalsIgnoreCase(splitMode)) {
+            // Splits PDF by page ranges (e.g., "1-3", "4-6", "7-10")
+            for (int i = 0; i < splitPoints.size(); i++) {
+                String[] bounds = splitPoints.get(i).split("-");
+                int startPage = Integer.parseInt(bounds[0].trim());
+                int endPage = Integer.parseInt(bounds[1].trim());
+
+                // Validate page range
+                if (startPage < 1 || startPage > totalPages) {
+                    throw new PdfProcessingException("Start page " + startPage + " is out of range. PDF has "
+                            + totalPages + " pages (valid range: 1-" + totalPages + ")");
                 }
+                if (endPage < startPage || endPage > totalPages) {
+                    throw new PdfProcessingException("End page " + endPage + " is out of range. PDF has "
+                            + totalPages + " pages (valid range: " + startPage + "-" + totalPages + ")");
+                }
+
+                parts.add(new SplitPart(i + 1, startPage, endPage));
+            }
+        } else if ("pages".equalsIgnoreCase(splitMode)) {
+            // Splits PDF at specific page numbers (creates files between split points)
+            List<Integer> points = new ArrayList<>();
+            points.add(1); // Start from page 1
+            for (String point : splitPoints) {
+                points.add(Integer.parseInt(point.trim()));
+            }
+            points.add(totalPages + 1); // End after last page
+
+            for (int i = 0; i < points.size() - 1; i++) {
+                int startPage = points.get(i);
+                int endPage = points.get(i + 1) - 1;
+                if (startPage <= endPage) {
+                    parts.add(new SplitPart(i + 1, startPage, endPage));
+                }
+            }
+        } else if ("every".equalsIgnoreCase(splitMode)) {
+            // Splits PDF into parts of N pages; the last part may be shorter
+            if (splitPoints.size() != 1) {
+                throw new PdfProcessingException("Split mode 'every' takes a single page count");
+            }
+            int pagesPerPart = Integer.parseInt(splitPoints.get(0).trim());
+            if (pagesPerPart < 1) {
+                throw new PdfProcessingException("Pages per part must be at least 1");
             }
+
+            for (int startPage = 1, partNumber = 1; startPage <= totalPages; startPage += pagesPerPart, partNumber++) {
+                parts.add(new SplitPart(partNumber, startPage, Math.min(totalPages, startPage + pagesPerPart - 1)));
+            }
+        } else {
+            throw new PdfProcessingException("Invalid split mode: " + splitMode);
         }
+
+        return parts;
     }
 
     /**
-     * Splits PDF by page ranges (e.g., "1-3", "4-6", "7-10").
+     * Determines how many workers write the parts of a request.
      *
-     * @param sourceDoc source document
-     * @param ranges list of page ranges
-     * @param baseFileName base name for output files
-     * @return list of FileResponse
+     * @param requested parallelism requested by the client (null for the configured maximum)
+     * @param partCount number of parts to write
+     * @return effective parallelism, at least 1
      */
-    private List<FileResponse> splitByRanges(Document sourceDoc, List<String> ranges, String baseFileName)
-            throws Exception {
-        List<FileResponse> responses = new ArrayList<>();
-        int totalPages = sourceDoc.getPageCount();
+    private int resolveParallelism(Integer requested, int partCount) {
+        int parallelism = requested != null ? requested : maxParallelism;
+        parallelism = Math.min(parallelism, maxParallelism);
+        parallelism = Math.min(parallelism, splitThreads);
+
+        // Avoid paying for extra document handles when each worker would only get a few parts
+        int workersByParts = (partCount + minPartsPerWorker - 1) / Math.max(1, minPartsPerWorker);
+        parallelism = Math.min(parallelism, workersByParts);
 
-        for (int i = 0; i < ranges.size(); i++) {
-            String range = ranges.get(i);
-            String[] parts = range.split("-");
-            int startPage = Integer.parseInt(parts[0].trim());
-            int endPage = Integer.parseInt(parts[1].trim());
+        return Math.max(1, parallelism);
+    }
 
-            logger.info("Splitting range {}: pages {}-{} (total pages: {})", i + 1, startPage, endPage, totalPages);
+    /**
+     * Writes parts on several workers, each with its own handle on the source document.
+     * Every worker gets a contiguous slice of the parts.
+     *
+     * If a worker fails, the others stop after their current part and are waited for, since
+     * native work cannot be cancelled, and every part file of the request is deleted.
+     *
+     * @param source source PDF
+     * @param parts parts to write, in output order
+     * @param baseFileName base name for output files
+     * @param parallelism number of workers
+     * @param progress progress shared by all workers
+     * @return list of FileResponse in part order
+     */
+    private List<FileResponse> writePartsInParallel(PdfInput source, List<SplitPart> parts, String baseFileName,
+                                                    int parallelism, PartProgress progress) throws Exception {
+        List<Future<List<FileResponse>>> futures = new ArrayList<>(parallelism);
+        AtomicBoolean aborted = new AtomicBoolean();
+        int chunkSize = (parts.size() + parallelism - 1) / parallelism;
+
+        for (int start = 0; start < parts.size(); start += chunkSize) {
+            List<SplitPart> chunk = parts.subList(start, Math.min(start + chunkSize, parts.size()));
+            futures.add(splitExecutor.submit(SdkBulkheadScheduler.propagate(() -> {
+                if (aborted.get()) {
+                    return List.<FileResponse>of();
+                }
+                try (SdkDocument document = source.open(pdfSdk)) {
+                    return writeParts(document, chunk, baseFileName, progress, aborted);
+                }
+            })));
+        }
 
-            // Validate page range
-            if (startPage < 1 || startPage > totalPages) {
-                String errorMsg = "Start page " + startPage + " is out of range. PDF has " + totalPages + " pages (valid range: 1-" + totalPages + ")";
-                logger.error(errorMsg);
-                throw new PdfProcessingException(errorMsg);
+        List<FileResponse> responses = new ArrayList<>(parts.size());
+        try {
+            // Futures are collected in submission order, which keeps the results in part order
+            for (Future<List<FileResponse>> future : futures) {
+                responses.addAll(future.get());
             }
-            if (endPage < startPage || endPage > totalPages) {
-                String errorMsg = "End page " + endPage + " is out of range. PDF has " + totalPages + " pages (valid range: " + startPage + "-" + totalPages + ")";
-                logger.error(errorMsg);
-                throw new PdfProcessingException(errorMsg);
+        } catch (ExecutionException e) {
+            abort(futures, aborted, parts, baseFileName);
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        } catch (InterruptedException e) {
+            abort(futures, aborted, parts, baseFileName);
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+
+        return responses;
+    }
+
+    /**
+     * Stops the workers of a failed parallel split, waits for them and deletes its part files.
+     */
+    private void abort(List<Future<List<FileResponse>>> futures, AtomicBoolean aborted,
+                       List<SplitPart> parts, String baseFileName) {
+        aborted.set(true);
+        WorkerFutures.awaitAll(futures);
+
+        for (SplitPart part : parts) {
+            File partFile = new File(outputDir, generateOutputFileName(baseFileName, part.number, part.startPage, part.endPage));
+            try {
+                Files.deleteIfExists(partFile.toPath());
+            } catch (IOException e) {
+                logger.warn("Failed to delete part of failed split: {}", partFile.getAbsolutePath(), e);
             }
+        }
+    }
+
+    /**
+     * Writes parts of an open document one after another, each with its own assembler.
+     *
+     * @param sourceDoc source document
+     * @param parts parts to write
+     * @param baseFileName base name for output files
+     * @param progress progress to advance after each part
+     * @param aborted set when the request has failed; remaining parts are then skipped
+     * @return list of FileResponse in part order
+     */
+    private List<FileResponse> writeParts(SdkDocument sourceDoc, List<SplitPart> parts, String baseFileName,
+                                          PartProgress progress, AtomicBoolean aborted) throws Exception {
+        List<FileResponse> responses = new ArrayList<>(parts.size());
 
-            String outputFileName = generateOutputFileName(baseFileName, i + 1, startPage, endPage);
+        for (SplitPart part : parts) {
+            if (aborted.get()) {
+                break;
+            }
+            String outputFileName = generateOutputFileName(baseFileName, part.number, part.startPage, part.endPage);
             File outputFile = new File(outputDir, outputFileName);
 
             // Create new document with specified page range
-            try (FileStream outputStream = new FileStream(outputFile.getAbsolutePath(), FileStream.Mode.READ_WRITE_NEW);
-                 DocumentAssembler assembler = new DocumentAssembler(outputStream)) {
+            try (SdkAssembler assembler = pdfSdk.createAssembler(outputFile)) {
 
                 // Copy page range (pages are 1-indexed in the API, both inclusive)
-                assembler.append(sourceDoc, startPage, endPage);
+                assembler.append(sourceDoc, part.startPage, part.endPage);
 
                 // Assemble the output
                 assembler.assemble();
             }
 
-            responses.add(createFileResponse(outputFile));
+            FileResponse response = createFileResponse(outputFile);
+            responses.add(response);
+            progress.partCompleted(response);
+            logger.debug("Wrote part {}: pages {}-{}", part.number, part.startPage, part.endPage);
         }
 
         return responses;
     }
 
     /**
-     * Splits PDF at specific page numbers (creates files between split points).
+     * Parses the single split point of the "size" mode.
+     *
+     * @param splitPoints split points of the request
+     * @return maximum bytes per part
+     * @throws PdfProcessingException if the limit is missing or not a positive size
+     */
+    private long parseMaxPartBytes(List<String> splitPoints) {
+        if (splitPoints.size() != 1) {
+            throw new PdfProcessingException("Split mode 'size' takes a single maximum part size");
+        }
+
+        long maxPartBytes;
+        try {
+            // Plain numbers are bytes; KB, MB and GB suffixes are accepted as well
+            maxPartBytes = DataSize.parse(splitPoints.get(0).trim().toUpperCase(Locale.ROOT)).toBytes();
+        } catch (IllegalArgumentException e) {
+            throw new PdfProcessingException("Invalid maximum part size: " + splitPoints.get(0));
+        }
+        if (maxPartBytes < 1) {
+            throw new PdfProcessingException("Maximum part size must be positive");
+        }
+        return maxPartBytes;
+    }
+
+    /**
+     * Writes parts that each stay below a byte limit.
+     *
+     * Each part grows page by page while its estimated size stays within the limit and is then
+     * assembled once. If the assembled part is still too large, it is shrunk according to the
+     * size it actually had and assembled again; no page range is assembled twice. The estimate
+     * starts from the average page size of the source and is replaced by the bytes per page of
+     * every accepted part. A single page that is larger than the limit becomes a part of its own.
      *
      * @param sourceDoc source document
-     * @param splitPoints list of page numbers where splits occur
+     * @param sourceBytes size of the source file
+     * @param maxPartBytes maximum bytes per part
      * @param baseFileName base name for output files
-     * @return list of FileResponse
+     * @param listener listener receiving each part and progress in pages
+     * @return list of FileResponse in part order, with the number of assembly attempts per part
      */
-    private List<FileResponse> splitByPages(Document sourceDoc, List<String> splitPoints, String baseFileName)
-            throws Exception {
-        List<FileResponse> responses = new ArrayList<>();
+    private List<FileResponse> writePartsBySize(SdkDocument sourceDoc, long sourceBytes, long maxPartBytes,
+                                                String baseFileName, ProgressListener listener) throws Exception {
         int totalPages = sourceDoc.getPageCount();
+        List<FileResponse> responses = new ArrayList<>();
 
-        List<Integer> points = new ArrayList<>();
-        points.add(1); // Start from page 1
-
-        // Parse split points
-        for (String point : splitPoints) {
-            points.add(Integer.parseInt(point.trim()));
-        }
-
-        points.add(totalPages + 1); // End after last page
+        double bytesPerPage = (double) sourceBytes / Math.max(1, totalPages);
+        int totalAttempts = 0;
 
-        // Create documents between split points
-        for (int i = 0; i < points.size() - 1; i++) {
-            int startPage = points.get(i);
-            int endPage = points.get(i + 1) - 1;
+        for (int startPage = 1, partNumber = 1; startPage <= totalPages; partNumber++) {
+            int remainingPages = totalPages - startPage + 1;
 
-            if (startPage > endPage) continue;
+            // Grow the part while one more page would still fit the estimate
+            int pageCount = 1;
+            while (pageCount < remainingPages && (pageCount + 1) * bytesPerPage <= maxPartBytes) {
+                pageCount++;
+            }
 
-            String outputFileName = generateOutputFileName(baseFileName, i + 1, startPage, endPage);
-            File outputFile = new File(outputDir, outputFileName);
+            File candidate = new File(outputDir, String.format("%s_part%d.tmp", baseFileName, partNumber));
+            int attempts = 0;
+            long partBytes;
+            try {
+                while (true) {
+                    try (SdkAssembler assembler = pdfSdk.createAssembler(candidate)) {
+                        assembler.append(sourceDoc, startPage, startPage + pageCount - 1);
+                        assembler.assemble();
+                    }
+                    attempts++;
+                    partBytes = candidate.length();
+
+                    if (partBytes <= maxPartBytes || pageCount == 1) {
+                        break;
+                    }
+
+                    // Shrink by what this candidate actually took, always by at least one page
+                    bytesPerPage = (double) partBytes / pageCount;
+                    int fittingPages = (int) (maxPartBytes * SIZE_SHRINK_TARGET / bytesPerPage);
+                    pageCount = Math.max(1, Math.min(pageCount - 1, fittingPages));
+                }
 
-            try (FileStream outputStream = new FileStream(outputFile.getAbsolutePath(), FileStream.Mode.READ_WRITE_NEW);
-                 DocumentAssembler assembler = new DocumentAssembler(outputStream)) {
+                int endPage = startPage + pageCount - 1;
+                File outputFile = new File(outputDir, generateOutputFileName(baseFileName, partNumber, startPage, endPage));
+                Files.move(candidate.toPath(), outputFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
 
-                // Copy page range
-                assembler.append(sourceDoc, startPage, endPage);
+                if (partBytes > maxPartBytes) {
+                    logger.warn("Page {} alone is {} bytes, above the part limit of {} bytes",
+                                startPage, partBytes, maxPartBytes);
+                }
 
-                // Assemble the output
-                assembler.assemble();
+                FileResponse response = createFileResponse(outputFile);
+                response.assemblyAttempts = attempts;
+                responses.add(response);
+                listener.onOutput(response);
+                listener.onProgress(endPage, totalPages);
+                logger.debug("Wrote part {}: pages {}-{}, {} bytes after {} attempts",
+                             partNumber, startPage, endPage, partBytes, attempts);
+
+                // Later parts are estimated from what this one actually took
+                bytesPerPage = (double) partBytes / pageCount;
+                startPage = endPage + 1;
+                totalAttempts += attempts;
+            } finally {
+                Files.deleteIfExists(candidate.toPath());
             }
-
-            responses.add(createFileResponse(outputFile));
         }
 
+        logger.info("Size split wrote {} parts with {} assembly attempts", responses.size(), totalAttempts);
         return responses;
     }
 
@@ -214,19 +503,18 @@ public class PdfSplitService {
      * @return generated filename
      */
     private String generateOutputFileName(String baseFileName, int partNumber, int startPage, int endPage) {
-        if (baseFileName == null || baseFileName.isEmpty()) {
-            baseFileName = "split_" + UUID.randomUUID().toString();
-        }
         return String.format("%s_part%d_pages%d-%d.pdf", baseFileName, partNumber, startPage, endPage);
     }
 
     /**
-     * Creates FileResponse from output file.
+     * Creates FileResponse from output file and registers it for retention.
      *
      * @param file the output file
      * @return FileResponse
      */
     private FileResponse createFileResponse(File file) {
+        outputRetention.register(file);
+
         FileResponse response = new FileResponse();
         response.fileName = file.getName();
         response.filePath = file.getAbsolutePath();
@@ -236,16 +524,38 @@ public class PdfSplitService {
     }
 
     /**
-     * Saves uploaded file to upload directory.
-     *
-     * @param file uploaded file
-     * @return saved file
+     * One output of a split: a page range and its position in the output.
+     */
+    static final class SplitPart {
+
+        final int number;
+        final int startPage;
+        final int endPage;
+
+        SplitPart(int number, int startPage, int endPage) {
+            this.number = number;
+            this.startPage = startPage;
+            this.endPage = endPage;
+        }
+    }
+
+    /**
+     * Forwards part completions from any worker to the request's listener.
      */
-    private File saveUploadedFile(MultipartFile file) throws IOException {
-        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-        Path filePath = Paths.get(uploadDir, fileName);
-        Files.createDirectories(filePath.getParent());
-        Files.write(filePath, file.getBytes());
-        return filePath.toFile();
+    private static final class PartProgress {
+
+        private final ProgressListener listener;
+        private final int total;
+        private final AtomicInteger completed = new AtomicInteger();
+
+        PartProgress(ProgressListener listener, int total) {
+            this.listener = listener;
+            this.total = total;
+        }
+
+        void partCompleted(FileResponse output) {
+            listener.onOutput(output);
+            listener.onProgress(completed.incrementAndGet(), total);
+        }
     }
 }
@@ -0,0 +1,35 @@
+package com.pdfeditor.service;
+
+import com.pdfeditor.dto.FileResponse;
+
+/**
+ * Receives progress updates from long-running PDF operations.
+ *
+ * Implementations must be thread-safe: operations that fan work out to several workers
+ * report progress from each of them.
+ *
+ * @author PDF Editor Team
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    /** Listener that ignores all updates. */
+    ProgressListener NONE = (completed, total) -> { };
+
+    /**
+     * Called whenever a unit of work (a page, a part, an input file) has completed.
+     *
+     * @param completed number of completed units
+     * @param total total number of units
+     */
+    void onProgress(int completed, int total);
+
+    /**
+     * Called when an operation that writes several files has finished writing one of them,
+     * so consumers can use it before the whole operation completes.
+     *
+     * @param output the finished output file
+     */
+    default void onOutput(FileResponse output) {
+    }
+}
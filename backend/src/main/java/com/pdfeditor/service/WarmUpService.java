@@ -0,0 +1,239 @@
+package com.pdfeditor.service;
+
+import com.pdfeditor.concurrency.SdkBulkheadScheduler;
+import com.pdfeditor.concurrency.SdkOperation;
+import com.pdfeditor.dto.WarmUpTiming;
+import com.pdfeditor.sdk.CompressionProfile;
+import com.pdfeditor.sdk.PdfAAnalysis;
+import com.pdfeditor.sdk.PdfSdk;
+import com.pdfeditor.sdk.RenderProfile;
+import com.pdfeditor.sdk.SdkAssembler;
+import com.pdfeditor.sdk.SdkDocument;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every SDK operation on a bundled two-page PDF before the application reports ready.
+ *
+ * The first call of an operation pays for class loading, JIT compilation and lazy
+ * initialization inside the native library. The warm-up runs each operation
+ * {@code app.warm-up.iterations} times through the {@link PdfSdk} facade, on the operation's
+ * bulkhead, so those costs are paid before traffic arrives. Spring Boot switches readiness to
+ * {@code ACCEPTING_TRAFFIC} only after application runners have finished, so
+ * {@code /api/ready} stays down until the warm-up is done while {@code /api/health}
+ * reports the process as alive. A failing operation is logged and reported but does not keep
+ * the application from becoming ready.
+ *
+ * Timings are recorded in {@code pdf.warmup} (tagged with the operation and {@code cold} or
+ * {@code warm}) and returned by {@link #getTimings()}.
+ *
+ * @author PDF Editor Team
+ */
+@Service
+public class WarmUpService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpService.class);
+
+    private static final String WARM_UP_PDF = "warmup/warmup.pdf";
+
+    @Autowired
+    private SdkBulkheadScheduler sdkScheduler;
+
+    @Autowired
+    private PdfSdk pdfSdk;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.warm-up.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.warm-up.iterations:3}")
+    private int iterations;
+
+    @Value("${app.upload.dir}")
+    private String uploadDir;
+
+    private volatile List<WarmUpTiming> timings = List.of();
+    private volatile double totalMillis;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!enabled) {
+            logger.info("Warm-up disabled");
+            return;
+        }
+
+        long start = System.nanoTime();
+        Path workDir = Files.createTempDirectory(Files.createDirectories(Paths.get(uploadDir)), "warmup-");
+        try {
+            File source = workDir.resolve("warmup.pdf").toFile();
+            try (InputStream in = new ClassPathResource(WARM_UP_PDF).getInputStream()) {
+                Files.copy(in, source.toPath());
+            }
+
+            List<WarmUpTiming> results = new ArrayList<>();
+            for (Map.Entry<SdkOperation, WarmUpStep> step : steps().entrySet()) {
+                results.add(warmUp(step.getKey(), step.getValue(), source, workDir));
+            }
+            timings = List.copyOf(results);
+        } finally {
+            FileSystemUtils.deleteRecursively(workDir);
+        }
+
+        totalMillis = (System.nanoTime() - start) / 1_000_000.0;
+        long failed = timings.stream().filter(timing -> timing.error != null).count();
+        logger.info("Warm-up of {} operations finished in {} ms ({} failed)",
+                    timings.size(), Math.round(totalMillis), failed);
+    }
+
+    /**
+     * Returns the timings of the warm-up, empty while it is running or when it is disabled.
+     *
+     * @return one timing per operation
+     */
+    public List<WarmUpTiming> getTimings() {
+        return timings;
+    }
+
+    /**
+     * Returns the total duration of the warm-up.
+     *
+     * @return duration in milliseconds, 0 while it is running or when it is disabled
+     */
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    private WarmUpTiming warmUp(SdkOperation operation, WarmUpStep step, File source, Path workDir) {
+        WarmUpTiming timing = new WarmUpTiming();
+        timing.operation = operation.getKey();
+
+        for (int iteration = 0; iteration < Math.max(iterations, 1); iteration++) {
+            String run = iteration == 0 ? "cold" : "warm";
+            File output = workDir.resolve(operation.getKey() + "-" + iteration).toFile();
+            long start = System.nanoTime();
+            try {
+                sdkScheduler.execute(operation, () -> {
+                    step.run(source, output);
+                    return null;
+                });
+            } catch (RuntimeException e) {
+                logger.warn("Warm-up of {} failed: {}", operation.getKey(), e.getMessage());
+                timing.error = e.getMessage();
+                return timing;
+            }
+
+            long nanos = System.nanoTime() - start;
+            Timer.builder("pdf.warmup")
+                    .tag("operation", operation.getKey())
+                    .tag("run", run)
+                    .description("Duration of startup warm-up runs")
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+
+            if (iteration == 0) {
+                timing.coldMillis = nanos / 1_000_000.0;
+            }
+            timing.warmMillis = nanos / 1_000_000.0;
+        }
+
+        logger.debug("Warmed up {}: cold {} ms, warm {} ms", timing.operation,
+                     Math.round(timing.coldMillis), Math.round(timing.warmMillis));
+        return timing;
+    }
+
+    /**
+     * The SDK calls each operation makes, in the order the warm-up runs them.
+     */
+    private Map<SdkOperation, WarmUpStep> steps() {
+        Map<SdkOperation, WarmUpStep> steps = new EnumMap<>(SdkOperation.class);
+
+        steps.put(SdkOperation.MERGE, (source, output) -> {
+            try (SdkDocument first = pdfSdk.open(source);
+                 SdkDocument second = pdfSdk.open(source);
+                 SdkAssembler assembler = pdfSdk.createAssembler(output)) {
+                assembler.append(first);
+                assembler.append(second);
+                assembler.assemble();
+            }
+        });
+        steps.put(SdkOperation.SPLIT, (source, output) -> {
+            try (SdkDocument document = pdfSdk.open(source);
+                 SdkAssembler assembler = pdfSdk.createAssembler(output)) {
+                assembler.append(document, 1, 1);
+                assembler.assemble();
+            }
+        });
+        steps.put(SdkOperation.COMPRESS, (source, output) -> {
+            try (SdkDocument document = pdfSdk.open(source)) {
+                pdfSdk.optimize(document, output, CompressionProfile.WEB);
+            }
+        });
+        steps.put(SdkOperation.CONVERT, (source, output) -> {
+            try (SdkDocument document = pdfSdk.open(source)) {
+                pdfSdk.renderPage(document, 1, output, RenderProfile.VIEWING);
+            }
+        });
+        steps.put(SdkOperation.VALIDATE, (source, output) -> {
+            try (SdkDocument document = pdfSdk.open(source)) {
+                pdfSdk.analyzePdfA(document);
+            }
+        });
+        steps.put(SdkOperation.PDFA_CONVERT, (source, output) -> {
+            try (SdkDocument document = pdfSdk.open(source)) {
+                PdfAAnalysis analysis = pdfSdk.analyzePdfA(document);
+                pdfSdk.convertToPdfA(analysis, document, output);
+            }
+        });
+        steps.put(SdkOperation.EXTRACT, (source, output) -> {
+            try (SdkDocument document = pdfSdk.open(source)) {
+                pdfSdk.extractText(document, null, null);
+            }
+        });
+        steps.put(SdkOperation.METADATA, (source, output) -> {
+            try (SdkDocument document = pdfSdk.open(source)) {
+                document.getMetadata();
+            }
+        });
+        steps.put(SdkOperation.PIPELINE, (source, output) -> {
+            try (SdkDocument document = pdfSdk.open(source);
+                 SdkDocument merged = pdfSdk.mergeToDocument(List.of(document), null);
+                 SdkDocument optimized = pdfSdk.optimizeToDocument(merged, CompressionProfile.WEB, null)) {
+                optimized.getPageCount();
+            }
+        });
+
+        return steps;
+    }
+
+    /**
+     * SDK calls run for one operation.
+     */
+    @FunctionalInterface
+    private interface WarmUpStep {
+
+        void run(File source, File output) throws Exception;
+    }
+}
@@ -0,0 +1,96 @@
+package com.pdfeditor.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 content hashing for files on disk and uploads held in memory.
+ *
+ * Files are read through a direct buffer so that hashing a large upload does not
+ * allocate heap proportional to its size.
+ *
+ * @author PDF Editor Team
+ */
+public final class ContentHash {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ContentHash() {
+    }
+
+    /**
+     * Computes the SHA-256 digest of a file.
+     *
+     * @param path file to hash
+     * @return lowercase hex encoded digest
+     * @throws IOException if the file cannot be read
+     */
+    public static String sha256Hex(Path path) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Computes the SHA-256 digest of in-memory content.
+     *
+     * @param content bytes to hash
+     * @return lowercase hex encoded digest
+     */
+    public static String sha256Hex(byte[] content) {
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+
+    /**
+     * Computes the SHA-256 digest of a string's UTF-8 encoding.
+     *
+     * @param value string to hash
+     * @return lowercase hex encoded digest
+     */
+    public static String sha256Hex(String value) {
+        return HexFormat.of().formatHex(newDigest().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Checks whether a string looks like a hex encoded SHA-256 digest.
+     *
+     * @param value candidate value
+     * @return true if the value is 64 lowercase hex characters
+     */
+    public static boolean isSha256Hex(String value) {
+        if (value == null || value.length() != 64) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
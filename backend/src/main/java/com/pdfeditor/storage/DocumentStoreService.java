@@ -0,0 +1,435 @@
+package com.pdfeditor.storage;
+
+import com.pdfeditor.exception.DocumentNotFoundException;
+import com.pdfeditor.exception.PdfProcessingException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Content-addressed store for uploaded PDF documents.
+ *
+ * Documents are keyed by the SHA-256 of their content, so uploading the same file twice
+ * yields the same document ID and a single copy on disk. Operations hold a reference while
+ * they read a document; unreferenced documents are evicted once their TTL expires or when
+ * the store grows beyond its disk budget, least recently used first.
+ *
+ * The index is guarded by a {@link ReentrantLock} rather than a monitor so request threads
+ * never pin their carrier while waiting for it, and file copies and deletions happen outside
+ * the lock: uploads are copied next to their final location first and only renamed under it,
+ * removed documents are renamed aside under it and deleted afterwards.
+ *
+ * @author PDF Editor Team
+ */
+@Service
+public class DocumentStoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentStoreService.class);
+
+    private static final String FILE_EXTENSION = ".pdf";
+    private static final String TEMP_MARKER = ".tmp-";
+
+    private final Map<String, StoredDocument> documents = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Total bytes of all indexed documents, guarded by {@link #lock}. */
+    private long totalBytes;
+
+    @Autowired
+    private UploadStagingService uploadStagingService;
+
+    @Value("${app.documents.dir}")
+    private String documentsDir;
+
+    @Value("${app.documents.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${app.documents.max-bytes:2147483648}")
+    private long maxBytes;
+
+    private Path storePath;
+
+    public DocumentStoreService(MeterRegistry meterRegistry) {
+        Gauge.builder("pdf.documents.count", documents, Map::size)
+                .description("Documents held by the document store")
+                .register(meterRegistry);
+        Gauge.builder("pdf.documents.bytes", this, DocumentStoreService::getTotalBytes)
+                .description("Bytes held by the document store")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Creates the store directory and re-indexes documents left over from a previous run.
+     */
+    @PostConstruct
+    public void initialize() throws IOException {
+        storePath = Paths.get(documentsDir).toAbsolutePath().normalize();
+        Files.createDirectories(storePath);
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(storePath, "*" + TEMP_MARKER + "*")) {
+            for (Path path : stream) {
+                deleteQuietly(path);
+            }
+        }
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(storePath, "*" + FILE_EXTENSION)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                String id = fileName.substring(0, fileName.length() - FILE_EXTENSION.length());
+                if (!ContentHash.isSha256Hex(id)) {
+                    continue;
+                }
+                long lastModified = Files.getLastModifiedTime(path).toMillis();
+                StoredDocument document = new StoredDocument(id, path, Files.size(path), fileName, lastModified);
+                documents.put(id, document);
+                totalBytes += document.getSize();
+            }
+        }
+
+        logger.info("Document store initialized at {} ({} documents, {} bytes)",
+                    storePath, documents.size(), totalBytes);
+    }
+
+    /**
+     * Stores an uploaded document, or returns the existing entry when identical content
+     * has been stored before.
+     *
+     * @param file the uploaded file
+     * @return the stored document
+     * @throws IOException if the upload cannot be staged or moved into the store
+     */
+    public StoredDocument store(MultipartFile file) throws IOException {
+        File staged = uploadStagingService.stage(file);
+        Path stagedPath = staged.toPath();
+        Path incoming = null;
+
+        try {
+            long size = Files.size(stagedPath);
+            if (size > maxBytes) {
+                throw new PdfProcessingException("Document of " + size
+                        + " bytes exceeds the document store budget of " + maxBytes + " bytes");
+            }
+
+            String id = ContentHash.sha256Hex(stagedPath);
+            long now = System.currentTimeMillis();
+            StoredDocument document;
+
+            lock.lock();
+            try {
+                document = reuse(id, file.getOriginalFilename(), now);
+            } finally {
+                lock.unlock();
+            }
+            if (document != null) {
+                return document;
+            }
+
+            // Copy into the store directory without holding the lock; the staging directory
+            // may live on another file system, so this can be a full copy of the upload.
+            incoming = tempPath(id);
+            moveIntoStore(stagedPath, incoming);
+
+            lock.lock();
+            try {
+                document = reuse(id, file.getOriginalFilename(), now);
+                if (document != null) {
+                    return document;
+                }
+
+                Path target = storePath.resolve(id + FILE_EXTENSION);
+                moveIntoStore(incoming, target);
+                incoming = null;
+
+                document = new StoredDocument(id, target, size, file.getOriginalFilename(), now);
+                documents.put(id, document);
+                totalBytes += size;
+            } finally {
+                lock.unlock();
+            }
+
+            logger.info("Stored document {} ({} bytes)", id, size);
+            evictToBudget(document);
+            return document;
+
+        } finally {
+            Files.deleteIfExists(stagedPath);
+            if (incoming != null) {
+                deleteQuietly(incoming);
+            }
+        }
+    }
+
+    /**
+     * Looks up a document and takes a reference on it. Every successful call must be paired
+     * with {@link #release(StoredDocument)}.
+     *
+     * @param id document ID
+     * @return the referenced document
+     * @throws DocumentNotFoundException if the document does not exist or has been evicted
+     */
+    public StoredDocument acquire(String id) {
+        lock.lock();
+        try {
+            StoredDocument document = find(id);
+            document.retain();
+            document.touch(System.currentTimeMillis());
+            return document;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a reference taken by {@link #acquire(String)}.
+     *
+     * @param document the referenced document
+     */
+    public void release(StoredDocument document) {
+        Path removed = null;
+        lock.lock();
+        try {
+            int remaining = document.release();
+            document.touch(System.currentTimeMillis());
+            if (remaining == 0 && document.isDeleted()) {
+                removed = remove(document);
+            }
+        } finally {
+            lock.unlock();
+        }
+        deleteQuietly(removed);
+    }
+
+    /**
+     * Returns information about a stored document without taking a reference.
+     *
+     * @param id document ID
+     * @return the stored document
+     * @throws DocumentNotFoundException if the document does not exist or has been evicted
+     */
+    public StoredDocument get(String id) {
+        lock.lock();
+        try {
+            return find(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes a document. Documents still referenced by running operations are removed
+     * as soon as the last reference is released.
+     *
+     * @param id document ID
+     * @throws DocumentNotFoundException if the document does not exist or has been evicted
+     */
+    public void delete(String id) {
+        Path removed = null;
+        lock.lock();
+        try {
+            StoredDocument document = find(id);
+            if (document.getRefCount() == 0) {
+                removed = remove(document);
+            } else {
+                document.setDeleted(true);
+            }
+        } finally {
+            lock.unlock();
+        }
+        deleteQuietly(removed);
+    }
+
+    /**
+     * Returns the time-to-live of unreferenced documents in milliseconds.
+     *
+     * @return TTL in milliseconds
+     */
+    public long getTtlMillis() {
+        return TimeUnit.MINUTES.toMillis(ttlMinutes);
+    }
+
+    /**
+     * Returns the total number of bytes held by the store.
+     *
+     * @return stored bytes
+     */
+    public long getTotalBytes() {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Evicts unreferenced documents whose TTL has expired, then trims the store to its budget.
+     */
+    @Scheduled(fixedDelayString = "${app.documents.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - getTtlMillis();
+        List<Path> removed = new ArrayList<>();
+
+        lock.lock();
+        try {
+            for (StoredDocument document : new ArrayList<>(documents.values())) {
+                if (document.getRefCount() == 0 && document.getLastAccess() < cutoff) {
+                    removed.add(remove(document));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        removed.forEach(this::deleteQuietly);
+        if (!removed.isEmpty()) {
+            logger.info("Evicted {} expired documents", removed.size());
+        }
+        evictToBudget(null);
+    }
+
+    /**
+     * Evicts unreferenced documents, least recently used first, until the store fits its budget.
+     *
+     * @param keep document that must not be evicted (may be null)
+     */
+    private void evictToBudget(StoredDocument keep) {
+        List<Path> removed = new ArrayList<>();
+        lock.lock();
+        try {
+            if (totalBytes <= maxBytes) {
+                return;
+            }
+
+            List<StoredDocument> candidates = new ArrayList<>();
+            for (StoredDocument document : documents.values()) {
+                if (document != keep && document.getRefCount() == 0) {
+                    candidates.add(document);
+                }
+            }
+            candidates.sort(Comparator.comparingLong(StoredDocument::getLastAccess));
+
+            for (StoredDocument document : candidates) {
+                if (totalBytes <= maxBytes) {
+                    break;
+                }
+                removed.add(remove(document));
+            }
+
+            if (totalBytes > maxBytes) {
+                logger.warn("Document store holds {} bytes, above its budget of {} bytes; "
+                            + "remaining documents are in use", totalBytes, maxBytes);
+            }
+        } finally {
+            lock.unlock();
+        }
+        removed.forEach(this::deleteQuietly);
+    }
+
+    /**
+     * Finds an indexed document. Must be called while holding {@link #lock}.
+     */
+    private StoredDocument find(String id) {
+        StoredDocument document = ContentHash.isSha256Hex(id) ? documents.get(id) : null;
+        if (document == null || document.isDeleted()) {
+            throw new DocumentNotFoundException("Document not found: " + id);
+        }
+        return document;
+    }
+
+    /**
+     * Returns the indexed document for {@code id}, undeleting and touching it, or null when
+     * it is not stored yet. Must be called while holding {@link #lock}.
+     */
+    private StoredDocument reuse(String id, String originalFilename, long now) {
+        StoredDocument document = documents.get(id);
+        if (document == null) {
+            return null;
+        }
+        document.setDeleted(false);
+        document.setOriginalFilename(originalFilename);
+        document.touch(now);
+        logger.info("Document {} already stored, reusing existing copy", id);
+        return document;
+    }
+
+    /**
+     * Removes a document from the index and renames its file aside so a later upload of the
+     * same content cannot collide with it. Must be called while holding {@link #lock}; the
+     * returned file must be deleted with {@link #deleteQuietly(Path)} after releasing it.
+     *
+     * @return the renamed file to delete, or null if there is nothing to delete
+     */
+    private Path remove(StoredDocument document) {
+        if (!documents.remove(document.getId(), document)) {
+            return null;
+        }
+        totalBytes -= document.getSize();
+        logger.debug("Removed document {} ({} bytes)", document.getId(), document.getSize());
+
+        Path doomed = tempPath(document.getId());
+        try {
+            Files.move(document.getPath(), doomed, StandardCopyOption.ATOMIC_MOVE);
+            return doomed;
+        } catch (IOException e) {
+            logger.warn("Failed to delete document file: {}", document.getPath(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns a unique temporary path in the store directory for the given document ID.
+     */
+    private Path tempPath(String id) {
+        return storePath.resolve(id + TEMP_MARKER + UUID.randomUUID());
+    }
+
+    /**
+     * Deletes a file, logging instead of failing. Ignores null.
+     */
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete document file: {}", path, e);
+        }
+    }
+
+    /**
+     * Moves a file into the store, atomically when source and target share a file system.
+     */
+    private void moveIntoStore(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
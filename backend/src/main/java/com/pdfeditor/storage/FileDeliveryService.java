@@ -0,0 +1,366 @@
+package com.pdfeditor.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends files to HTTP clients with validators, conditional requests and byte ranges.
+ *
+ * Responses carry a strong ETag derived from the SHA-256 of the content, so clients can
+ * revalidate with {@code If-None-Match} and viewers can fetch parts of large files with
+ * {@code Range}. Single-range and full responses are handed to Tomcat's sendfile support when
+ * the connector offers it, so the body goes from the page cache to the socket without passing
+ * through the JVM heap; otherwise, and for multipart/byteranges bodies,
+ * {@link FileChannel#transferTo} is used.
+ *
+ * @author PDF Editor Team
+ */
+@Service
+public class FileDeliveryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileDeliveryService.class);
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE_CACHE_CONTROL = "no-cache";
+
+    /** Hashes of files that are not content-addressed, keyed by path and invalidated by size and mtime. */
+    private final Map<Path, HashEntry> hashCache = new ConcurrentHashMap<>();
+
+    @Value("${app.download.max-ranges:16}")
+    private int maxRanges;
+
+    @Value("${app.download.hash-cache-entries:10000}")
+    private int hashCacheEntries;
+
+    @Value("${app.download.sendfile:true}")
+    private boolean sendfileEnabled;
+
+    /**
+     * Sends a file, answering conditional and range requests.
+     *
+     * @param request current request
+     * @param response current response
+     * @param file file to send
+     * @param contentHash SHA-256 of the file, or null to compute (and remember) it
+     * @param contentType MIME type of the file
+     * @param disposition Content-Disposition header value, or null for none
+     * @param immutable true if the content behind this URL can never change
+     * @throws IOException if the file cannot be read or the client disconnects
+     */
+    public void deliver(HttpServletRequest request, HttpServletResponse response, Path file,
+                        String contentHash, String contentType, String disposition,
+                        boolean immutable) throws IOException {
+        deliver(request, response, file, contentHash, contentType, disposition, immutable, true);
+    }
+
+    /**
+     * Sends a file, answering conditional and range requests.
+     *
+     * Sendfile hands the file to Tomcat, which opens it only after the handler has returned.
+     * Callers that may delete the file as soon as this method returns must pass
+     * {@code allowSendfile = false}, so the body is written before it returns.
+     *
+     * @param request current request
+     * @param response current response
+     * @param file file to send
+     * @param contentHash SHA-256 of the file, or null to compute (and remember) it
+     * @param contentType MIME type of the file
+     * @param disposition Content-Disposition header value, or null for none
+     * @param immutable true if the content behind this URL can never change
+     * @param allowSendfile false to always write the body before returning
+     * @throws IOException if the file cannot be read or the client disconnects
+     */
+    public void deliver(HttpServletRequest request, HttpServletResponse response, Path file,
+                        String contentHash, String contentType, String disposition,
+                        boolean immutable, boolean allowSendfile) throws IOException {
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = "\"" + (contentHash != null ? contentHash : hashOf(file, length, lastModified)) + "\"";
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, immutable ? IMMUTABLE_CACHE_CONTROL : REVALIDATE_CACHE_CONTROL);
+
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        if (disposition != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition);
+        }
+
+        boolean head = "HEAD".equals(request.getMethod());
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        List<long[]> ranges = rangeHeader != null && ifRangeMatches(request, etag, lastModified)
+                ? parseRanges(rangeHeader, length, maxRanges)
+                : null;
+
+        if (ranges != null && ranges.isEmpty()) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            return;
+        }
+
+        if (ranges == null) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            if (!head) {
+                sendRange(request, response, file, 0, length, allowSendfile);
+            }
+        } else if (ranges.size() == 1) {
+            long start = ranges.get(0)[0];
+            long end = ranges.get(0)[1];
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            response.setContentLengthLong(end - start + 1);
+            if (!head) {
+                sendRange(request, response, file, start, end + 1, allowSendfile);
+            }
+        } else {
+            sendMultipart(response, file, ranges, length, contentType, head);
+        }
+    }
+
+    /**
+     * Sends {@code [start, end)} of a file, through sendfile when the container supports it.
+     */
+    private void sendRange(HttpServletRequest request, HttpServletResponse response, Path file,
+                           long start, long end, boolean allowSendfile) throws IOException {
+        if (allowSendfile && sendfileEnabled && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat streams the file after the handler returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            transfer(channel, start, end - start, Channels.newChannel(out));
+            out.flush();
+        }
+    }
+
+    /**
+     * Sends several ranges as a multipart/byteranges body.
+     */
+    private void sendMultipart(HttpServletResponse response, Path file, List<long[]> ranges,
+                               long length, String contentType, boolean head) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        byte[] trailer = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        long contentLength = trailer.length;
+        for (long[] range : ranges) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + "Content-Type: " + contentType + "\r\n"
+                    + "Content-Range: bytes " + range[0] + "-" + range[1] + "/" + length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + range[1] - range[0] + 1;
+        }
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (head) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            for (int i = 0; i < ranges.size(); i++) {
+                out.write(partHeaders.get(i));
+                transfer(channel, ranges.get(i)[0], ranges.get(i)[1] - ranges.get(i)[0] + 1, target);
+            }
+            out.write(trailer);
+            out.flush();
+        }
+    }
+
+    private void transfer(FileChannel channel, long position, long count, WritableByteChannel target) throws IOException {
+        while (count > 0) {
+            long transferred = channel.transferTo(position, count, target);
+            if (transferred <= 0) {
+                throw new IOException("File ended before the requested range was sent");
+            }
+            position += transferred;
+            count -= transferred;
+        }
+    }
+
+    /**
+     * Evaluates If-None-Match, falling back to If-Modified-Since (RFC 9110 section 13.2.2).
+     */
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String candidate : StringUtils.commaDelimitedListToStringArray(ifNoneMatch)) {
+                candidate = candidate.trim();
+                if (candidate.equals("*") || candidate.equals(etag) || candidate.equals("W/" + etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    /**
+     * Checks If-Range; a range request whose validator no longer matches gets the full file.
+     */
+    private boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && lastModified / 1000 == date / 1000;
+    }
+
+    private long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Parses a Range header into inclusive {@code [start, end]} pairs.
+     *
+     * @param header Range header value
+     * @param length file length
+     * @param maxRanges maximum number of ranges honored in one request
+     * @return satisfiable ranges in request order; empty if none is satisfiable;
+     *         null if the header is malformed or asks for too many ranges, in which case
+     *         the whole file is sent
+     */
+    static List<long[]> parseRanges(String header, long length, int maxRanges) {
+        if (!header.startsWith("bytes=")) {
+            return null;
+        }
+
+        String[] specs = header.substring("bytes=".length()).split(",");
+        if (specs.length > maxRanges) {
+            return null;
+        }
+
+        List<long[]> ranges = new ArrayList<>(specs.length);
+        for (String spec : specs) {
+            spec = spec.trim();
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+
+            try {
+                long start;
+                long end;
+                if (dash == 0) {
+                    // Suffix range: the last N bytes
+                    long suffix = Long.parseLong(spec.substring(1));
+                    if (suffix <= 0) {
+                        continue;
+                    }
+                    start = Math.max(0, length - suffix);
+                    end = length - 1;
+                } else {
+                    start = Long.parseLong(spec.substring(0, dash));
+                    boolean openEnded = dash == spec.length() - 1;
+                    end = openEnded ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+                    if (end < start) {
+                        return null;
+                    }
+                    if (start >= length) {
+                        // Unsatisfiable, whether open-ended or not
+                        continue;
+                    }
+                    end = Math.min(end, length - 1);
+                }
+
+                if (start < length) {
+                    ranges.add(new long[] {start, end});
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        return ranges.isEmpty() ? Collections.emptyList() : ranges;
+    }
+
+    /**
+     * Returns the SHA-256 of a file, reusing the last result while size and mtime are unchanged.
+     */
+    private String hashOf(Path file, long length, long lastModified) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        HashEntry entry = hashCache.get(key);
+        if (entry != null && entry.length == length && entry.lastModified == lastModified) {
+            return entry.hash;
+        }
+
+        String hash = ContentHash.sha256Hex(key);
+        if (hashCache.size() >= hashCacheEntries) {
+            // Outputs are short-lived; dropping everything is cheaper than tracking recency
+            hashCache.clear();
+        }
+        hashCache.put(key, new HashEntry(length, lastModified, hash));
+        logger.debug("Computed ETag for {}", key.getFileName());
+        return hash;
+    }
+
+    /**
+     * Remembered content hash of a file.
+     */
+    private static final class HashEntry {
+
+        private final long length;
+        private final long lastModified;
+        private final String hash;
+
+        HashEntry(long length, long lastModified, String hash) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+}
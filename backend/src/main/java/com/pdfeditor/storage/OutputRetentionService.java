@@ -0,0 +1,288 @@
+package com.pdfeditor.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds the size of the output directory.
+ *
+ * Services register every file they write and downloads mark files as accessed. A background
+ * sweep deletes outputs that have not been accessed within the TTL and, when the directory
+ * exceeds its byte budget, deletes the least recently accessed outputs until it is back under
+ * the low watermark. Each sweep deletes at most {@code app.outputs.max-evictions-per-sweep}
+ * files, so a large backlog is worked off over several sweeps instead of saturating the disk.
+ *
+ * Hidden entries (such as the render cache, which has its own budget) are not managed here.
+ *
+ * @author PDF Editor Team
+ */
+@Service
+public class OutputRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutputRetentionService.class);
+
+    private final Map<String, OutputEntry> outputs = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+
+    /** Total bytes of all indexed outputs, guarded by {@link #lock}. */
+    private long totalBytes;
+
+    private final Counter ttlEvictions;
+    private final Counter sizeEvictions;
+    private final Counter reclaimedBytes;
+
+    @Value("${app.output.dir}")
+    private String outputDir;
+
+    @Value("${app.outputs.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${app.outputs.max-bytes:10737418240}")
+    private long maxBytes;
+
+    @Value("${app.outputs.low-watermark-ratio:0.9}")
+    private double lowWatermarkRatio;
+
+    @Value("${app.outputs.max-evictions-per-sweep:200}")
+    private int maxEvictionsPerSweep;
+
+    private Path outputPath;
+
+    public OutputRetentionService(MeterRegistry meterRegistry) {
+        this.ttlEvictions = Counter.builder("pdf.outputs.evicted").tag("reason", "ttl")
+                .description("Output files deleted by the retention sweep")
+                .register(meterRegistry);
+        this.sizeEvictions = Counter.builder("pdf.outputs.evicted").tag("reason", "size")
+                .description("Output files deleted by the retention sweep")
+                .register(meterRegistry);
+        this.reclaimedBytes = Counter.builder("pdf.outputs.reclaimed")
+                .description("Bytes reclaimed by the retention sweep")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("pdf.outputs.count", outputs, Map::size)
+                .description("Output files tracked by the retention service")
+                .register(meterRegistry);
+        Gauge.builder("pdf.outputs.bytes", this, OutputRetentionService::getTotalBytes)
+                .description("Bytes held in the output directory")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indexes outputs left over from a previous run, using their modification time as last access.
+     */
+    @PostConstruct
+    public void initialize() throws IOException {
+        outputPath = Paths.get(outputDir).toAbsolutePath().normalize();
+        Files.createDirectories(outputPath);
+        reconcile();
+
+        logger.info("Output retention initialized at {} ({} files, {} bytes)",
+                    outputPath, outputs.size(), getTotalBytes());
+    }
+
+    /**
+     * Registers a file that has just been written to the output directory.
+     *
+     * @param file output file
+     */
+    public void register(File file) {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        if (!isManaged(path)) {
+            return;
+        }
+
+        OutputEntry entry = new OutputEntry(path, file.length(), System.currentTimeMillis());
+        synchronized (lock) {
+            OutputEntry previous = outputs.put(entry.name(), entry);
+            totalBytes += entry.size - (previous != null ? previous.size : 0);
+        }
+    }
+
+    /**
+     * Marks an output as accessed, postponing its eviction.
+     *
+     * @param fileName output file name
+     */
+    public void touch(String fileName) {
+        OutputEntry entry = outputs.get(fileName);
+        if (entry != null) {
+            entry.lastAccess = System.currentTimeMillis();
+        }
+    }
+
+    public long getTotalBytes() {
+        synchronized (lock) {
+            return totalBytes;
+        }
+    }
+
+    /**
+     * Deletes expired outputs, then the least recently accessed ones while over budget.
+     */
+    @Scheduled(fixedDelayString = "${app.outputs.sweep-interval-ms:60000}")
+    public void sweep() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(ttlMinutes);
+        long target = getTotalBytes() > maxBytes ? (long) (maxBytes * lowWatermarkRatio) : Long.MAX_VALUE;
+
+        // Downloads keep updating lastAccess, so sort on a snapshot to keep the order consistent
+        List<Candidate> candidates = new ArrayList<>(outputs.size());
+        for (OutputEntry entry : outputs.values()) {
+            candidates.add(new Candidate(entry));
+        }
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.lastAccess));
+
+        int evicted = 0;
+        long reclaimed = 0;
+        for (Candidate candidate : candidates) {
+            OutputEntry entry = candidate.entry;
+            boolean expired = candidate.lastAccess < cutoff;
+            boolean overBudget = getTotalBytes() > target;
+            if (!expired && !overBudget) {
+                // Candidates are ordered by access time, so nothing after this one qualifies either
+                break;
+            }
+            if (evicted >= maxEvictionsPerSweep) {
+                logger.debug("Output sweep reached its limit of {} deletions, continuing next sweep",
+                             maxEvictionsPerSweep);
+                break;
+            }
+
+            if (evict(entry)) {
+                (expired ? ttlEvictions : sizeEvictions).increment();
+                reclaimed += entry.size;
+                evicted++;
+            }
+        }
+
+        if (evicted > 0) {
+            reclaimedBytes.increment(reclaimed);
+            logger.info("Output sweep deleted {} files ({} bytes)", evicted, reclaimed);
+        }
+    }
+
+    /**
+     * Re-synchronizes the index with the directory: picks up files written without being
+     * registered and forgets files deleted by other means.
+     */
+    @Scheduled(initialDelayString = "${app.outputs.rescan-interval-ms:3600000}",
+               fixedDelayString = "${app.outputs.rescan-interval-ms:3600000}")
+    public void reconcile() {
+        Set<String> present = new HashSet<>();
+
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(outputPath)) {
+            for (Path path : stream) {
+                if (!isManaged(path) || !Files.isRegularFile(path)) {
+                    continue;
+                }
+                String name = path.getFileName().toString();
+                present.add(name);
+
+                if (!outputs.containsKey(name)) {
+                    long size = Files.size(path);
+                    long lastModified = Files.getLastModifiedTime(path).toMillis();
+                    synchronized (lock) {
+                        if (outputs.putIfAbsent(name, new OutputEntry(path, size, lastModified)) == null) {
+                            totalBytes += size;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to scan output directory {}", outputPath, e);
+            return;
+        }
+
+        for (OutputEntry entry : new ArrayList<>(outputs.values())) {
+            if (!present.contains(entry.name()) && !Files.exists(entry.path)) {
+                synchronized (lock) {
+                    if (outputs.remove(entry.name(), entry)) {
+                        totalBytes -= entry.size;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean evict(OutputEntry entry) {
+        synchronized (lock) {
+            if (!outputs.remove(entry.name(), entry)) {
+                // Re-registered (overwritten) since the snapshot was taken
+                return false;
+            }
+            totalBytes -= entry.size;
+        }
+
+        try {
+            Files.deleteIfExists(entry.path);
+            logger.debug("Evicted output {}", entry.name());
+            return true;
+        } catch (IOException e) {
+            logger.warn("Failed to delete output file: {}", entry.path, e);
+            return false;
+        }
+    }
+
+    /**
+     * Only direct, non-hidden children of the output directory are managed.
+     */
+    private boolean isManaged(Path path) {
+        return outputPath.equals(path.getParent()) && !path.getFileName().toString().startsWith(".");
+    }
+
+    /**
+     * Index entry of an output file.
+     */
+    private static final class OutputEntry {
+
+        private final Path path;
+        private final long size;
+        private volatile long lastAccess;
+
+        OutputEntry(Path path, long size, long lastAccess) {
+            this.path = path;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+
+        String name() {
+            return path.getFileName().toString();
+        }
+    }
+
+    /**
+     * Sweep candidate with the access time captured when the candidates were listed.
+     */
+    private static final class Candidate {
+
+        private final OutputEntry entry;
+        private final long lastAccess;
+
+        Candidate(OutputEntry entry) {
+            this.entry = entry;
+            this.lastAccess = entry.lastAccess;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.pdfeditor.storage;
+
+import com.pdfeditor.exception.PdfProcessingException;
+import com.pdfeditor.sdk.PdfSdk;
+import com.pdfeditor.sdk.SdkDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A PDF input for a single operation, backed by a freshly staged upload, by a small upload
+ * held in memory, or by a document held in the {@link DocumentStoreService}.
+ *
+ * Closing the input deletes a staged upload, frees the memory of a buffered one or releases
+ * the store reference, so services can treat all sources the same way. Services open inputs
+ * with {@link #open(PdfSdk)}, which reads a buffered upload from memory; code that needs a
+ * path gets one from {@link #getFile()}, which writes a buffered upload to disk first.
+ *
+ * State is guarded by a {@link ReentrantLock} rather than a monitor, because hashing or
+ * spilling an upload is file I/O done on request threads, which may be virtual threads that
+ * would otherwise pin their carrier.
+ *
+ * @author PDF Editor Team
+ */
+public class PdfInput implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfInput.class);
+
+    private File file;
+    private final String originalFilename;
+    private final long size;
+    private final StoredDocument storedDocument;
+    private final DocumentStoreService documentStore;
+    private final boolean deleteOnClose;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile byte[] content;
+    private Path spillDir;
+    private Runnable onRelease;
+    private String contentHash;
+    private boolean closed;
+
+    private PdfInput(File file, String originalFilename, long size,
+                     StoredDocument storedDocument, DocumentStoreService documentStore, boolean deleteOnClose) {
+        this.file = file;
+        this.originalFilename = originalFilename;
+        this.size = size;
+        this.storedDocument = storedDocument;
+        this.documentStore = documentStore;
+        this.deleteOnClose = deleteOnClose;
+        this.contentHash = storedDocument != null ? storedDocument.getId() : null;
+    }
+
+    /**
+     * Wraps a staged upload that is deleted when the input is closed.
+     *
+     * @param file staged file
+     * @param originalFilename filename sent by the client
+     * @return the input
+     */
+    public static PdfInput ofStagedFile(File file, String originalFilename) {
+        return new PdfInput(file, originalFilename, file.length(), null, null, true);
+    }
+
+    /**
+     * Wraps a small upload held in memory.
+     *
+     * @param content upload content; the input takes ownership and does not copy it
+     * @param originalFilename filename sent by the client
+     * @param spillDir directory for the file written if {@link #getFile()} is called
+     * @param onRelease run once when the input is closed, e.g. to return the memory to a budget
+     * @return the input
+     */
+    public static PdfInput ofBytes(byte[] content, String originalFilename, Path spillDir, Runnable onRelease) {
+        PdfInput input = new PdfInput(null, originalFilename, content.length, null, null, true);
+        input.content = content;
+        input.spillDir = spillDir;
+        input.onRelease = onRelease;
+        return input;
+    }
+
+    /**
+     * Wraps a file owned by someone else, such as a merge session, that is left in place when
+     * the input is closed.
+     *
+     * @param file the file
+     * @param originalFilename filename sent by the client
+     * @param contentHash SHA-256 of the file if already known, otherwise null
+     * @return the input
+     */
+    public static PdfInput ofRetainedFile(File file, String originalFilename, String contentHash) {
+        PdfInput input = new PdfInput(file, originalFilename, file.length(), null, null, false);
+        input.contentHash = contentHash;
+        return input;
+    }
+
+    /**
+     * Wraps a referenced store document that is released when the input is closed.
+     *
+     * @param document referenced document
+     * @param documentStore store owning the reference
+     * @return the input
+     */
+    public static PdfInput ofStoredDocument(StoredDocument document, DocumentStoreService documentStore) {
+        return new PdfInput(document.getPath().toFile(), document.getOriginalFilename(),
+                            document.getSize(), document, documentStore, false);
+    }
+
+    /**
+     * Returns the file holding the input. A buffered upload is written to disk on the first
+     * call and the file is deleted on close; prefer {@link #open(PdfSdk)} where possible.
+     *
+     * @return the file
+     * @throws PdfProcessingException if a buffered upload cannot be written
+     */
+    public File getFile() {
+        lock.lock();
+        try {
+            if (file == null) {
+                Path spilled = spillDir.resolve(UUID.randomUUID() + "_buffered.pdf");
+                try {
+                    Files.createDirectories(spillDir);
+                    Files.write(spilled, content);
+                } catch (IOException e) {
+                    throw new PdfProcessingException("Failed to write buffered upload to " + spilled, e);
+                }
+                logger.debug("Wrote buffered upload {} ({} bytes) to disk", originalFilename, size);
+                file = spilled.toFile();
+            }
+            return file;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Opens the input, from memory for a buffered upload.
+     *
+     * @param sdk SDK to open the document with
+     * @return open document; the caller must close it
+     * @throws Exception if the document cannot be opened
+     */
+    public SdkDocument open(PdfSdk sdk) throws Exception {
+        byte[] buffered = content;
+        return buffered != null ? sdk.open(buffered) : sdk.open(getFile());
+    }
+
+    /**
+     * Copies the input to a file.
+     *
+     * @param target file to write, replaced if it exists
+     * @throws IOException if the input cannot be copied
+     */
+    public void copyTo(Path target) throws IOException {
+        byte[] buffered = content;
+        if (buffered != null) {
+            Files.write(target, buffered);
+        } else {
+            Files.copy(getFile().toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns whether the input is a small upload held in memory.
+     *
+     * @return true for buffered uploads
+     */
+    public boolean isInMemory() {
+        return content != null;
+    }
+
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the document ID if the input comes from the document store.
+     *
+     * @return document ID or null for staged uploads
+     */
+    public String getDocumentId() {
+        return storedDocument != null ? storedDocument.getId() : null;
+    }
+
+    /**
+     * Returns the SHA-256 of the input content, hashing staged uploads on first use.
+     *
+     * @return lowercase hex encoded SHA-256
+     * @throws IOException if the file cannot be read
+     */
+    public String getContentHash() throws IOException {
+        lock.lock();
+        try {
+            if (contentHash == null) {
+                byte[] buffered = content;
+                contentHash = buffered != null ? ContentHash.sha256Hex(buffered) : ContentHash.sha256Hex(getFile().toPath());
+            }
+            return contentHash;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+
+            if (content != null) {
+                content = null;
+                onRelease.run();
+            }
+
+            if (storedDocument != null) {
+                documentStore.release(storedDocument);
+            } else if (deleteOnClose && file != null) {
+                try {
+                    Files.deleteIfExists(file.toPath());
+                } catch (IOException e) {
+                    logger.warn("Failed to delete temp file: {}", file.getAbsolutePath(), e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.pdfeditor.storage;
+
+import com.pdfeditor.exception.InvalidRequestException;
+import com.pdfeditor.exception.PdfProcessingException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves the {@code file} / {@code documentId} request parameters accepted by every
+ * operation endpoint into {@link PdfInput} instances.
+ *
+ * @author PDF Editor Team
+ */
+@Service
+public class PdfInputResolver {
+
+    @Autowired
+    private UploadStagingService uploadStagingService;
+
+    @Autowired
+    private DocumentStoreService documentStore;
+
+    /**
+     * Resolves a single input from either an uploaded file or a stored document ID.
+     *
+     * @param file uploaded file (may be null)
+     * @param documentId stored document ID (may be null)
+     * @return the resolved input; the caller must close it
+     * @throws PdfProcessingException if neither or both sources are provided
+     */
+    public PdfInput resolve(MultipartFile file, String documentId) {
+        boolean hasFile = file != null && !file.isEmpty();
+        boolean hasDocumentId = StringUtils.hasText(documentId);
+
+        if (hasFile && hasDocumentId) {
+            throw new PdfProcessingException("Provide either a file or a documentId, not both");
+        }
+        if (hasDocumentId) {
+            return PdfInput.ofStoredDocument(documentStore.acquire(documentId.trim()), documentStore);
+        }
+        if (hasFile) {
+            return stage(file);
+        }
+        throw new PdfProcessingException("No file or documentId provided");
+    }
+
+    /**
+     * Resolves several inputs. Uploaded files come first, followed by stored documents,
+     * each in request order.
+     *
+     * @param files uploaded files (may be null)
+     * @param documentIds stored document IDs (may be null)
+     * @return the resolved inputs; the caller must close them, e.g. via {@link #closeAll(List)}
+     */
+    public List<PdfInput> resolveAll(List<MultipartFile> files, List<String> documentIds) {
+        List<PdfInput> inputs = new ArrayList<>();
+        try {
+            if (files != null) {
+                for (MultipartFile file : files) {
+                    if (file != null && !file.isEmpty()) {
+                        inputs.add(stage(file));
+                    }
+                }
+            }
+            if (documentIds != null) {
+                for (String documentId : documentIds) {
+                    if (StringUtils.hasText(documentId)) {
+                        inputs.add(PdfInput.ofStoredDocument(
+                                documentStore.acquire(documentId.trim()), documentStore));
+                    }
+                }
+            }
+            return inputs;
+        } catch (RuntimeException e) {
+            closeAll(inputs);
+            throw e;
+        }
+    }
+
+    /**
+     * Closes all inputs, releasing store references and deleting staged uploads.
+     *
+     * @param inputs inputs to close
+     */
+    public static void closeAll(List<PdfInput> inputs) {
+        for (PdfInput input : inputs) {
+            input.close();
+        }
+    }
+
+    /**
+     * Checks that inputs are small enough for an output held in memory, as returned inline
+     * instead of through a download URL.
+     *
+     * @param inputs request inputs
+     * @throws InvalidRequestException if the inputs together exceed the in-memory upload limit
+     */
+    public void requireInlineSize(List<PdfInput> inputs) {
+        long total = inputs.stream().mapToLong(PdfInput::getSize).sum();
+        long limit = uploadStagingService.getMemoryMaxBytes();
+        if (total > limit) {
+            throw new InvalidRequestException("Inline responses are limited to inputs of up to " + limit
+                    + " bytes (got " + total + "); request a download URL instead");
+        }
+    }
+
+    private PdfInput stage(MultipartFile file) {
+        try {
+            PdfInput buffered = uploadStagingService.buffer(file);
+            if (buffered != null) {
+                return buffered;
+            }
+            return PdfInput.ofStagedFile(uploadStagingService.stage(file), file.getOriginalFilename());
+        } catch (IOException e) {
+            throw new PdfProcessingException("Failed to stage uploaded file", e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.pdfeditor.storage;
+
+import java.nio.file.Path;
+
+/**
+ * A document held by the {@link DocumentStoreService}, addressed by the SHA-256 of its content.
+ *
+ * Reference counts and access times are guarded by the owning store.
+ *
+ * @author PDF Editor Team
+ */
+public class StoredDocument {
+
+    private final String id;
+    private final Path path;
+    private final long size;
+    private final long createdAt;
+    private String originalFilename;
+    private long lastAccess;
+    private int refCount;
+    private boolean deleted;
+
+    StoredDocument(String id, Path path, long size, String originalFilename, long createdAt) {
+        this.id = id;
+        this.path = path;
+        this.size = size;
+        this.originalFilename = originalFilename;
+        this.createdAt = createdAt;
+        this.lastAccess = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public synchronized String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public synchronized long getLastAccess() {
+        return lastAccess;
+    }
+
+    public synchronized int getRefCount() {
+        return refCount;
+    }
+
+    synchronized void setOriginalFilename(String originalFilename) {
+        this.originalFilename = originalFilename;
+    }
+
+    synchronized void touch(long now) {
+        this.lastAccess = now;
+    }
+
+    synchronized void retain() {
+        refCount++;
+    }
+
+    synchronized int release() {
+        if (refCount > 0) {
+            refCount--;
+        }
+        return refCount;
+    }
+
+    synchronized boolean isDeleted() {
+        return deleted;
+    }
+
+    synchronized void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+}
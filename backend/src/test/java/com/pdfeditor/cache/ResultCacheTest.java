@@ -0,0 +1,165 @@
+package com.pdfeditor.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdfeditor.concurrency.SdkOperation;
+import com.pdfeditor.dto.FileResponse;
+import com.pdfeditor.storage.OutputRetentionService;
+import com.pdfeditor.storage.PdfInput;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Tests for {@link ResultCache} over a temporary output directory.
+ *
+ * @author PDF Editor Team
+ */
+class ResultCacheTest {
+
+    private static final int OUTPUT_SIZE = 1000;
+
+    @TempDir
+    Path outputDir;
+
+    private final AtomicInteger computations = new AtomicInteger();
+
+    @Test
+    void entrySurvivesRestart() throws IOException {
+        compute(newCache(Long.MAX_VALUE), "a");
+
+        FileResponse restored = compute(newCache(Long.MAX_VALUE), "a");
+
+        assertEquals(1, computations.get());
+        assertEquals("a.pdf", restored.fileName);
+        assertArrayEquals(output("a"), Files.readAllBytes(Path.of(restored.filePath)));
+    }
+
+    @Test
+    void deletedOutputIsRestoredFromCache() throws IOException {
+        ResultCache cache = newCache(Long.MAX_VALUE);
+        FileResponse computed = compute(cache, "a");
+        Files.delete(Path.of(computed.filePath));
+
+        FileResponse restored = compute(cache, "a");
+
+        assertEquals(1, computations.get());
+        assertEquals(computed.filePath, restored.filePath);
+        assertArrayEquals(output("a"), Files.readAllBytes(Path.of(restored.filePath)));
+    }
+
+    @Test
+    void overwrittenOutputDoesNotCorruptCachedCopy() throws IOException {
+        ResultCache cache = newCache(Long.MAX_VALUE);
+        FileResponse computed = compute(cache, "a");
+        Files.write(Path.of(computed.filePath), new byte[] {'x'});
+
+        FileResponse restored = compute(cache, "a");
+
+        assertEquals(1, computations.get());
+        assertArrayEquals(output("a"), Files.readAllBytes(Path.of(restored.filePath)));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntryFirst() throws IOException {
+        // Room for two outputs but not three
+        ResultCache cache = newCache(OUTPUT_SIZE * 5 / 2);
+        compute(cache, "a");
+        tick();
+        compute(cache, "b");
+        tick();
+        compute(cache, "a");
+        tick();
+        compute(cache, "c");
+        assertEquals(3, computations.get());
+
+        // b was least recently used when c was stored
+        compute(cache, "a");
+        compute(cache, "c");
+        assertEquals(3, computations.get());
+        compute(cache, "b");
+        assertEquals(4, computations.get());
+    }
+
+    @Test
+    void resultLargerThanBudgetIsNotCached() throws IOException {
+        ResultCache cache = newCache(OUTPUT_SIZE / 2);
+        compute(cache, "a");
+        compute(cache, "a");
+
+        assertEquals(2, computations.get());
+        try (var entries = Files.list(outputDir.resolve(".result-cache"))) {
+            assertFalse(entries.findAny().isPresent());
+        }
+    }
+
+    private ResultCache newCache(long maxBytes) throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        OutputRetentionService outputRetention = new OutputRetentionService(meterRegistry);
+        ReflectionTestUtils.setField(outputRetention, "outputDir", outputDir.toString());
+        ReflectionTestUtils.setField(outputRetention, "maxBytes", Long.MAX_VALUE);
+        outputRetention.initialize();
+
+        ResultCache cache = new ResultCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "outputRetention", outputRetention);
+        ReflectionTestUtils.setField(cache, "outputDir", outputDir.toString());
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxBytes", maxBytes);
+        cache.initialize();
+        return cache;
+    }
+
+    /**
+     * Runs a compress request over the input named {@code name}, writing {@code <name>.pdf} on a miss.
+     */
+    private FileResponse compute(ResultCache cache, String name) {
+        PdfInput input = PdfInput.ofBytes(("%PDF-1.7 " + name).getBytes(StandardCharsets.US_ASCII),
+                                          name + ".pdf", null, () -> { });
+        return cache.getOrCompute(SdkOperation.COMPRESS, List.of(input), List.of("web"), () -> {
+            computations.incrementAndGet();
+            Path file = outputDir.resolve(name + ".pdf");
+            try {
+                Files.write(file, output(name));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            FileResponse response = new FileResponse();
+            response.fileName = name + ".pdf";
+            response.filePath = file.toAbsolutePath().toString();
+            response.fileSize = OUTPUT_SIZE;
+            response.downloadUrl = "/download/" + response.fileName;
+            return response;
+        });
+    }
+
+    private static byte[] output(String name) {
+        byte[] content = new byte[OUTPUT_SIZE];
+        Arrays.fill(content, (byte) name.charAt(0));
+        return content;
+    }
+
+    /**
+     * Waits for the clock to advance so consecutive accesses get distinct timestamps.
+     */
+    private static void tick() {
+        long now = System.currentTimeMillis();
+        while (System.currentTimeMillis() == now) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.pdfeditor.concurrency;
+
+import com.pdfeditor.storage.PdfInput;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Tests for {@link OperationKey#of}.
+ *
+ * @author PDF Editor Team
+ */
+class OperationKeyTest {
+
+    @Test
+    void identicalRequestsShareKey() throws IOException {
+        String first = key(SdkOperation.COMPRESS, List.of(input("a")), Arrays.asList("web", null, "out.pdf"));
+        String second = key(SdkOperation.COMPRESS, List.of(input("a")), Arrays.asList("web", null, "out.pdf"));
+
+        assertEquals(first, second);
+    }
+
+    @Test
+    void keyDependsOnContentNotFilename() throws IOException {
+        PdfInput named = PdfInput.ofBytes(bytes("a"), "first.pdf", null, () -> { });
+        PdfInput renamed = PdfInput.ofBytes(bytes("a"), "second.pdf", null, () -> { });
+
+        assertEquals(key(SdkOperation.COMPRESS, List.of(named), List.of("web")),
+                     key(SdkOperation.COMPRESS, List.of(renamed), List.of("web")));
+        assertNotEquals(key(SdkOperation.COMPRESS, List.of(input("a")), List.of("web")),
+                        key(SdkOperation.COMPRESS, List.of(input("b")), List.of("web")));
+    }
+
+    @Test
+    void operationIsPartOfKey() throws IOException {
+        assertNotEquals(key(SdkOperation.COMPRESS, List.of(input("a")), List.of()),
+                        key(SdkOperation.PDFA_CONVERT, List.of(input("a")), List.of()));
+    }
+
+    @Test
+    void inputOrderIsPartOfKey() throws IOException {
+        assertNotEquals(key(SdkOperation.MERGE, List.of(input("a"), input("b")), List.of()),
+                        key(SdkOperation.MERGE, List.of(input("b"), input("a")), List.of()));
+    }
+
+    @Test
+    void adjacentParametersAreKeptApart() throws IOException {
+        assertNotEquals(key(SdkOperation.SPLIT, List.of(input("a")), List.of("ab", "c")),
+                        key(SdkOperation.SPLIT, List.of(input("a")), List.of("a", "bc")));
+        assertNotEquals(key(SdkOperation.SPLIT, List.of(input("a")), List.of("a", "")),
+                        key(SdkOperation.SPLIT, List.of(input("a")), List.of("a")));
+    }
+
+    @Test
+    void missingParameterDiffersFromEmptyAndLiteralNull() throws IOException {
+        String missing = key(SdkOperation.MERGE, List.of(input("a"), input("b")), Arrays.asList((Object) null));
+        String empty = key(SdkOperation.MERGE, List.of(input("a"), input("b")), List.of(""));
+        String literal = key(SdkOperation.MERGE, List.of(input("a"), input("b")), List.of("null"));
+
+        assertNotEquals(missing, empty);
+        assertNotEquals(missing, literal);
+        assertNotEquals(empty, literal);
+    }
+
+    @Test
+    void listParametersCompareByContent() throws IOException {
+        List<String> splitPoints = new ArrayList<>(List.of("1-3", "4-6"));
+
+        assertEquals(key(SdkOperation.SPLIT, List.of(input("a")), List.of("ranges", List.of("1-3", "4-6"))),
+                     key(SdkOperation.SPLIT, List.of(input("a")), List.of("ranges", splitPoints)));
+        assertNotEquals(key(SdkOperation.SPLIT, List.of(input("a")), List.of("ranges", List.of("1-3", "4-6"))),
+                        key(SdkOperation.SPLIT, List.of(input("a")), List.of("ranges", List.of("4-6", "1-3"))));
+    }
+
+    @Test
+    void numericParametersCompareByValue() throws IOException {
+        assertEquals(key(SdkOperation.CONVERT, List.of(input("a")), List.of("png", 150)),
+                     key(SdkOperation.CONVERT, List.of(input("a")), List.of("png", Integer.valueOf(150))));
+        assertNotEquals(key(SdkOperation.CONVERT, List.of(input("a")), List.of("png", 150)),
+                        key(SdkOperation.CONVERT, List.of(input("a")), List.of("png", 300)));
+    }
+
+    private static String key(SdkOperation operation, List<PdfInput> inputs, List<?> parameters) throws IOException {
+        return OperationKey.of(operation, inputs, parameters);
+    }
+
+    private static PdfInput input(String content) {
+        return PdfInput.ofBytes(bytes(content), content + ".pdf", null, () -> { });
+    }
+
+    private static byte[] bytes(String content) {
+        return ("%PDF-1.7 " + content).getBytes(StandardCharsets.US_ASCII);
+    }
+}
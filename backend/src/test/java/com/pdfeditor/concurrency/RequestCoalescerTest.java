@@ -0,0 +1,184 @@
+package com.pdfeditor.concurrency;
+
+import com.pdfeditor.exception.PdfProcessingException;
+import com.pdfeditor.storage.PdfInput;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link RequestCoalescer#execute}.
+ *
+ * @author PDF Editor Team
+ */
+class RequestCoalescerTest {
+
+    private static final int CALLERS = 4;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+    private final AtomicInteger computations = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coalescer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(coalescer, "enabled", true);
+        coalescer.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalCallsShareOneComputation() throws Exception {
+        List<Future<Object>> results = submitIdentical(() -> {
+            awaitRelease();
+            return new Object();
+        });
+
+        awaitFollowers();
+        release.countDown();
+
+        Object shared = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<Object> result : results) {
+            assertSame(shared, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, computations.get());
+        assertEquals(0, inFlight());
+    }
+
+    @Test
+    void leaderFailureReachesFollowersAndClearsKey() throws Exception {
+        PdfProcessingException failure = new PdfProcessingException("SDK failed");
+        List<Future<Object>> results = submitIdentical(() -> {
+            awaitRelease();
+            throw failure;
+        });
+
+        awaitFollowers();
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, thrown.getCause());
+        }
+        assertEquals(1, computations.get());
+        assertEquals(0, inFlight());
+
+        // The failed key is gone, so the next identical request computes again
+        Object retried = coalescer.execute(SdkOperation.COMPRESS, List.of(input()), List.of("web"), () -> {
+            computations.incrementAndGet();
+            return "retried";
+        });
+        assertEquals("retried", retried);
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void differentParametersDoNotCoalesce() {
+        PdfInput input = input();
+
+        coalescer.execute(SdkOperation.COMPRESS, List.of(input), List.of("web"), computations::incrementAndGet);
+        coalescer.execute(SdkOperation.COMPRESS, List.of(input), List.of("print"), computations::incrementAndGet);
+
+        assertEquals(2, computations.get());
+        assertEquals(0.0, coalesced());
+    }
+
+    @Test
+    void disabledCoalescingRunsEveryCall() throws Exception {
+        ReflectionTestUtils.setField(coalescer, "enabled", false);
+        List<Future<Object>> results = submitIdentical(() -> {
+            awaitRelease();
+            return new Object();
+        });
+
+        awaitCondition(() -> computations.get() == CALLERS);
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            result.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(CALLERS, computations.get());
+    }
+
+    /**
+     * Submits {@link #CALLERS} identical requests, each over its own copy of the same input.
+     */
+    private List<Future<Object>> submitIdentical(Supplier<Object> task) {
+        List<Future<Object>> results = new ArrayList<>(CALLERS);
+        for (int i = 0; i < CALLERS; i++) {
+            PdfInput input = input();
+            results.add(callers.submit(() -> coalescer.execute(SdkOperation.COMPRESS, List.of(input), List.of("web"), () -> {
+                computations.incrementAndGet();
+                return task.get();
+            })));
+        }
+        return results;
+    }
+
+    /**
+     * Waits until one caller is computing and all others have attached to it.
+     */
+    private void awaitFollowers() {
+        awaitCondition(() -> computations.get() == 1 && coalesced() == CALLERS - 1);
+    }
+
+    private void awaitRelease() {
+        try {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("pdf.coalesced").tag("operation", SdkOperation.COMPRESS.getKey()).counter().count();
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("pdf.coalescing.in-flight").gauge().value();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not reached within 5 seconds");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static PdfInput input() {
+        return PdfInput.ofBytes("%PDF-1.7 same".getBytes(StandardCharsets.US_ASCII), "same.pdf", null, () -> { });
+    }
+}
@@ -0,0 +1,95 @@
+package com.pdfeditor.service;
+
+import com.pdfeditor.exception.PdfProcessingException;
+import com.pdfeditor.service.PdfSplitService.SplitPart;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for {@link PdfSplitService#planParts}.
+ *
+ * @author PDF Editor Team
+ */
+class PdfSplitServiceTest {
+
+    @Test
+    void rangesModeKeepsRequestedRanges() {
+        List<SplitPart> parts = PdfSplitService.planParts("ranges", List.of("1-3", " 4 - 6 ", "7-10"), 10);
+
+        assertParts(parts, new int[][] {{1, 1, 3}, {2, 4, 6}, {3, 7, 10}});
+    }
+
+    @Test
+    void rangesModeAcceptsSinglePageRange() {
+        assertParts(PdfSplitService.planParts("RANGES", List.of("5-5"), 10), new int[][] {{1, 5, 5}});
+    }
+
+    @Test
+    void rangesModeRejectsStartOutOfBounds() {
+        assertThrows(PdfProcessingException.class, () -> PdfSplitService.planParts("ranges", List.of("0-3"), 10));
+        assertThrows(PdfProcessingException.class, () -> PdfSplitService.planParts("ranges", List.of("11-12"), 10));
+    }
+
+    @Test
+    void rangesModeRejectsEndOutOfBounds() {
+        assertThrows(PdfProcessingException.class, () -> PdfSplitService.planParts("ranges", List.of("4-11"), 10));
+        assertThrows(PdfProcessingException.class, () -> PdfSplitService.planParts("ranges", List.of("6-4"), 10));
+    }
+
+    @Test
+    void pagesModeSplitsBeforeEachPoint() {
+        List<SplitPart> parts = PdfSplitService.planParts("pages", List.of("4", "8"), 10);
+
+        assertParts(parts, new int[][] {{1, 1, 3}, {2, 4, 7}, {3, 8, 10}});
+    }
+
+    @Test
+    void pagesModeSkipsEmptyParts() {
+        List<SplitPart> parts = PdfSplitService.planParts("pages", List.of("1", "11"), 10);
+
+        assertParts(parts, new int[][] {{2, 1, 10}});
+    }
+
+    @Test
+    void everyModeMakesShortLastPart() {
+        List<SplitPart> parts = PdfSplitService.planParts("every", List.of("4"), 10);
+
+        assertParts(parts, new int[][] {{1, 1, 4}, {2, 5, 8}, {3, 9, 10}});
+    }
+
+    @Test
+    void everyModeWithExactMultiple() {
+        List<SplitPart> parts = PdfSplitService.planParts("every", List.of("5"), 10);
+
+        assertParts(parts, new int[][] {{1, 1, 5}, {2, 6, 10}});
+    }
+
+    @Test
+    void everyModeWithMorePagesPerPartThanPages() {
+        assertParts(PdfSplitService.planParts("every", List.of("20"), 10), new int[][] {{1, 1, 10}});
+    }
+
+    @Test
+    void everyModeRejectsInvalidCount() {
+        assertThrows(PdfProcessingException.class, () -> PdfSplitService.planParts("every", List.of("0"), 10));
+        assertThrows(PdfProcessingException.class, () -> PdfSplitService.planParts("every", List.of("2", "3"), 10));
+    }
+
+    @Test
+    void rejectsUnknownMode() {
+        assertThrows(PdfProcessingException.class, () -> PdfSplitService.planParts("chapters", List.of("1"), 10));
+    }
+
+    private static void assertParts(List<SplitPart> parts, int[][] expected) {
+        assertEquals(expected.length, parts.size(), "part count");
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i][0], parts.get(i).number, "number of part " + i);
+            assertEquals(expected[i][1], parts.get(i).startPage, "start of part " + i);
+            assertEquals(expected[i][2], parts.get(i).endPage, "end of part " + i);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.pdfeditor.storage;
+
+import com.pdfeditor.exception.DocumentNotFoundException;
+import com.pdfeditor.metrics.PdfPhaseMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link DocumentStoreService} over a temporary directory.
+ *
+ * @author PDF Editor Team
+ */
+class DocumentStoreServiceTest {
+
+    private static final int DOCUMENT_SIZE = 1000;
+
+    @TempDir
+    Path workDir;
+
+    @Test
+    void duplicateUploadYieldsSameDocument() throws IOException {
+        DocumentStoreService store = newStore(Long.MAX_VALUE, 60);
+
+        StoredDocument first = store.store(upload('a', "first.pdf"));
+        StoredDocument second = store.store(upload('a', "second.pdf"));
+
+        assertSame(first, second);
+        assertEquals("second.pdf", second.getOriginalFilename());
+        assertEquals(DOCUMENT_SIZE, store.getTotalBytes());
+        assertEquals(List.of(first.getId() + ".pdf"), storeFiles());
+    }
+
+    @Test
+    void referencedDocumentIsNeverEvictedForBudget() throws IOException {
+        // Room for two documents but not three
+        DocumentStoreService store = newStore(DOCUMENT_SIZE * 5 / 2, 60);
+        StoredDocument referenced = store.acquire(store.store(upload('a', "a.pdf")).getId());
+        tick();
+        StoredDocument unreferenced = store.store(upload('b', "b.pdf"));
+        tick();
+        StoredDocument latest = store.store(upload('c', "c.pdf"));
+
+        // a is least recently used, but in use, so b goes instead
+        assertSame(referenced, store.get(referenced.getId()));
+        assertSame(latest, store.get(latest.getId()));
+        assertThrows(DocumentNotFoundException.class, () -> store.get(unreferenced.getId()));
+        assertFalse(Files.exists(unreferenced.getPath()));
+        assertEquals(2L * DOCUMENT_SIZE, store.getTotalBytes());
+
+        store.release(referenced);
+    }
+
+    @Test
+    void referencedDocumentIsNeverEvictedForTtl() throws IOException {
+        DocumentStoreService store = newStore(Long.MAX_VALUE, 0);
+        StoredDocument referenced = store.acquire(store.store(upload('a', "a.pdf")).getId());
+        StoredDocument unreferenced = store.store(upload('b', "b.pdf"));
+        tick();
+
+        store.evictExpired();
+
+        assertSame(referenced, store.get(referenced.getId()));
+        assertTrue(Files.exists(referenced.getPath()));
+        assertThrows(DocumentNotFoundException.class, () -> store.get(unreferenced.getId()));
+
+        store.release(referenced);
+        tick();
+        store.evictExpired();
+
+        assertThrows(DocumentNotFoundException.class, () -> store.get(referenced.getId()));
+        assertEquals(0, store.getTotalBytes());
+    }
+
+    @Test
+    void deletingReferencedDocumentRemovesItOnLastRelease() throws IOException {
+        DocumentStoreService store = newStore(Long.MAX_VALUE, 60);
+        String id = store.store(upload('a', "a.pdf")).getId();
+        StoredDocument first = store.acquire(id);
+        StoredDocument second = store.acquire(id);
+
+        store.delete(id);
+
+        // Hidden from new lookups, but the file stays readable for running operations
+        assertThrows(DocumentNotFoundException.class, () -> store.get(id));
+        assertThrows(DocumentNotFoundException.class, () -> store.acquire(id));
+        assertTrue(Files.exists(first.getPath()));
+
+        store.release(first);
+        assertTrue(Files.exists(second.getPath()));
+
+        store.release(second);
+        assertFalse(Files.exists(second.getPath()));
+        assertEquals(0, store.getTotalBytes());
+        assertEquals(List.of(), storeFiles());
+    }
+
+    @Test
+    void reuploadRevivesDeletedReferencedDocument() throws IOException {
+        DocumentStoreService store = newStore(Long.MAX_VALUE, 60);
+        String id = store.store(upload('a', "a.pdf")).getId();
+        StoredDocument referenced = store.acquire(id);
+        store.delete(id);
+
+        assertSame(referenced, store.store(upload('a', "again.pdf")));
+        store.release(referenced);
+
+        assertSame(referenced, store.get(id));
+        assertTrue(Files.exists(referenced.getPath()));
+    }
+
+    @Test
+    void documentsAreReindexedOnRestart() throws IOException {
+        String id = newStore(Long.MAX_VALUE, 60).store(upload('a', "a.pdf")).getId();
+
+        DocumentStoreService restarted = newStore(Long.MAX_VALUE, 60);
+
+        assertEquals(DOCUMENT_SIZE, restarted.get(id).getSize());
+        assertEquals(DOCUMENT_SIZE, restarted.getTotalBytes());
+    }
+
+    private DocumentStoreService newStore(long maxBytes, long ttlMinutes) throws IOException {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        UploadStagingService uploadStagingService = new UploadStagingService(meterRegistry,
+                                                                             new PdfPhaseMetrics(meterRegistry, false));
+        ReflectionTestUtils.setField(uploadStagingService, "uploadDir", workDir.resolve("uploads").toString());
+
+        DocumentStoreService store = new DocumentStoreService(meterRegistry);
+        ReflectionTestUtils.setField(store, "uploadStagingService", uploadStagingService);
+        ReflectionTestUtils.setField(store, "documentsDir", workDir.resolve("documents").toString());
+        ReflectionTestUtils.setField(store, "maxBytes", maxBytes);
+        ReflectionTestUtils.setField(store, "ttlMinutes", ttlMinutes);
+        store.initialize();
+        return store;
+    }
+
+    private List<String> storeFiles() throws IOException {
+        try (Stream<Path> files = Files.list(workDir.resolve("documents"))) {
+            return files.map(path -> path.getFileName().toString()).sorted().toList();
+        }
+    }
+
+    private static MockMultipartFile upload(char fill, String fileName) {
+        byte[] content = new byte[DOCUMENT_SIZE];
+        Arrays.fill(content, (byte) fill);
+        return new MockMultipartFile("file", fileName, "application/pdf", content);
+    }
+
+    /**
+     * Waits for the clock to advance so consecutive accesses get distinct timestamps.
+     */
+    private static void tick() {
+        long now = System.currentTimeMillis();
+        while (System.currentTimeMillis() == now) {
+            Thread.onSpinWait();
+        }
+    }
+}
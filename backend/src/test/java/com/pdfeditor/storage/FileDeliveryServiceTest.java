@@ -0,0 +1,102 @@
+package com.pdfeditor.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for {@link FileDeliveryService#parseRanges}.
+ *
+ * @author PDF Editor Team
+ */
+class FileDeliveryServiceTest {
+
+    private static final long LENGTH = 1153;
+    private static final int MAX_RANGES = 16;
+
+    @Test
+    void closedRange() {
+        assertRanges(parse("bytes=0-99"), new long[][] {{0, 99}});
+    }
+
+    @Test
+    void closedRangeIsClampedToLength() {
+        assertRanges(parse("bytes=1000-5000"), new long[][] {{1000, 1152}});
+    }
+
+    @Test
+    void openEndedRange() {
+        assertRanges(parse("bytes=1000-"), new long[][] {{1000, 1152}});
+    }
+
+    @Test
+    void suffixRange() {
+        assertRanges(parse("bytes=-100"), new long[][] {{1053, 1152}});
+    }
+
+    @Test
+    void suffixLongerThanFileCoversWholeFile() {
+        assertRanges(parse("bytes=-5000"), new long[][] {{0, 1152}});
+    }
+
+    @Test
+    void multipleRangesKeepRequestOrder() {
+        assertRanges(parse("bytes=500-599, 0-9,-10"), new long[][] {{500, 599}, {0, 9}, {1143, 1152}});
+    }
+
+    @Test
+    void openEndedRangePastEndIsUnsatisfiable() {
+        assertTrue(parse("bytes=5000-").isEmpty());
+        assertTrue(parse("bytes=1153-").isEmpty());
+    }
+
+    @Test
+    void closedRangePastEndIsUnsatisfiable() {
+        assertTrue(parse("bytes=5000-6000").isEmpty());
+    }
+
+    @Test
+    void zeroSuffixIsUnsatisfiable() {
+        assertTrue(parse("bytes=-0").isEmpty());
+    }
+
+    @Test
+    void unsatisfiableRangesAreDroppedFromASatisfiableSet() {
+        assertRanges(parse("bytes=5000-,0-9"), new long[][] {{0, 9}});
+    }
+
+    @Test
+    void tooManyRangesSendWholeFile() {
+        StringBuilder header = new StringBuilder("bytes=0-0");
+        for (int i = 1; i <= MAX_RANGES; i++) {
+            header.append(',').append(i).append('-').append(i);
+        }
+        assertNull(parse(header.toString()));
+    }
+
+    @Test
+    void malformedHeadersSendWholeFile() {
+        assertNull(parse("items=0-99"));
+        assertNull(parse("bytes=abc"));
+        assertNull(parse("bytes=0-x"));
+        assertNull(parse("bytes=x-9"));
+        assertNull(parse("bytes=99-0"));
+        assertNull(parse("bytes=-"));
+    }
+
+    private static List<long[]> parse(String header) {
+        return FileDeliveryService.parseRanges(header, LENGTH, MAX_RANGES);
+    }
+
+    private static void assertRanges(List<long[]> ranges, long[][] expected) {
+        assertEquals(expected.length, ranges.size(), "range count");
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], ranges.get(i), "range " + i);
+        }
+    }
+}